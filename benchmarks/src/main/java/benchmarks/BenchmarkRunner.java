@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import java.util.List;
+import java.util.ServiceLoader;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Lists;
+
+import de.fhg.igd.iva.colormaps.KnownColormap;
+
+/**
+ * Runs all benchmarks (or those that match the regular expression given as first argument)
+ * with the GC profiler. The colormap throughput benchmark is parameterized with all colormaps
+ * that are discovered through the {@link ServiceLoader}, so new colormaps are included automatically.
+ * @author Martin Steiger
+ */
+public class BenchmarkRunner
+{
+	/**
+	 * @param args the (optional) benchmark include pattern
+	 * @throws RunnerException if a benchmark fails
+	 */
+	public static void main(String[] args) throws RunnerException
+	{
+		String include = (args.length > 0) ? args[0] : ".*";
+
+		Options opts = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.param(KnownColormapBenchmark.COLORMAP_PARAM, discoverColormaps())
+				.build();
+
+		new Runner(opts).run();
+	}
+
+	private static String[] discoverColormaps()
+	{
+		List<String> names = Lists.newArrayList();
+
+		for (KnownColormap colormap : ServiceLoader.load(KnownColormap.class))
+		{
+			Class<? extends KnownColormap> clazz = colormap.getClass();
+			if (!clazz.isAnnotationPresent(Deprecated.class))
+			{
+				names.add(clazz.getName());
+			}
+		}
+
+		return names.toArray(new String[0]);
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import progress.AbstractProgressListener;
+import progress.ProgressListener;
+
+/**
+ * Shared helpers for the benchmarks
+ * @author Martin Steiger
+ */
+final class Benchmarks
+{
+	/**
+	 * A progress listener that is never cancelled and does not report anything
+	 */
+	static final ProgressListener NO_PROGRESS = new AbstractProgressListener()
+	{
+		@Override
+		public boolean isCancelled()
+		{
+			return false;
+		}
+	};
+
+	private Benchmarks()
+	{
+		// no instances
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.fhg.igd.iva.colorspaces.CAT02;
+import de.fhg.igd.iva.colorspaces.CIELAB;
+import de.fhg.igd.iva.colorspaces.XYZ;
+
+/**
+ * Compares the per-color and the batch conversions of {@link XYZ}, {@link CIELAB} and {@link CAT02}.
+ * The batch versions work in place, so they include copying the input into the work buffer.
+ * @author Martin Steiger
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorSpaceBenchmark
+{
+	/**
+	 * The number of colors that are converted per invocation
+	 */
+	@Param({"1024", "65536"})
+	public int count;
+
+	private double[][] colors;
+
+	/**
+	 * The colors in planar layout
+	 */
+	private double[] planar;
+
+	private double[] buffer;
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(123);
+		colors = new double[count][3];
+		planar = new double[3 * count];
+		buffer = new double[3 * count];
+
+		for (int i = 0; i < count; i++)
+		{
+			for (int c = 0; c < 3; c++)
+			{
+				colors[i][c] = random.nextDouble();
+				planar[i + c * count] = colors[i][c];
+			}
+		}
+	}
+
+	@Benchmark
+	public void rgb2xyz(Blackhole bh)
+	{
+		for (double[] rgb : colors)
+		{
+			bh.consume(XYZ.rgb2xyz(rgb));
+		}
+	}
+
+	@Benchmark
+	public double[] rgb2xyzBatch()
+	{
+		System.arraycopy(planar, 0, buffer, 0, buffer.length);
+		XYZ.rgb2xyz(buffer, count);
+		return buffer;
+	}
+
+	@Benchmark
+	public void rgb2lab(Blackhole bh)
+	{
+		for (double[] rgb : colors)
+		{
+			bh.consume(CIELAB.rgb2lab(rgb));
+		}
+	}
+
+	@Benchmark
+	public double[] rgb2labBatch()
+	{
+		System.arraycopy(planar, 0, buffer, 0, buffer.length);
+		CIELAB.rgb2lab(buffer, count);
+		return buffer;
+	}
+
+	@Benchmark
+	public void xyz2cat02(Blackhole bh)
+	{
+		for (double[] xyz : colors)
+		{
+			bh.consume(CAT02.xyz2cat02(xyz));
+		}
+	}
+
+	@Benchmark
+	public double[] xyz2cat02Batch()
+	{
+		System.arraycopy(planar, 0, buffer, 0, buffer.length);
+		CAT02.xyz2cat02(buffer, count);
+		return buffer;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.ImageBasedColormap;
+import de.fhg.igd.iva.colormaps.impl.BCP37;
+
+/**
+ * Measures the bilinear lookup of {@link ImageBasedColormap} at random positions.
+ * @author Martin Steiger
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageBasedColormapBenchmark
+{
+	private static final int LOOKUPS = 4096;
+
+	/**
+	 * The width and height of the image
+	 */
+	@Param({"64", "512"})
+	public int resolution;
+
+	private ImageBasedColormap colormap;
+
+	private final double[] coords = new double[2 * LOOKUPS];
+
+	private final float[] rgb = new float[3];
+
+	@Setup
+	public void setup()
+	{
+		colormap = new CachedColormap(new BCP37(), resolution, resolution);
+
+		Random random = new Random(123);
+		for (int i = 0; i < coords.length; i++)
+		{
+			coords[i] = random.nextDouble();
+		}
+	}
+
+	@Benchmark
+	public void getColorComponents(Blackhole bh)
+	{
+		for (int i = 0; i < LOOKUPS; i++)
+		{
+			bh.consume(colormap.getColorComponents(coords[2 * i], coords[2 * i + 1], rgb));
+		}
+	}
+}
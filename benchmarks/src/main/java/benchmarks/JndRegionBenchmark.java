@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithms.JndRegionComputer;
+import algorithms.sampling.CircularSampling;
+import algorithms.sampling.SamplingStrategy;
+import de.fhg.igd.iva.colormaps.impl.BCP37;
+
+/**
+ * Measures the two phases of {@link JndRegionComputer}. Each invocation starts with
+ * a new computer (and a new sampling), so the colormap is evaluated every time.
+ * @author Martin Steiger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JndRegionBenchmark
+{
+	/**
+	 * Provides a new computer for every invocation
+	 */
+	@State(Scope.Thread)
+	public static class NewComputer
+	{
+		/**
+		 * The resolution of the circular sampling
+		 */
+		@Param({"10", "30"})
+		public int resolution;
+
+		JndRegionComputer computer;
+
+		@Setup(Level.Invocation)
+		public void setup()
+		{
+			SamplingStrategy sampling = new CircularSampling(resolution);
+			computer = new JndRegionComputer(new BCP37(), sampling);
+		}
+	}
+
+	/**
+	 * Provides a new computer with computed points for every invocation
+	 */
+	@State(Scope.Thread)
+	public static class SampledComputer
+	{
+		/**
+		 * The resolution of the circular sampling
+		 */
+		@Param({"10", "30"})
+		public int resolution;
+
+		JndRegionComputer computer;
+
+		@Setup(Level.Invocation)
+		public void setup()
+		{
+			SamplingStrategy sampling = new CircularSampling(resolution);
+			computer = new JndRegionComputer(new BCP37(), sampling);
+			computer.computePoints(Benchmarks.NO_PROGRESS);
+		}
+	}
+
+	@Benchmark
+	public JndRegionComputer computePoints(NewComputer state)
+	{
+		state.computer.computePoints(Benchmarks.NO_PROGRESS);
+		return state.computer;
+	}
+
+	@Benchmark
+	public JndRegionComputer computeJndRegions(SampledComputer state)
+	{
+		state.computer.computeJndRegions(Benchmarks.NO_PROGRESS);
+		return state.computer;
+	}
+}
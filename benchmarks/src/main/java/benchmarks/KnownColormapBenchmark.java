@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.fhg.igd.iva.colormaps.KnownColormap;
+
+/**
+ * Measures the throughput of {@link KnownColormap#getColor(double, double)} and
+ * {@link KnownColormap#getColorComponents(double, double, float[])} over a regular grid.
+ * The {@link BenchmarkRunner} replaces the colormap parameter with all known colormaps.
+ * @author Martin Steiger
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KnownColormapBenchmark
+{
+	static final String COLORMAP_PARAM = "colormap";
+
+	@Param("de.fhg.igd.iva.colormaps.impl.BCP37")
+	public String colormap;
+
+	/**
+	 * The number of rows and columns of the sampling grid
+	 */
+	@Param({"64", "256"})
+	public int resolution;
+
+	private KnownColormap instance;
+
+	private final float[] rgb = new float[3];
+
+	@Setup
+	public void setup() throws ReflectiveOperationException
+	{
+		instance = Class.forName(colormap).asSubclass(KnownColormap.class).newInstance();
+	}
+
+	@Benchmark
+	public void getColor(Blackhole bh)
+	{
+		for (int y = 0; y < resolution; y++)
+		{
+			double my = y / (resolution - 1.0);
+			for (int x = 0; x < resolution; x++)
+			{
+				double mx = x / (resolution - 1.0);
+				bh.consume(instance.getColor(mx, my));
+			}
+		}
+	}
+
+	@Benchmark
+	public void getColorComponents(Blackhole bh)
+	{
+		for (int y = 0; y < resolution; y++)
+		{
+			double my = y / (resolution - 1.0);
+			for (int x = 0; x < resolution; x++)
+			{
+				double mx = x / (resolution - 1.0);
+				bh.consume(instance.getColorComponents(mx, my, rgb));
+			}
+		}
+	}
+}
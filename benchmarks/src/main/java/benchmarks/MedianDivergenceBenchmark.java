@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithms.MedianDivergenceComputer;
+import algorithms.sampling.EvenDistributedDistancePoints;
+import de.fhg.igd.iva.colormaps.Colormap;
+import de.fhg.igd.iva.colormaps.impl.BCP37;
+
+/**
+ * Measures {@link MedianDivergenceComputer} including the color sampling, the ratio
+ * computation and three quantile queries. The sampling points are generated in the setup.
+ * @author Martin Steiger
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MedianDivergenceBenchmark
+{
+	/**
+	 * The number of sampling points (two per pair)
+	 */
+	@Param({"10000", "100000"})
+	public int points;
+
+	private final Colormap colormap = new BCP37();
+
+	private EvenDistributedDistancePoints sampling;
+
+	@Setup
+	public void setup()
+	{
+		sampling = new EvenDistributedDistancePoints(new Random(123), points);
+		sampling.getCoordinates();
+	}
+
+	@Benchmark
+	public double[] quantiles()
+	{
+		MedianDivergenceComputer comp = MedianDivergenceComputer.fromSamplingStrategy(colormap, sampling);
+		return comp.getQuantiles(0.05, 0.5, 0.95);
+	}
+}
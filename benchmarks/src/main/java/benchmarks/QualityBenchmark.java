@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithms.quality.ColormapQuality;
+import algorithms.quality.QualityMetrics;
+import algorithms.sampling.CircularSampling;
+import algorithms.sampling.EvenDistributedDistancePoints;
+import algorithms.sampling.GridSampling;
+import de.fhg.igd.iva.colormaps.Colormap;
+import de.fhg.igd.iva.colormaps.impl.BCP37;
+
+/**
+ * Measures {@link ColormapQuality#getQuality(Colormap)} of every metric. The sampling
+ * points are generated in the setup, the colors are sampled in every invocation.
+ * @author Martin Steiger
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QualityBenchmark
+{
+	/**
+	 * The metric name - must match {@link QualityMetrics#NAMES} (annotation values must be constants)
+	 */
+	@Param({"AttentionQuality", "ColorAppearanceDivergence", "ColorDivergenceQuantile", "ColorDivergenceVariance",
+		"ColorDynamicBrightest", "ColorDynamicCappedWhiteContrast", "ColorDynamicDarkest", "ColorDynamicDistBlack",
+		"ColorDynamicDistWhite", "ColorDynamicWhiteContrast", "ColorExploitation", "JndRegionSize"})
+	public String metric;
+
+	/**
+	 * The sampling resolution: rows/cols of the grid sampling, the circular sampling resolution
+	 * and the square root of the number of random points
+	 */
+	@Param({"10", "30"})
+	public int resolution;
+
+	private final Colormap colormap = new BCP37();
+
+	private ColormapQuality quality;
+
+	@Setup
+	public void setup()
+	{
+		GridSampling grid = new GridSampling(resolution);
+		CircularSampling circular = new CircularSampling(resolution);
+		EvenDistributedDistancePoints pairs = new EvenDistributedDistancePoints(new Random(123), resolution * resolution);
+
+		// generate the sampling points outside of the measurement
+		grid.getCoordinates();
+		circular.getCoordinates();
+		pairs.getCoordinates();
+
+		quality = QualityMetrics.create(metric, grid, circular, pairs, 3.0);
+	}
+
+	@Benchmark
+	public double getQuality()
+	{
+		return quality.getQuality(colormap);
+	}
+}
@@ -21,24 +21,43 @@ import java.awt.Color;
 import com.google.common.base.Preconditions;
 
 /**
- * A partly (default) implementation of {@link KnownColormap}
+ * A partly (default) implementation of {@link KnownColormap}.
+ * Subclasses implement {@link #getColorComponents(double, double, float[])},
+ * {@link #getColor(double, double)} is derived from it.
  * @author Martin Steiger
  */
 public abstract class AbstractColormap implements Colormap {
 
+	@Override
+	public Color getColor(double x, double y) {
+		float[] rgb = getColorComponents(x, y, new float[3]);
+		return new Color(rgb[0], rgb[1], rgb[2]);
+	}
+
+	@Override
+	public abstract float[] getColorComponents(double x, double y, float[] rgb);
+
 	protected void checkRanges(double x, double y) {
 		Preconditions.checkArgument(0 <= x && x <= 1, "X must in in range [0..1], but is %s", x);
 		Preconditions.checkArgument(0 <= y && y <= 1, "Y must in in range [0..1], but is %s", y);
 	}
 
     protected Color interpolate(Color tl, Color tr, Color bl, Color br, double x, double y) {
+        float[] rgb = interpolate(tl, tr, bl, br, x, y, new float[3]);
+        return new Color(rgb[0], rgb[1], rgb[2]);
+    }
+
+    protected float[] interpolate(Color tl, Color tr, Color bl, Color br, double x, double y, float[] rgb) {
         checkRanges(x, y);
 
         double r = interpolate(tl.getRed(), tr.getRed(), bl.getRed(), br.getRed(), x, y);
         double g = interpolate(tl.getGreen(), tr.getGreen(), bl.getGreen(), br.getGreen(), x, y);
         double b = interpolate(tl.getBlue(), tr.getBlue(), bl.getBlue(), br.getBlue(), x, y);
 
-        return new Color((float)r / 255f, (float)g / 255f, (float)b / 255f);
+        rgb[0] = (float)r / 255f;
+        rgb[1] = (float)g / 255f;
+        rgb[2] = (float)b / 255f;
+        return rgb;
     }
 
     protected double interpolate(double start, double end, double position) {
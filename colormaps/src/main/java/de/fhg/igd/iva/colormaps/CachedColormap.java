@@ -24,77 +24,259 @@ import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.ComponentColorModel;
 import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferFloat;
 import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.google.common.base.Preconditions;
 
 /**
  * A cached, but otherwise transparent {@link KnownColormap}
- * wrapper implementation.
+ * wrapper implementation. Optionally, a companion grid of perceptual coordinates
+ * is computed once, see {@link #withPerceptualGrid(PerceptualConversion)}.
  * @author Martin Steiger
  */
 public class CachedColormap extends ImageBasedColormap
 {
+	/**
+	 * Rows per stripe below which a stripe is not split any further
+	 */
+	private static final int MIN_STRIPE_ROWS = 16;
+
 	private final Colormap delegate;
 
 	/**
+	 * Planar grid of perceptual coordinates (same layout as the RGB grid) or <code>null</code>
+	 */
+	private final float[] perceptual;
+
+	/**
+	 * The cache image is computed in parallel in the {@link ForkJoinPool#commonPool() common pool}.
 	 * @param colormap the underlying color map
 	 * @param imgWidth the width of the cache image
 	 * @param imgHeight the height of the cache image
 	 */
 	public CachedColormap(Colormap colormap, int imgWidth, int imgHeight)
 	{
-		super(createImage(imgWidth, imgHeight));
+		this(colormap, imgWidth, imgHeight, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param colormap the underlying color map
+	 * @param imgWidth the width of the cache image
+	 * @param imgHeight the height of the cache image
+	 * @param pool the pool that computes the row stripes of the cache image - its parallelism
+	 * defines the number of threads that are used
+	 */
+	public CachedColormap(Colormap colormap, int imgWidth, int imgHeight, ForkJoinPool pool)
+	{
+		this(colormap, imgWidth, imgHeight, computeGrid(colormap, imgWidth, imgHeight, pool));
+	}
+
+	/**
+	 * Uses precomputed cache content, e.g. loaded from a {@link CachedColormapStore}.
+	 * @param colormap the underlying color map
+	 * @param imgWidth the width of the cache image
+	 * @param imgHeight the height of the cache image
+	 * @param planar the planar RGB grid as defined by {@link Colormap#getColorGrid(int, int, float[])}
+	 */
+	CachedColormap(Colormap colormap, int imgWidth, int imgHeight, float[] planar)
+	{
+		this(colormap, imgWidth, imgHeight, planar, null);
+	}
+
+	private CachedColormap(Colormap colormap, int imgWidth, int imgHeight, float[] planar, float[] perceptual)
+	{
+		super(createImage(imgWidth, imgHeight, planar));
 
 		this.delegate = colormap;
+		this.perceptual = perceptual;
+	}
+
+	/**
+	 * Computes the companion grid in the {@link ForkJoinPool#commonPool() common pool}.
+	 * @param conversion the conversion to the perceptual color space
+	 * @return a new instance that shares the cache image and has a companion grid of perceptual coordinates,
+	 * see {@link #getPerceptualComponents(double, double, float[])}
+	 */
+	public CachedColormap withPerceptualGrid(PerceptualConversion conversion)
+	{
+		return withPerceptualGrid(conversion, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param conversion the conversion to the perceptual color space
+	 * @param pool the pool that computes the row stripes of the companion grid
+	 * @return a new instance that shares the cache image and has a companion grid of perceptual coordinates,
+	 * see {@link #getPerceptualComponents(double, double, float[])}
+	 */
+	public CachedColormap withPerceptualGrid(PerceptualConversion conversion, ForkJoinPool pool)
+	{
+		int width = getImage().getWidth();
+		int height = getImage().getHeight();
+		float[] planar = getGridData();
+		float[] target = new float[planar.length];
+
+		pool.invoke(new RowStripeTask(0, height,
+				(first, last) -> toPerceptual(conversion, width, height, first, last, planar, target)));
+
+		return new CachedColormap(delegate, width, height, planar, target);
+	}
+
+	/**
+	 * Creates the cache in the {@link ForkJoinPool#commonPool() common pool} without blocking the caller.
+	 * @param colormap the underlying color map
+	 * @param imgWidth the width of the cache image
+	 * @param imgHeight the height of the cache image
+	 * @return a future that completes when the cache image is ready
+	 */
+	public static CompletableFuture<CachedColormap> createAsync(Colormap colormap, int imgWidth, int imgHeight)
+	{
+		return createAsync(colormap, imgWidth, imgHeight, ForkJoinPool.commonPool());
+	}
 
-		float maxY = imgHeight - 1;
-		float maxX = imgWidth - 1;
+	/**
+	 * Creates the cache in the given pool without blocking the caller.
+	 * @param colormap the underlying color map
+	 * @param imgWidth the width of the cache image
+	 * @param imgHeight the height of the cache image
+	 * @param pool the pool that computes the row stripes of the cache image
+	 * @return a future that completes when the cache image is ready
+	 */
+	public static CompletableFuture<CachedColormap> createAsync(Colormap colormap, int imgWidth, int imgHeight, ForkJoinPool pool)
+	{
+		return CompletableFuture.supplyAsync(() -> new CachedColormap(colormap, imgWidth, imgHeight, pool), pool);
+	}
+
+	private static float[] computeGrid(Colormap colormap, int imgWidth, int imgHeight, ForkJoinPool pool)
+	{
+		float[] planar = new float[3 * imgWidth * imgHeight];
 
-		float[] compArray = new float[3];
+		pool.invoke(new RowStripeTask(0, imgHeight,
+				(first, last) -> colormap.getColorGrid(imgWidth, imgHeight, first, last, planar)));
 
-		WritableRaster raster = getImage().getRaster();
+		return planar;
+	}
 
-		for (int y = 0; y < imgHeight; y++)
+	private static void toPerceptual(PerceptualConversion conversion, int width, int height, int firstRow, int lastRow,
+			float[] planar, float[] target)
+	{
+		int size = width * height;
+		float[] rgb = new float[3];
+		float[] comps = new float[3];
+
+		for (int idx = firstRow * width; idx < lastRow * width; idx++)
 		{
-			float my = y / maxY;
-			for (int x = 0; x < imgWidth; x++)
-			{
-				float mx = x / maxX;
-				Color color = colormap.getColor(mx, my);
-				color.getColorComponents(compArray);
+			rgb[0] = planar[idx];
+			rgb[1] = planar[idx + size];
+			rgb[2] = planar[idx + 2 * size];
 
-				raster.setSample(x, y, 0, compArray[0]);
-				raster.setSample(x, y, 1, compArray[1]);
-				raster.setSample(x, y, 2, compArray[2]);
-			}
+			conversion.toPerceptual(rgb, comps);
+
+			target[idx] = comps[0];
+			target[idx + size] = comps[1];
+			target[idx + 2 * size] = comps[2];
 		}
 	}
 
-	private static BufferedImage createImage(int imgWidth, int imgHeight)
+	private static BufferedImage createImage(int imgWidth, int imgHeight, float[] planar)
 	{
+		int size = imgWidth * imgHeight;
+
+		Preconditions.checkArgument(planar.length == 3 * size, "Expected %s grid values, but got %s", 3 * size, planar.length);
+
+		// the three bands share the planar array, starting at offsets 0, size and 2 * size
+		int[] bankIndices = new int[] { 0, 0, 0 };
+		int[] bandOffsets = new int[] { 0, size, 2 * size };
+
 		java.awt.color.ColorSpace space = java.awt.color.ColorSpace.getInstance(java.awt.color.ColorSpace.CS_sRGB);
 		ColorModel colorModel = new ComponentColorModel(space, false, false, Transparency.OPAQUE, DataBuffer.TYPE_FLOAT);
-		BandedSampleModel model = new BandedSampleModel(DataBuffer.TYPE_FLOAT, imgWidth, imgHeight, 3);
-		DataBuffer buffer = model.createDataBuffer();
+		BandedSampleModel model = new BandedSampleModel(DataBuffer.TYPE_FLOAT, imgWidth, imgHeight, imgWidth, bankIndices, bandOffsets);
+		DataBuffer buffer = new DataBufferFloat(planar, planar.length);
 		WritableRaster raster = Raster.createWritableRaster(model, buffer, null);
 		BufferedImage image = new BufferedImage(colorModel, raster, false, null);
 
-//		BufferedImage image = new BufferedImage(imgWidth, imgHeight, BufferedImage.TYPE_INT_RGB);
-
 		return image;
 	}
 	
 	/**
-	 * @return the original, underlying colormap
+	 * @return the planar RGB grid that backs the cache image
 	 */
-	public Colormap getOriginal() {
-		return delegate;
+	float[] getGridData()
+	{
+		return ((DataBufferFloat) getImage().getRaster().getDataBuffer()).getData();
+	}
+
+	/**
+	 * @return true if the instance has a companion grid of perceptual coordinates
+	 */
+	public boolean hasPerceptualGrid()
+	{
+		return perceptual != null;
+	}
+
+	/**
+	 * Bilinearly interpolates the companion grid of perceptual coordinates. This avoids the conversion
+	 * from sRGB for every lookup, but is an approximation of converting the (interpolated) color.
+	 * At the grid points, the result is the converted cache color.
+	 * @param mx the x coordinate in the range [0..1]
+	 * @param my the y coordinate in the range [0..1]
+	 * @param comps the target array (at least 3 elements)
+	 * @return the <code>comps</code> array
+	 * @throws IllegalStateException if there is no companion grid
+	 */
+	public float[] getPerceptualComponents(double mx, double my, float[] comps)
+	{
+		Preconditions.checkState(perceptual != null, "No perceptual companion grid available");
+		checkRanges(mx, my);
+
+		int width = getImage().getWidth();
+		int height = getImage().getHeight();
+		int size = width * height;
+
+		double x = mx * (width - 1);
+		double y = my * (height - 1);
+
+		int minX = (int)Math.floor(x);
+		int maxX = (int)Math.ceil(x);
+
+		int minY = (int)Math.floor(y);
+		int maxY = (int)Math.ceil(y);
+
+		int i00 = minY * width + minX;
+		int i10 = minY * width + maxX;
+		int i01 = maxY * width + minX;
+		int i11 = maxY * width + maxX;
+
+		double ipx = x - minX;
+		double ipy = y - minY;
+
+		for (int c = 0; c < 3; c++)
+		{
+			int off = c * size;
+			double top = perceptual[off + i00] * (1.0 - ipx) + perceptual[off + i10] * ipx;
+			double bottom = perceptual[off + i01] * (1.0 - ipx) + perceptual[off + i11] * ipx;
+
+			comps[c] = (float) (top * (1.0 - ipy) + bottom * ipy);
+		}
+
+		return comps;
 	}
 
 	@Override
-	public Color getColor(double mx, double my)
+	public long getRetainedBytes()
 	{
-		return super.getColor(mx, my);
+		return super.getRetainedBytes() + ((perceptual != null) ? 4L * perceptual.length : 0);
+	}
+
+	/**
+	 * @return the original, underlying colormap
+	 */
+	public Colormap getOriginal() {
+		return delegate;
 	}
 
 	/**
@@ -107,4 +289,49 @@ public class CachedColormap extends ImageBasedColormap
 	{
 		return delegate.getColor(x, y);
 	}
+
+	/**
+	 * Processes a range of rows
+	 */
+	private interface RowRangeFunction
+	{
+		void apply(int firstRow, int lastRow);
+	}
+
+	/**
+	 * Processes a range of rows and recursively splits it into two halves if it is large enough.
+	 * The colormap is expected to be safe for concurrent (read-only) access.
+	 */
+	private static class RowStripeTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = -3520426314718306517L;
+
+		private final int firstRow;
+		private final int lastRow;
+		private final RowRangeFunction function;
+
+		RowStripeTask(int firstRow, int lastRow, RowRangeFunction function)
+		{
+			this.firstRow = firstRow;
+			this.lastRow = lastRow;
+			this.function = function;
+		}
+
+		@Override
+		protected void compute()
+		{
+			int rows = lastRow - firstRow;
+			if (rows <= MIN_STRIPE_ROWS)
+			{
+				function.apply(firstRow, lastRow);
+			}
+			else
+			{
+				int mid = firstRow + rows / 2;
+				invokeAll(
+					new RowStripeTask(firstRow, mid, function),
+					new RowStripeTask(mid, lastRow, function));
+			}
+		}
+	}
 }
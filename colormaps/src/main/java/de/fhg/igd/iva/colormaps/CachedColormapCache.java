@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fhg.igd.iva.colormaps;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Shares {@link CachedColormap}s between all components that request the same colormap
+ * at the same resolution. The total size of the cache images is bounded, the least recently
+ * used entries are evicted first. Concurrent requests for the same entry compute it only once.
+ * <p>
+ * {@link KnownColormap}s are loaded from (and stored in) a {@link CachedColormapStore}, if available.
+ * @author Martin Steiger
+ */
+public class CachedColormapCache
+{
+	private static final Logger logger = LoggerFactory.getLogger(CachedColormapCache.class);
+
+	private static final String MEMORY_PROPERTY = "colormaps.cache.memory";
+
+	private static final long DEFAULT_MEMORY_MB = 128;
+
+	private final Cache<Key, CachedColormap> cache;
+
+	private final CachedColormapStore store;
+
+	/**
+	 * @param maxBytes the maximum total size of all cache images in bytes, see {@link CachedColormap#getRetainedBytes()}
+	 * @param store the store for known colormaps or <code>null</code> to always compute the cache images
+	 */
+	public CachedColormapCache(long maxBytes, CachedColormapStore store)
+	{
+		this.store = store;
+		this.cache = CacheBuilder.newBuilder()
+				.concurrencyLevel(1)			// a single segment evicts in global LRU order
+				.maximumWeight(maxBytes)
+				.weigher((Key key, CachedColormap value) -> (int) Math.min(Integer.MAX_VALUE, value.getRetainedBytes()))
+				.build();
+	}
+
+	/**
+	 * @return a cache that uses the {@link CachedColormapStore#getDefault() default store}. Its size limit
+	 * in MB is defined by the system property <code>colormaps.cache.memory</code> (128 MB if undefined).
+	 */
+	public static CachedColormapCache getDefault()
+	{
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * Returns the shared cache or computes it if it is not available
+	 * @param colormap the underlying color map
+	 * @param imgWidth the width of the cache image
+	 * @param imgHeight the height of the cache image
+	 * @return the cached colormap
+	 */
+	public CachedColormap get(Colormap colormap, int imgWidth, int imgHeight)
+	{
+		try
+		{
+			return cache.get(new Key(colormap, imgWidth, imgHeight), () -> create(colormap, imgWidth, imgHeight));
+		}
+		catch (ExecutionException | UncheckedExecutionException e)
+		{
+			throw new IllegalStateException("Could not create cache for " + colormap, e.getCause());
+		}
+	}
+
+	/**
+	 * Same as {@link #get(Colormap, int, int)}, but runs in the {@link ForkJoinPool#commonPool() common pool}.
+	 * @param colormap the underlying color map
+	 * @param imgWidth the width of the cache image
+	 * @param imgHeight the height of the cache image
+	 * @return a future that completes when the cache image is ready
+	 */
+	public CompletableFuture<CachedColormap> getAsync(Colormap colormap, int imgWidth, int imgHeight)
+	{
+		CachedColormap cached = getIfPresent(colormap, imgWidth, imgHeight);
+		if (cached != null)
+		{
+			return CompletableFuture.completedFuture(cached);
+		}
+
+		return CompletableFuture.supplyAsync(() -> get(colormap, imgWidth, imgHeight));
+	}
+
+	/**
+	 * @param colormap the underlying color map
+	 * @param imgWidth the width of the cache image
+	 * @param imgHeight the height of the cache image
+	 * @return the cached colormap or <code>null</code> if it is not available (yet)
+	 */
+	public CachedColormap getIfPresent(Colormap colormap, int imgWidth, int imgHeight)
+	{
+		return cache.getIfPresent(new Key(colormap, imgWidth, imgHeight));
+	}
+
+	/**
+	 * @return the number of cached entries
+	 */
+	public long size()
+	{
+		return cache.size();
+	}
+
+	private CachedColormap create(Colormap colormap, int imgWidth, int imgHeight)
+	{
+		logger.debug("Creating {}x{} cache for {}", imgWidth, imgHeight, colormap);
+
+		if (store != null && colormap instanceof KnownColormap)
+		{
+			return store.get((KnownColormap) colormap, imgWidth, imgHeight);
+		}
+
+		return new CachedColormap(colormap, imgWidth, imgHeight);
+	}
+
+	private static final class Key
+	{
+		private final Colormap colormap;
+		private final int width;
+		private final int height;
+
+		Key(Colormap colormap, int width, int height)
+		{
+			this.colormap = colormap;
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(colormap, width, height);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+
+			if (!(obj instanceof Key))
+				return false;
+
+			Key other = (Key) obj;
+			return width == other.width && height == other.height && colormap.equals(other.colormap);
+		}
+	}
+
+	private static class DefaultHolder
+	{
+		static final CachedColormapCache INSTANCE = new CachedColormapCache(getMaxBytes(), CachedColormapStore.getDefault());
+
+		private static long getMaxBytes()
+		{
+			long mb = Long.getLong(MEMORY_PROPERTY, DEFAULT_MEMORY_MB);
+			return mb * 1024 * 1024;
+		}
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fhg.igd.iva.colormaps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Persists the content of {@link CachedColormap}s in a folder so that later runs can
+ * load it instead of evaluating the colormap again. Each file consists of a fixed header
+ * (magic, version, width, height, key) followed by the planar float32 RGB grid. Files are
+ * loaded through {@link FileChannel#map} into the array that backs the cache image. It is the
+ * only copy on the heap - {@link ImageBasedColormap} samples the planar grid without copying it.
+ * <p>
+ * Entries are keyed by colormap class, name, resolution and a hash of a coarse sample grid
+ * so that changes in the colormap definition invalidate old files.
+ * @author Martin Steiger
+ */
+public class CachedColormapStore
+{
+	private static final Logger logger = LoggerFactory.getLogger(CachedColormapStore.class);
+
+	private static final int MAGIC = 0x434D4150;		// "CMAP"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8;
+
+	private static final int PROBE_SIZE = 17;
+
+	private static final String FOLDER_PROPERTY = "colormaps.cache.dir";
+
+	private final Path folder;
+
+	/**
+	 * @param folder the folder that contains the cache files
+	 */
+	public CachedColormapStore(File folder)
+	{
+		this.folder = folder.toPath();
+	}
+
+	/**
+	 * @return a store in the folder defined by the system property <code>colormaps.cache.dir</code>
+	 * or in a subfolder of the temp. directory if undefined
+	 */
+	public static CachedColormapStore getDefault()
+	{
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * Loads the cache from disk or computes and stores it if no valid file exists.
+	 * I/O errors are logged and result in a freshly computed cache.
+	 * @param colormap the underlying color map
+	 * @param imgWidth the width of the cache image
+	 * @param imgHeight the height of the cache image
+	 * @return the cached colormap
+	 */
+	public CachedColormap get(KnownColormap colormap, int imgWidth, int imgHeight)
+	{
+		long key = computeKey(colormap, imgWidth, imgHeight);
+		Path file = folder.resolve(toFilename(colormap, imgWidth, imgHeight, key));
+
+		if (Files.isRegularFile(file))
+		{
+			try
+			{
+				float[] planar = read(file, imgWidth, imgHeight, key);
+				if (planar != null)
+				{
+					logger.debug("Loaded cache file {}", file);
+					return new CachedColormap(colormap, imgWidth, imgHeight, planar);
+				}
+
+				logger.info("Ignoring outdated cache file {}", file);
+			}
+			catch (IOException e)
+			{
+				logger.warn("Could not read cache file " + file, e);
+			}
+		}
+
+		CachedColormap cached = new CachedColormap(colormap, imgWidth, imgHeight);
+
+		try
+		{
+			write(file, imgWidth, imgHeight, key, cached.getGridData());
+			logger.debug("Created cache file {}", file);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Could not write cache file " + file, e);
+		}
+
+		return cached;
+	}
+
+	/**
+	 * Same as {@link #get(KnownColormap, int, int)}, but runs in the {@link ForkJoinPool#commonPool() common pool}.
+	 * @param colormap the underlying color map
+	 * @param imgWidth the width of the cache image
+	 * @param imgHeight the height of the cache image
+	 * @return a future that completes when the cache image is ready
+	 */
+	public CompletableFuture<CachedColormap> getAsync(KnownColormap colormap, int imgWidth, int imgHeight)
+	{
+		return CompletableFuture.supplyAsync(() -> get(colormap, imgWidth, imgHeight));
+	}
+
+	private static float[] read(Path file, int width, int height, long key) throws IOException
+	{
+		long expectedSize = HEADER_SIZE + 12L * width * height;
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			if (channel.size() != expectedSize)
+			{
+				return null;
+			}
+
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, expectedSize);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+			 || buffer.getInt() != width || buffer.getInt() != height
+			 || buffer.getLong() != key)
+			{
+				return null;
+			}
+
+			float[] planar = new float[3 * width * height];
+			buffer.asFloatBuffer().get(planar);
+			return planar;
+		}
+	}
+
+	private void write(Path file, int width, int height, long key, float[] planar) throws IOException
+	{
+		Files.createDirectories(folder);
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 4 * planar.length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(width);
+		buffer.putInt(height);
+		buffer.putLong(key);
+		buffer.asFloatBuffer().put(planar);
+		buffer.rewind();
+
+		// write to a temp. file first so that concurrent readers never see incomplete files
+		Path temp = Files.createTempFile(folder, file.getFileName().toString(), ".tmp");
+
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE))
+		{
+			while (buffer.hasRemaining())
+			{
+				channel.write(buffer);
+			}
+		}
+
+		try
+		{
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e)
+		{
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally
+		{
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static long computeKey(KnownColormap colormap, int width, int height)
+	{
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		hasher.putString(colormap.getClass().getName(), Charsets.UTF_8);
+		hasher.putString(colormap.getName(), Charsets.UTF_8);
+		hasher.putInt(width);
+		hasher.putInt(height);
+
+		for (float value : colormap.getColorGrid(PROBE_SIZE, PROBE_SIZE, (float[]) null))
+		{
+			hasher.putFloat(value);
+		}
+
+		return hasher.hash().asLong();
+	}
+
+	private static String toFilename(KnownColormap colormap, int width, int height, long key)
+	{
+		String name = colormap.getName().replaceAll("\\W", "_");	// NOT a number, letter or underscore
+		return String.format("%s_%dx%d_%016x.cmap", name, width, height, key);
+	}
+
+	private static class DefaultHolder
+	{
+		static final CachedColormapStore INSTANCE = new CachedColormapStore(getDefaultFolder());
+
+		private static File getDefaultFolder()
+		{
+			String folder = System.getProperty(FOLDER_PROPERTY);
+			if (folder != null)
+			{
+				return new File(folder);
+			}
+
+			return new File(System.getProperty("java.io.tmpdir"), "colormap-cache");
+		}
+	}
+}
@@ -23,4 +23,167 @@ public interface Colormap
 	 * @return the color value at [mx, my]
 	 */
 	Color getColor(double x, double y);
+
+	/**
+	 * Writes the sRGB components of the color at [x, y] into the given array.
+	 * Implementations should override this method to avoid creating a {@link Color} instance per sample.
+	 * @param x the x coordinate in the range [0..1]
+	 * @param y the x coordinate in the range [0..1]
+	 * @param rgb the target array (at least 3 elements) for the red, green and blue components in [0..1]
+	 * @return the <code>rgb</code> array
+	 */
+	default float[] getColorComponents(double x, double y, float[] rgb)
+	{
+		return getColor(x, y).getColorComponents(rgb);
+	}
+
+	/**
+	 * Writes the sRGB components of the color at [x, y] into the given array.
+	 * The default implementation is based on {@link #getColorComponents(double, double, float[])}.
+	 * @param x the x coordinate in the range [0..1]
+	 * @param y the x coordinate in the range [0..1]
+	 * @param rgb the target array (at least 3 elements) for the red, green and blue components in [0..1]
+	 * @return the <code>rgb</code> array
+	 */
+	default double[] getColorComponents(double x, double y, double[] rgb)
+	{
+		float[] comps = getColorComponents(x, y, new float[3]);
+
+		rgb[0] = comps[0];
+		rgb[1] = comps[1];
+		rgb[2] = comps[2];
+
+		return rgb;
+	}
+
+	/**
+	 * Evaluates the colormap for an entire grid of <code>width x height</code> samples.
+	 * Sample [i, j] is taken at <code>[i / (width - 1), j / (height - 1)]</code> so that
+	 * the grid covers both boundaries. Colors are stored row by row as packed, opaque ARGB values
+	 * in the same format as {@link Color#getRGB()}.
+	 * @param width the number of samples in x direction (at least 2)
+	 * @param height the number of samples in y direction (at least 2)
+	 * @param argb the target array (at least <code>width * height</code> elements) or <code>null</code>
+	 * @return the <code>argb</code> array or a newly allocated array if it was <code>null</code>
+	 */
+	default int[] getColorGrid(int width, int height, int[] argb)
+	{
+		int[] target = (argb != null) ? argb : new int[width * height];
+		float[] rgb = new float[3];
+
+		float maxX = width - 1;
+		float maxY = height - 1;
+
+		int idx = 0;
+		for (int y = 0; y < height; y++)
+		{
+			float my = y / maxY;
+			for (int x = 0; x < width; x++)
+			{
+				float mx = x / maxX;
+				getColorComponents(mx, my, rgb);
+				target[idx++] = toARGB(rgb);
+			}
+		}
+
+		return target;
+	}
+
+	/**
+	 * Evaluates the colormap for an entire grid of <code>width x height</code> samples.
+	 * Sample [i, j] is taken at <code>[i / (width - 1), j / (height - 1)]</code> so that
+	 * the grid covers both boundaries. Colors are stored in planar layout: all red components
+	 * (row by row) first, followed by all green and all blue components.
+	 * @param width the number of samples in x direction (at least 2)
+	 * @param height the number of samples in y direction (at least 2)
+	 * @param planar the target array (at least <code>3 * width * height</code> elements) or <code>null</code>
+	 * @return the <code>planar</code> array or a newly allocated array if it was <code>null</code>
+	 */
+	default float[] getColorGrid(int width, int height, float[] planar)
+	{
+		float[] target = (planar != null) ? planar : new float[3 * width * height];
+
+		return getColorGrid(width, height, 0, height, target);
+	}
+
+	/**
+	 * Evaluates the rows <code>[firstRow, lastRow)</code> of a <code>width x height</code> grid.
+	 * The layout of the target array is the same as in {@link #getColorGrid(int, int, float[])},
+	 * so disjoint row ranges can be filled independently, e.g. by different threads.
+	 * @param width the number of samples in x direction (at least 2)
+	 * @param height the number of samples in y direction (at least 2)
+	 * @param firstRow the first row (inclusive)
+	 * @param lastRow the last row (exclusive)
+	 * @param planar the target array (at least <code>3 * width * height</code> elements)
+	 * @return the <code>planar</code> array
+	 */
+	default float[] getColorGrid(int width, int height, int firstRow, int lastRow, float[] planar)
+	{
+		int size = width * height;
+		float[] rgb = new float[3];
+
+		float maxX = width - 1;
+		float maxY = height - 1;
+
+		int idx = firstRow * width;
+		for (int y = firstRow; y < lastRow; y++)
+		{
+			float my = y / maxY;
+			for (int x = 0; x < width; x++)
+			{
+				float mx = x / maxX;
+				getColorComponents(mx, my, rgb);
+				planar[idx] = rgb[0];
+				planar[idx + size] = rgb[1];
+				planar[idx + 2 * size] = rgb[2];
+				idx++;
+			}
+		}
+
+		return planar;
+	}
+
+	/**
+	 * Evaluates the colormap for an arbitrary list of sample points.
+	 * @param coords the interleaved sample coordinates <code>[x0, y0, x1, y1, ..]</code> in the range [0..1]
+	 * @param argb the target array (at least <code>coords.length / 2</code> elements) or <code>null</code>
+	 * @return the <code>argb</code> array (packed, opaque ARGB values) or a newly allocated array if it was <code>null</code>
+	 */
+	default int[] getColors(double[] coords, int[] argb)
+	{
+		int count = coords.length / 2;
+		int[] target = (argb != null) ? argb : new int[count];
+		float[] rgb = new float[3];
+
+		for (int i = 0; i < count; i++)
+		{
+			getColorComponents(coords[2 * i], coords[2 * i + 1], rgb);
+			target[i] = toARGB(rgb);
+		}
+
+		return target;
+	}
+
+	/**
+	 * Converts sRGB components to a packed, opaque ARGB value. Rounding is identical to
+	 * {@link Color#Color(float, float, float)}.
+	 * @param rgb the red, green and blue components in [0..1]
+	 * @return the packed ARGB value
+	 * @throws IllegalArgumentException if a component is outside [0..1] - same as {@link Color#Color(float, float, float)}
+	 */
+	static int toARGB(float[] rgb)
+	{
+		// out-of-range values would overflow into the neighboring channel
+		if (rgb[0] < 0 || rgb[0] > 1 || rgb[1] < 0 || rgb[1] > 1 || rgb[2] < 0 || rgb[2] > 1)
+		{
+			throw new IllegalArgumentException("Color components outside of expected range: "
+					+ rgb[0] + ", " + rgb[1] + ", " + rgb[2]);
+		}
+
+		int r = (int) (rgb[0] * 255 + 0.5);
+		int g = (int) (rgb[1] * 255 + 0.5);
+		int b = (int) (rgb[2] * 255 + 0.5);
+
+		return 0xFF000000 | (r << 16) | (g << 8) | b;
+	}
 }
@@ -42,6 +42,18 @@ public class DelegateColormap implements KnownColormap
 		return delegate.getColor(x, y);
 	}
 
+	@Override
+	public float[] getColorComponents(double x, double y, float[] rgb)
+	{
+		return delegate.getColorComponents(x, y, rgb);
+	}
+
+	@Override
+	public double[] getColorComponents(double x, double y, double[] rgb)
+	{
+		return delegate.getColorComponents(x, y, rgb);
+	}
+
 	@Override
 	public String getName()
 	{
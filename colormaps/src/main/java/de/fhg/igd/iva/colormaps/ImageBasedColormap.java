@@ -19,83 +19,240 @@ package de.fhg.igd.iva.colormaps;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
 import java.awt.image.DataBuffer;
-import java.awt.image.WritableRaster;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.util.Arrays;
 
 /**
- * An abstract colormap that is based on an image
+ * An abstract colormap that is based on an image. Lookups do not touch the raster, but a flat array:
+ * 8-bit images are copied once into packed RGB ints, all others are stored as planar float RGB components.
+ * Float images that already have this planar layout (such as the images of {@link CachedColormap})
+ * are not copied at all, but share the array with the raster.
  * @author Martin Steiger
  */
 public abstract class ImageBasedColormap extends AbstractColormap
 {
 	private final BufferedImage image;
 
+	private final int width;
+	private final int height;
+
+	/**
+	 * Packed RGB values or <code>null</code> if {@link #planarRgb} is used
+	 */
+	private final int[] packedRgb;
+
+	/**
+	 * Planar RGB components (all red components first, followed by all green and all blue components)
+	 * or <code>null</code> if {@link #packedRgb} is used
+	 */
+	private final float[] planarRgb;
+
+	/**
+	 * The size of the image data and the lookup array in bytes (counted only once if they are shared)
+	 */
+	private final long retainedBytes;
+
 	/**
 	 * @param image The image to use for sampling
 	 */
 	public ImageBasedColormap(BufferedImage image)
 	{
 		this.image = image;
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+
+		if (image.getRaster().getSampleModel().getDataType() == DataBuffer.TYPE_BYTE)
+		{
+			this.packedRgb = readPacked(image.getRaster());
+			this.planarRgb = null;
+		}
+		else
+		{
+			this.packedRgb = null;
+			this.planarRgb = readPlanar(image);
+		}
+
+		this.retainedBytes = computeRetainedBytes();
+	}
+
+	/**
+	 * @return the size of the image data and of the lookup array in bytes. An array that
+	 * is shared by both is counted only once.
+	 */
+	public long getRetainedBytes()
+	{
+		return retainedBytes;
+	}
+
+	private long computeRetainedBytes()
+	{
+		DataBuffer buffer = image.getRaster().getDataBuffer();
+		long bytes = (long) buffer.getNumBanks() * buffer.getSize() * (DataBuffer.getDataTypeSize(buffer.getDataType()) / 8);
+
+		if (packedRgb != null)
+		{
+			bytes += 4L * packedRgb.length;
+		}
+
+		boolean shared = buffer instanceof DataBufferFloat && ((DataBufferFloat) buffer).getData() == planarRgb;
+		if (planarRgb != null && !shared)
+		{
+			bytes += 4L * planarRgb.length;
+		}
+
+		return bytes;
 	}
 
 	@Override
-	public Color getColor(double mx, double my)
+	public float[] getColorComponents(double mx, double my, float[] rgb)
 	{
 		checkRanges(mx, my);
 
-		double x = mx * (image.getWidth() - 1);
-		double y = my * (image.getHeight() - 1);
+		double x = mx * (width - 1);
+		double y = my * (height - 1);
 
 		int minX = (int)Math.floor(x);
-        int maxX = (int)Math.ceil(x);
+		int maxX = (int)Math.ceil(x);
+
+		int minY = (int)Math.floor(y);
+		int maxY = (int)Math.ceil(y);
 
-        int minY = (int)Math.floor(y);
-        int maxY = (int)Math.ceil(y);
+		int i00 = minY * width + minX;
+		int i10 = minY * width + maxX;
+		int i01 = maxY * width + minX;
+		int i11 = maxY * width + maxX;
 
-        Color q00 = readColor(minX, minY);
-        Color q10 = readColor(maxX, minY);
-        Color q01 = readColor(minX, maxY);
-        Color q11 = readColor(maxX, maxY);
+		double ipx = x - minX;
+		double ipy = y - minY;
 
-        double ipx = x - minX;
-        double ipy = y - minY;
+		for (int c = 0; c < 3; c++)
+		{
+			double top = component(i00, c) * (1.0 - ipx) + component(i10, c) * ipx;
+			double bottom = component(i01, c) * (1.0 - ipx) + component(i11, c) * ipx;
 
-        Color color = bilerp(q00, q10, q01, q11, ipx, ipy);
+			rgb[c] = (float) (top * (1.0 - ipy) + bottom * ipy);
+		}
 
-        return color;
+		return rgb;
 	}
 
-	private Color readColor(int x, int y)
+	private float component(int pixel, int channel)
 	{
-		WritableRaster raster = image.getRaster();
-
-		if (raster.getSampleModel().getDataType() == DataBuffer.TYPE_FLOAT)
+		if (packedRgb != null)
 		{
-			float r = raster.getSampleFloat(x, y, 0);
-			float g = raster.getSampleFloat(x, y, 1);
-			float b = raster.getSampleFloat(x, y, 2);
+			int shift = 16 - 8 * channel;
+			return ((packedRgb[pixel] >> shift) & 0xFF) / 255f;
+		}
+
+		return planarRgb[channel * width * height + pixel];
+	}
+
+	private static int[] readPacked(Raster raster)
+	{
+		int w = raster.getWidth();
+		int h = raster.getHeight();
+
+		int[] packed = new int[w * h];
+		int[] band = new int[w * h];
 
-			return new Color(r, g, b);
+		for (int b = 0; b < 3; b++)
+		{
+			raster.getSamples(0, 0, w, h, b, band);
+			int shift = 16 - 8 * b;
+			for (int i = 0; i < band.length; i++)
+			{
+				packed[i] |= band[i] << shift;
+			}
 		}
 
-		if (raster.getSampleModel().getDataType() == DataBuffer.TYPE_BYTE)
+		return packed;
+	}
+
+	private static float[] readPlanar(BufferedImage image)
+	{
+		Raster raster = image.getRaster();
+		int w = raster.getWidth();
+		int h = raster.getHeight();
+		int size = w * h;
+
+		float[] shared = getPlanarData(raster);
+		if (shared != null)
 		{
-			int r = raster.getSample(x, y, 0);
-			int g = raster.getSample(x, y, 1);
-			int b = raster.getSample(x, y, 2);
+			return shared;
+		}
 
-			return new Color(r, g, b);
+		float[] rgb = new float[3 * size];
+
+		if (raster.getSampleModel().getDataType() == DataBuffer.TYPE_FLOAT)
+		{
+			float[] band = new float[size];
+			for (int b = 0; b < 3; b++)
+			{
+				raster.getSamples(0, 0, w, h, b, band);
+				System.arraycopy(band, 0, rgb, b * size, size);
+			}
+			return rgb;
 		}
 
 		// use this more general (and slower approach) if necessary
 
 		ColorModel colorModel = image.getColorModel();
 
-		Object inData = raster.getDataElements(x, y, null);
-		float[] norm = colorModel.getNormalizedComponents(inData, null, 0);
-        float[] rgb = colorModel.getColorSpace().toRGB(norm);
+		Object inData = null;
+		float[] norm = null;
+		int idx = 0;
+		for (int y = 0; y < h; y++)
+		{
+			for (int x = 0; x < w; x++)
+			{
+				inData = raster.getDataElements(x, y, inData);
+				norm = colorModel.getNormalizedComponents(inData, norm, 0);
+				float[] comps = colorModel.getColorSpace().toRGB(norm);
+
+				rgb[idx] = comps[0];
+				rgb[idx + size] = comps[1];
+				rgb[idx + 2 * size] = comps[2];
+				idx++;
+			}
+		}
+
+		return rgb;
+	}
+
+	/**
+	 * @param raster the raster
+	 * @return the backing array if the raster stores exactly the planar RGB layout
+	 * in a single float array or <code>null</code> otherwise
+	 */
+	private static float[] getPlanarData(Raster raster)
+	{
+		DataBuffer buffer = raster.getDataBuffer();
+		SampleModel model = raster.getSampleModel();
+
+		if (!(buffer instanceof DataBufferFloat) || !(model instanceof ComponentSampleModel))
+			return null;
+
+		int w = raster.getWidth();
+		int h = raster.getHeight();
+		int size = w * h;
+
+		ComponentSampleModel csm = (ComponentSampleModel) model;
+		boolean planar = buffer.getNumBanks() == 1 && buffer.getOffset() == 0
+				&& raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0
+				&& csm.getWidth() == w && csm.getHeight() == h
+				&& csm.getPixelStride() == 1 && csm.getScanlineStride() == w
+				&& Arrays.equals(csm.getBankIndices(), new int[] { 0, 0, 0 })
+				&& Arrays.equals(csm.getBandOffsets(), new int[] { 0, size, 2 * size });
+
+		if (!planar)
+			return null;
 
-        return new Color(rgb[0], rgb[1], rgb[2]);
+		float[] data = ((DataBufferFloat) buffer).getData();
+		return (data.length == 3 * size) ? data : null;
 	}
 
 	protected static Color bilerp(Color xt1, Color xt2, Color xb1, Color xb2, double ipx, double ipy)
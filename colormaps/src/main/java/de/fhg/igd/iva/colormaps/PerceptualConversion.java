@@ -0,0 +1,33 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fhg.igd.iva.colormaps;
+
+/**
+ * Converts sRGB colors to the coordinates of a perceptual color space, such as CIE L*a*b*
+ * or CAM02-UCS J'a'b'. Used for the companion grid of {@link CachedColormap}.
+ * Implementations must be thread-safe.
+ * @author Martin Steiger
+ */
+@FunctionalInterface
+public interface PerceptualConversion
+{
+	/**
+	 * @param rgb the sRGB components in the range [0..1]
+	 * @param target the target array for the three perceptual coordinates
+	 */
+	void toPerceptual(float[] rgb, float[] target);
+}
@@ -94,6 +94,24 @@ public class TransformedColormap implements Colormap
 		return original.getColor(x, y);
 	}
 
+	@Override
+	public float[] getColorComponents(double ox, double oy, float[] rgb)
+	{
+		double x = ox * m00 + oy * m01 + m02;
+		double y = ox * m10 + oy * m11 + m12;
+
+		return original.getColorComponents(x, y, rgb);
+	}
+
+	@Override
+	public double[] getColorComponents(double ox, double oy, double[] rgb)
+	{
+		double x = ox * m00 + oy * m01 + m02;
+		double y = ox * m10 + oy * m11 + m12;
+
+		return original.getColorComponents(x, y, rgb);
+	}
+
 	/**
 	 * @return a <b>new</b> transformation
 	 */
@@ -46,7 +46,7 @@ import de.fhg.igd.iva.colormaps.ColorSpace;
 public class BCP37 extends AbstractKnownColormap {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
 		// red
@@ -58,7 +58,10 @@ public class BCP37 extends AbstractKnownColormap {
 		// blue
 		float b = (float) (145.9f - 36.3f * x + 12.7f * y);
 
-		return new Color(r / 255f, g / 255f, b / 255f);
+		rgb[0] = r / 255f;
+		rgb[1] = g / 255f;
+		rgb[2] = b / 255f;
+		return rgb;
 	}
 
 	@Override
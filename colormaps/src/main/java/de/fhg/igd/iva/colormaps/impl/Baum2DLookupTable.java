@@ -16,7 +16,6 @@
 
 package de.fhg.igd.iva.colormaps.impl;
 
-import java.awt.Color;
 import java.util.Collections;
 import java.util.List;
 
@@ -31,10 +30,13 @@ import de.fhg.igd.iva.colormaps.ColorSpace;
 public class Baum2DLookupTable extends AbstractKnownColormap {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
-		return new Color((float)x, (float)x, (float)y);
+		rgb[0] = (float)x;
+		rgb[1] = (float)x;
+		rgb[2] = (float)y;
+		return rgb;
 	}
 
 	@Override
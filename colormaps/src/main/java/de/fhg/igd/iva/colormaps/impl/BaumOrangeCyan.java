@@ -16,7 +16,6 @@
 
 package de.fhg.igd.iva.colormaps.impl;
 
-import java.awt.Color;
 import java.util.Arrays;
 import java.util.List;
 
@@ -31,7 +30,7 @@ import de.fhg.igd.iva.colormaps.ColorSpace;
 public class BaumOrangeCyan extends AbstractKnownColormap {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
 		// red
@@ -48,7 +47,10 @@ public class BaumOrangeCyan extends AbstractKnownColormap {
 
 		b = Math.max(0, Math.min(255, b));
 
-		return new Color((float)(r / 255), (float)(g / 255), (float)(b / 255));
+		rgb[0] = (float)(r / 255);
+		rgb[1] = (float)(g / 255);
+		rgb[2] = (float)(b / 255);
+		return rgb;
 	}
 
 	@Override
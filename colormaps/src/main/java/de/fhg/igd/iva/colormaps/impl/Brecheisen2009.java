@@ -18,10 +18,10 @@ public class Brecheisen2009 extends AbstractKnownColormap {
 			Color.MAGENTA, Color.WHITE, Color.BLACK, Color.GREEN);
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
-		return anchorColorMapParameterizable.getColor(x, y);
+		return anchorColorMapParameterizable.getColorComponents(x, y, rgb);
 	}
 
 	@Override
@@ -50,6 +50,11 @@ public class ConstantColormap extends AbstractKnownColormap
 		return color;
 	}
 
+	@Override
+	public float[] getColorComponents(double x, double y, float[] rgb) {
+		return color.getColorComponents(rgb);
+	}
+
 	@Override
 	public String getName()
 	{
@@ -16,7 +16,6 @@
 
 package de.fhg.igd.iva.colormaps.impl;
 
-import java.awt.Color;
 import java.util.Arrays;
 import java.util.List;
 
@@ -26,9 +25,12 @@ import de.fhg.igd.iva.colormaps.ColorSpace;
 public class ConstantGreen extends AbstractKnownColormap {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
-		return new Color((float)x, 0.5f, (float)y);
+		rgb[0] = (float)x;
+		rgb[1] = 0.5f;
+		rgb[2] = (float)y;
+		return rgb;
 	}
 
 	@Override
@@ -16,7 +16,6 @@
 
 package de.fhg.igd.iva.colormaps.impl;
 
-import java.awt.Color;
 import java.util.Arrays;
 import java.util.List;
 
@@ -26,10 +25,13 @@ import de.fhg.igd.iva.colormaps.ColorSpace;
 public class CubeDiagonalCuttingGreenMagenta extends AbstractKnownColormap {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
-		return new Color((float)x, (float)(1 - y), (float)y);
+		rgb[0] = (float)x;
+		rgb[1] = (float)(1 - y);
+		rgb[2] = (float)y;
+		return rgb;
 	}
 
 	@Override
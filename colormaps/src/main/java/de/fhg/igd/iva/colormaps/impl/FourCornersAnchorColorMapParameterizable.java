@@ -49,7 +49,7 @@ class FourCornersAnchorColorMapParameterizable extends AbstractColormap {
 	}
 
 	@Override
-	public Color getColor(double x, double y) {
-		return interpolate(upperLeft, upperRight, lowerLeft, lowerRight, x, y);
+	public float[] getColorComponents(double x, double y, float[] rgb) {
+		return interpolate(upperLeft, upperRight, lowerLeft, lowerRight, x, y, rgb);
 	}
 }
@@ -18,7 +18,6 @@ package de.fhg.igd.iva.colormaps.impl;
 
 import static java.lang.Math.hypot;
 
-import java.awt.Color;
 import java.util.AbstractMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -83,7 +82,7 @@ public abstract class GuoLabStyle extends AbstractKnownColormap
 	}
 	
 	@Override
-	public Color getColor(double x, double y)
+	public float[] getColorComponents(double x, double y, float[] rgb)
 	{
 		// normalize to -1..1
 		double nx = x * 2 - 1;
@@ -93,34 +92,37 @@ public abstract class GuoLabStyle extends AbstractKnownColormap
 		Map.Entry<Double, Double> ab = chromaFunc.apply(new AbstractMap.SimpleEntry<>(nx, ny));
 		double[] lab = new double[] { light, ab.getKey(), ab.getValue() };
 
-		double[] rgb = CIELAB.lab2rgb(lab);
+		double[] srgb = CIELAB.lab2rgb(lab);
 
-		for (int i = 0; i < rgb.length; i++)
+		for (int i = 0; i < srgb.length; i++)
 		{
 			// TODO clamp is not the best idea but it's unclear what Guo did
 			// also ATM we do not have a way of evaluating the delta E in the UI
 			// meaning we should have a color class supporting further analysis.
-			if (rgb[i] < 0)
+			if (srgb[i] < 0)
 			{
-				rgb[i] = 0;
-				if (rgb[i] < -0.01)
+				srgb[i] = 0;
+				if (srgb[i] < -0.01)
 				{
-					logger.warn("Color channel {} was clamped from {} to 0", i, rgb[i]);
+					logger.warn("Color channel {} was clamped from {} to 0", i, srgb[i]);
 				}
 			}
 
-			if (rgb[i] > 1)
+			if (srgb[i] > 1)
 			{
-				rgb[i] = 1;
-				if (rgb[i] > 1.01)
+				srgb[i] = 1;
+				if (srgb[i] > 1.01)
 				{
-					logger.warn("Color channel {} was clamped from {} to 1", i, rgb[i]);
+					logger.warn("Color channel {} was clamped from {} to 1", i, srgb[i]);
 				}
 			}
 
 		}
 		
-		return new Color((float)rgb[0], (float)rgb[1], (float)rgb[2]);
+		rgb[0] = (float)srgb[0];
+		rgb[1] = (float)srgb[1];
+		rgb[2] = (float)srgb[2];
+		return rgb;
 	}
 	
 	@Override
@@ -1,6 +1,5 @@
 package de.fhg.igd.iva.colormaps.impl;
 
-import java.awt.Color;
 import java.util.Arrays;
 import java.util.List;
 
@@ -15,7 +14,7 @@ import de.fhg.igd.iva.colormaps.ColorSpace;
 public class LespintasPurpleGreen extends AbstractKnownColormap {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
 		// red
@@ -33,7 +32,10 @@ public class LespintasPurpleGreen extends AbstractKnownColormap {
 
 		b = Math.max(0, Math.min(255, b));
 
-		return new Color((float)(r / 255), (float)(g / 255), (float)(b / 255));
+		rgb[0] = (float)(r / 255);
+		rgb[1] = (float)(g / 255);
+		rgb[2] = (float)(b / 255);
+		return rgb;
 	}
 
 	@Override
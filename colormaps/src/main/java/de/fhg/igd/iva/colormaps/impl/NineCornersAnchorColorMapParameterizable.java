@@ -67,7 +67,7 @@ class NineCornersAnchorColorMapParameterizable extends AbstractColormap {
 	}
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
 		int ix = (x < 0.5) ? 0 : 1;
@@ -81,6 +81,6 @@ class NineCornersAnchorColorMapParameterizable extends AbstractColormap {
         Color bl = anchor[iy + 1][ix];
         Color br = anchor[iy + 1][ix + 1];
 
-        return interpolate(tl, tr, bl, br, ax, ay);
+        return interpolate(tl, tr, bl, br, ax, ay, rgb);
 	}
 }
@@ -4,7 +4,6 @@ import static java.lang.Math.PI;
 import static java.lang.Math.atan2;
 import static java.lang.Math.hypot;
 
-import java.awt.Color;
 import java.util.Collections;
 import java.util.List;
 
@@ -20,7 +19,7 @@ public class Ramirez2012 extends AbstractKnownColormap {
 	Logger _log = LoggerFactory.getLogger(getClass());
 	
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		// normalize to -1..1
 		double nx = (float) (x * 2 - 1);
 		double ny = (float) (y * 2 - 1);
@@ -30,7 +29,7 @@ public class Ramirez2012 extends AbstractKnownColormap {
 		//
 		//double[] rgb = HSI.hsi2rgb(new double[] {ang * PI * 2, dist, (float)(1f-dist/2f)});
 		//return new Color((float)rgb[0], (float)rgb[1], (float)rgb[2]);
-		return HSL.HSLtoRGB((float)ang, (float)dist, (float)(1f-dist/2f));
+		return HSL.HSLtoRGB((float)ang, (float)dist, (float)(1f-dist/2f), rgb);
 	}
 
 	@Override
@@ -35,11 +35,15 @@ public class RobertsonAndOCallaghan2 extends AbstractKnownColormap {
 
 	private FourCornersAnchorColorMapParameterizable[][] colorMaps;
 
-	@Override
-	public Color getColor(double x, double y) {
+	/**
+	 * Creates the anchor color maps eagerly so that the instance can be sampled from different threads
+	 */
+	public RobertsonAndOCallaghan2() {
+		initializeColorMap();
+	}
 
-		if (colorMaps == null)
-			initializeColorMap();
+	@Override
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 
 		checkRanges(x, y);
 
@@ -60,7 +64,7 @@ public class RobertsonAndOCallaghan2 extends AbstractKnownColormap {
 		if (indexX == 3 || indexY == 3)
 			System.out.println("argh");
 
-		return colorMaps[indexX][indexY].getColor(fx * 3, fy * 3);
+		return colorMaps[indexX][indexY].getColorComponents(fx * 3, fy * 3, rgb);
 	}
 
 	@Override
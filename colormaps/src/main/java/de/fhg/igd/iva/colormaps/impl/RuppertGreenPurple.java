@@ -21,10 +21,10 @@ public class RuppertGreenPurple extends AbstractKnownColormap {
 	FourCornersAnchorColorMapParameterizable anchorColorMapParameterizable = new FourCornersAnchorColorMapParameterizable(new Color(59, 197, 85), new Color(128, 128, 128), new Color(128, 128, 128), new Color(181, 75, 160));
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
-		return anchorColorMapParameterizable.getColor(x, y);
+		return anchorColorMapParameterizable.getColorComponents(x, y, rgb);
 	}
 
 	@Override
@@ -13,10 +13,10 @@ public class RuppertOrangeBlue extends AbstractKnownColormap {
 	FourCornersAnchorColorMapParameterizable anchorColorMapParameterizable = new FourCornersAnchorColorMapParameterizable(new Color(255, 127, 2), new Color(128, 128, 128), new Color(128, 128, 128), new Color(19, 70, 237));
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
-		return anchorColorMapParameterizable.getColor(x, y);
+		return anchorColorMapParameterizable.getColorComponents(x, y, rgb);
 	}
 
 	@Override
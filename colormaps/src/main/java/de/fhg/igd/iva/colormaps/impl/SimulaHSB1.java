@@ -14,13 +14,17 @@ import de.fhg.igd.iva.colormaps.ColorSpace;
 public class SimulaHSB1 extends AbstractKnownColormap {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		// normalize to -1..1
 		double nx = (float) (x * 2 - 1);
 		double ny = (float) (y * 2 - 1);
 		double dist = max(abs(ny), abs(nx));
 		double ang = Math.atan2(ny, nx)/(Math.PI*2);
-		return Color.getHSBColor((float)ang, 1f, (float)dist);
+		int argb = Color.HSBtoRGB((float)ang, 1f, (float)dist);
+		rgb[0] = ((argb >> 16) & 0xFF) / 255f;
+		rgb[1] = ((argb >> 8) & 0xFF) / 255f;
+		rgb[2] = (argb & 0xFF) / 255f;
+		return rgb;
 	}
 
 	@Override
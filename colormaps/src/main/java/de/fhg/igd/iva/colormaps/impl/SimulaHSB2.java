@@ -3,7 +3,6 @@ package de.fhg.igd.iva.colormaps.impl;
 import static java.lang.Math.abs;
 import static java.lang.Math.max;
 
-import java.awt.Color;
 import java.util.Arrays;
 import java.util.List;
 
@@ -19,14 +18,17 @@ import de.fhg.igd.iva.colorspaces.HSI;
 public class SimulaHSB2 extends AbstractKnownColormap {
 	
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		// normalize to -1..1
 		double nx = (float) (x * 2 - 1);
 		double ny = (float) (y * 2 - 1);
 		double dist = max(abs(ny), abs(nx));
 		double ang = Math.atan2(ny, nx);
-		double[] rgb = HSI.hsi2rgb(new double[] {ang, 1, dist});
-		return new Color((float)rgb[0], (float)rgb[1], (float)rgb[2]);
+		double[] srgb = HSI.hsi2rgb(new double[] {ang, 1, dist});
+		rgb[0] = (float)srgb[0];
+		rgb[1] = (float)srgb[1];
+		rgb[2] = (float)srgb[2];
+		return rgb;
 	}
 
 	@Override
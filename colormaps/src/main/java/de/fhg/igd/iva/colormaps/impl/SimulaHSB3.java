@@ -3,7 +3,6 @@ package de.fhg.igd.iva.colormaps.impl;
 import static java.lang.Math.abs;
 import static java.lang.Math.max;
 
-import java.awt.Color;
 import java.util.Collections;
 import java.util.List;
 
@@ -19,13 +18,13 @@ public class SimulaHSB3 extends AbstractKnownColormap {
 	Logger _log = LoggerFactory.getLogger(getClass());
 		
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		// normalize to -1..1
 		double nx = (x * 2 - 1);
 		double ny = (y * 2 - 1);
 		double dist = max(abs(ny), abs(nx));
 		double ang = (Math.atan2(ny, nx) + Math.PI) / (Math.PI * 2);
-		return HSL.HSLtoRGB((float) ang, 1, (float) dist / 2f);
+		return HSL.HSLtoRGB((float) ang, 1, (float) dist / 2f, rgb);
 	}
 
 	@Override
@@ -25,6 +25,7 @@ import de.fhg.igd.iva.colorspaces.AbstractColorSpace;
 import de.fhg.igd.iva.colorspaces.CAT02;
 import de.fhg.igd.iva.colorspaces.CIELAB;
 import de.fhg.igd.iva.colorspaces.HSI;
+import de.fhg.igd.iva.colorspaces.RGB;
 
 /**
  * 
@@ -65,16 +66,14 @@ public class Steiger2014Generic extends AbstractKnownColormap {
     }
 
 	@Override
-	public Color getColor(double x, double y) {
-		double[] low = new double[3];
-        double[] top = new double[3];
+	public float[] getColorComponents(double x, double y, float[] rgb) {
         double[] k = new double[3];
-        for (int i = 0; i < top.length; i++) {
-            top[i] = (1.0-x)*tl[i] + x*tr[i];
-            low[i] = (1.0-x)*bl[i] + x*br[i];
-            k[i] = (1.0-y)*top[i] + y*low[i];
+        for (int i = 0; i < k.length; i++) {
+            double top = (1.0-x)*tl[i] + x*tr[i];
+            double low = (1.0-x)*bl[i] + x*br[i];
+            k[i] = (1.0-y)*top + y*low;
         }
-        return colorSpace.toColor(k, false);
+        return RGB.rgb2color(colorSpace.toRGB(k), false, rgb);
 	}
 
 	@Override
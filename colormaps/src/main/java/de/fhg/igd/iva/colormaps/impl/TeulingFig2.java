@@ -1,15 +1,16 @@
 package de.fhg.igd.iva.colormaps.impl;
 
-import java.awt.Color;
-
 public class TeulingFig2 extends TeulingStyle {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		double r = getChannel(x, y, Direction.SOUTH_EAST, 1 - 0.72f);
 		double g = getChannel(x, y, Direction.SOUTH_WEST, 0.5f);
 		double b = getChannel(x, y, Direction.NORTH_WEST, 0.72f);
-		return new Color((float)r, (float)g, (float)b);
+		rgb[0] = (float)r;
+		rgb[1] = (float)g;
+		rgb[2] = (float)b;
+		return rgb;
 	}
 
 	@Override
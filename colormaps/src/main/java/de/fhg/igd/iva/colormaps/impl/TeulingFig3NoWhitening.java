@@ -1,18 +1,19 @@
 package de.fhg.igd.iva.colormaps.impl;
 
-import java.awt.Color;
-
 public class TeulingFig3NoWhitening extends TeulingStyle {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		double r = getChannel(x, y, Direction.SOUTH_EAST, 1 - 0.32);
 		double g = getChannel(x, y, Direction.SOUTH_WEST, 0.5);
 		double b = getChannel(x, y, Direction.NORTH_WEST, 0.32);
 		r = clampSafe(r, 0.1f);
 		g = clampSafe(g, 0.1f);
 		b = clampSafe(b, 0.1f);
-		return new Color((float) r, (float) g, (float) b);
+		rgb[0] = (float) r;
+		rgb[1] = (float) g;
+		rgb[2] = (float) b;
+		return rgb;
 	}
 
 	@Override
@@ -1,16 +1,17 @@
 package de.fhg.igd.iva.colormaps.impl;
 
-import java.awt.Color;
-
 public class TeulingFig4a extends TeulingStyle {
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		double r = getChannel(x, y, Direction.SOUTH_WEST, 0.5);
 		double g = getChannel(x, y, Direction.SOUTH_EAST, 1 - 0.2);
 		double b = getChannel(x, y, Direction.NORTH_WEST, 0.2);
 		// some inaccuracies seem to make use of clampSafe manadatory here.
-		return new Color((float) clampSafe(r, 0.001), (float) clampSafe(g, 0.001), (float) clampSafe(b, 0.001));
+		rgb[0] = (float) clampSafe(r, 0.001);
+		rgb[1] = (float) clampSafe(g, 0.001);
+		rgb[2] = (float) clampSafe(b, 0.001);
+		return rgb;
 	}
 
 	@Override
@@ -30,11 +30,15 @@ public class WainerAndFrancolini extends AbstractKnownColormap {
 
 	private FourCornersAnchorColorMapParameterizable[][] colorMaps;
 
-	@Override
-	public Color getColor(double x, double y) {
+	/**
+	 * Creates the anchor color maps eagerly so that the instance can be sampled from different threads
+	 */
+	public WainerAndFrancolini() {
+		initializeColorMap();
+	}
 
-		if (colorMaps == null)
-			initializeColorMap();
+	@Override
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 
 		checkRanges(x, y);
 
@@ -58,7 +62,7 @@ public class WainerAndFrancolini extends AbstractKnownColormap {
 			fy = 1.0;
 		}
 
-		return colorMaps[indexX][indexY].getColor(fx, fy);
+		return colorMaps[indexX][indexY].getColorComponents(fx, fy, rgb);
 	}
 
 	@Override
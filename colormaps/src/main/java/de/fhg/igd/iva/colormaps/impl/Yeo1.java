@@ -12,10 +12,10 @@ public class Yeo1 extends AbstractKnownColormap {
 	FourCornersAnchorColorMapParameterizable anchorColorMapParameterizable = new FourCornersAnchorColorMapParameterizable(new Color(0, 128, 128), new Color(128, 0, 255), new Color(128,255,0), new Color(255, 128, 128));
 
 	@Override
-	public Color getColor(double x, double y) {
+	public float[] getColorComponents(double x, double y, float[] rgb) {
 		checkRanges(x, y);
 
-		return anchorColorMapParameterizable.getColor(x, y);
+		return anchorColorMapParameterizable.getColorComponents(x, y, rgb);
 	}
 
 	@Override
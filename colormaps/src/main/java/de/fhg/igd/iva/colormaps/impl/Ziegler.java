@@ -16,7 +16,6 @@
 
 package de.fhg.igd.iva.colormaps.impl;
 
-import java.awt.Color;
 import java.util.Arrays;
 import java.util.List;
 
@@ -34,7 +33,7 @@ public class Ziegler extends AbstractKnownColormap {
 	}
 
 	@Override
-	public Color getColor(double valueX1, double valueX2) {
+	public float[] getColorComponents(double valueX1, double valueX2, float[] rgb) {
 
 		// TODO: This should be transformed into a set of 16 {@link FourCornersAnchorColorMapParameterizable}
 		// maps, similar to RobertsonAndOCallaghan
@@ -150,7 +149,10 @@ public class Ziegler extends AbstractKnownColormap {
 		}
 		int b = (int) blau;
 
-		return new Color(r, g, b);
+		rgb[0] = r / 255f;
+		rgb[1] = g / 255f;
+		rgb[2] = b / 255f;
+		return rgb;
 	}
 
 	@Override
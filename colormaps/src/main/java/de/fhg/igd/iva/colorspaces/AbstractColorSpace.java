@@ -27,19 +27,69 @@ public abstract class AbstractColorSpace {
 	public abstract double[] fromRGB(double[] rgb);
 	public abstract double[] fromColor(Color c);
 
+	/**
+	 * Converts <code>count</code> colors from this color space to sRGB in place.
+	 * The buffer uses planar (structure-of-arrays) layout: the first component of all colors,
+	 * followed by the second and the third component, i.e. component <code>c</code> of color
+	 * <code>i</code> is stored at <code>c * count + i</code>.
+	 * Implementations may use tabulated approximations, the results are close to, but not
+	 * necessarily identical with {@link #toRGB(double[])}.
+	 * @param soa the buffer (at least <code>3 * count</code> elements)
+	 * @param count the number of colors
+	 */
+	public void toRGB(double[] soa, int count) {
+		double[] v = new double[3];
+		for (int i = 0; i < count; i++) {
+			gather(soa, count, i, v);
+			scatter(toRGB(v), soa, count, i);
+		}
+	}
+
+	/**
+	 * Converts <code>count</code> sRGB colors to this color space in place.
+	 * See {@link #toRGB(double[], int)} for the buffer layout.
+	 * @param soa the buffer (at least <code>3 * count</code> elements)
+	 * @param count the number of colors
+	 */
+	public void fromRGB(double[] soa, int count) {
+		double[] v = new double[3];
+		for (int i = 0; i < count; i++) {
+			gather(soa, count, i, v);
+			scatter(fromRGB(v), soa, count, i);
+		}
+	}
+
+	private static void gather(double[] soa, int count, int idx, double[] v) {
+		v[0] = soa[idx];
+		v[1] = soa[idx + count];
+		v[2] = soa[idx + 2 * count];
+	}
+
+	private static void scatter(double[] v, double[] soa, int count, int idx) {
+		soa[idx] = v[0];
+		soa[idx + count] = v[1];
+		soa[idx + 2 * count] = v[2];
+	}
+
 	protected static void fixRoundingErrors(double[] rgb)
 	{
-		final double eps = 0.01;
-
 		for (int i = 0; i < rgb.length; i++)
 		{
-			double v = rgb[i];
-			if (v > 1 && v < 1 + eps)
-				rgb[i] = 1;
-
-			if (v < 0 && v > -eps)
-				rgb[i] = 0;
+			rgb[i] = fixRoundingError(rgb[i]);
 		}
 	}
 
+	protected static double fixRoundingError(double v)
+	{
+		final double eps = 0.01;
+
+		if (v > 1 && v < 1 + eps)
+			return 1;
+
+		if (v < 0 && v > -eps)
+			return 0;
+
+		return v;
+	}
+
 }
@@ -49,6 +49,40 @@ public class CAT02 extends AbstractColorSpace {
         return new double[]{x,y,z};
     }
 
+    /**
+     * Batch version of {@link #xyz2cat02(double[])}
+     * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+     * @param count the number of colors
+     */
+    public static void xyz2cat02(double[] soa, int count) {
+        for (int i = 0; i < count; i++) {
+            double x = soa[i];
+            double y = soa[i + count];
+            double z = soa[i + 2 * count];
+
+            soa[i] = 0.7328 * x + 0.4296 * y - 0.1624 * z;
+            soa[i + count] = -0.7036 * x + 1.6975 * y + 0.0061 * z;
+            soa[i + 2 * count] = 0.0030 * x + 0.0136 * y + 0.9834 * z;
+        }
+    }
+
+    /**
+     * Batch version of {@link #cat022xyz(double[])}
+     * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+     * @param count the number of colors
+     */
+    public static void cat022xyz(double[] soa, int count) {
+        for (int i = 0; i < count; i++) {
+            double L = soa[i];
+            double M = soa[i + count];
+            double S = soa[i + 2 * count];
+
+            soa[i] = 1.096124 * L - 0.278869 * M + 0.182745 * S;
+            soa[i + count] = 0.454369 * L + 0.473533 * M + 0.072098 * S;
+            soa[i + 2 * count] = -0.009628 * L - 0.005698 * M + 1.015326 * S;
+        }
+    }
+
 	@Override
 	public double[] toRGB(double[] v) {
 		double[] xyz = cat022xyz(v);
@@ -69,8 +103,20 @@ public class CAT02 extends AbstractColorSpace {
 
 	@Override
 	public double[] fromColor(Color c) {
-		double[] rgb = RGB.color2rgb(c);
-		return fromRGB(rgb);
+		double[] xyz = XYZ.color2xyz(c);
+		return xyz2cat02(xyz);
+	}
+
+	@Override
+	public void toRGB(double[] soa, int count) {
+		cat022xyz(soa, count);
+		XYZ.xyz2rgb(soa, count);
+	}
+
+	@Override
+	public void fromRGB(double[] soa, int count) {
+		XYZ.rgb2xyz(soa, count);
+		xyz2cat02(soa, count);
 	}
 
 
@@ -92,6 +92,81 @@ public class CIELAB extends AbstractColorSpace {
 		return new double[] { x, y, z };
 	}
 	
+	/**
+	 * Batch version of {@link #xyz2lab(double[])} that uses {@link Math#cbrt(double)}.
+	 * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+	 * @param count the number of colors
+	 */
+	public static void xyz2lab(double[] soa, int count) {
+		double[] white = XYZ.D65;
+
+		for (int i = 0; i < count; i++) {
+			double varX = labF(soa[i] / white[0]);
+			double varY = labF(soa[i + count] / white[1]);
+			double varZ = labF(soa[i + 2 * count] / white[2]);
+
+			soa[i] = (116.0 * varY) - 16.0;
+			soa[i + count] = 500.0 * (varX - varY);
+			soa[i + 2 * count] = 200.0 * (varY - varZ);
+		}
+	}
+
+	/**
+	 * Batch version of {@link #lab2xyz(double[])} that computes every cube only once.
+	 * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+	 * @param count the number of colors
+	 */
+	public static void lab2xyz(double[] soa, int count) {
+		double[] white = XYZ.D65;
+
+		for (int i = 0; i < count; i++) {
+			double varY = (soa[i] + 16.0) / 116.0;
+			double varX = soa[i + count] / 500.0 + varY;
+			double varZ = varY - soa[i + 2 * count] / 200.0;
+
+			soa[i] = white[0] * labInvF(varX);
+			soa[i + count] = white[1] * labInvF(varY);
+			soa[i + 2 * count] = white[2] * labInvF(varZ);
+		}
+	}
+
+	/**
+	 * Batch version of {@link #rgb2lab(double[])}
+	 * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+	 * @param count the number of colors
+	 */
+	public static void rgb2lab(double[] soa, int count) {
+		XYZ.rgb2xyz(soa, count);
+		xyz2lab(soa, count);
+	}
+
+	/**
+	 * Batch version of {@link #lab2rgb(double[])}
+	 * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+	 * @param count the number of colors
+	 */
+	public static void lab2rgb(double[] soa, int count) {
+		lab2xyz(soa, count);
+		XYZ.xyz2rgb(soa, count);
+	}
+
+	private static double labF(double v) {
+		if (v > 0.008856) {
+			return Math.cbrt(v);
+		} else {
+			return (7.787 * v) + (16.0 / 116.0);
+		}
+	}
+
+	private static double labInvF(double v) {
+		double cube = v * v * v;
+		if (cube > 0.008856) {
+			return cube;
+		} else {
+			return (v - 16.0 / 116.0) / 7.787;
+		}
+	}
+
 	@Override
 	public double[] toRGB(double[] v) {
 		return lab2rgb(v);
@@ -109,6 +184,16 @@ public class CIELAB extends AbstractColorSpace {
 
 	@Override
 	public double[] fromColor(Color c) {
-		return rgb2lab(RGB.color2rgb(c));
+		return xyz2lab(XYZ.color2xyz(c));
+	}
+
+	@Override
+	public void toRGB(double[] soa, int count) {
+		lab2rgb(soa, count);
+	}
+
+	@Override
+	public void fromRGB(double[] soa, int count) {
+		rgb2lab(soa, count);
 	}
 }
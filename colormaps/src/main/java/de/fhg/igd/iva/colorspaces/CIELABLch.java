@@ -54,6 +54,36 @@ public class CIELABLch extends AbstractColorSpace {
 		return new double[] { l, a, b };
 	}
 	
+	/**
+	 * Batch version of {@link #lab2lch(double[])}
+	 * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+	 * @param count the number of colors
+	 */
+	public static void lab2lch(double[] soa, int count) {
+		for (int i = 0; i < count; i++) {
+			double a = soa[i + count];
+			double b = soa[i + 2 * count];
+
+			soa[i + count] = Math.sqrt(a * a + b * b);
+			soa[i + 2 * count] = Math.atan2(b, a) / Math.PI * 180.0;
+		}
+	}
+
+	/**
+	 * Batch version of {@link #lch2lab(double[])}
+	 * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+	 * @param count the number of colors
+	 */
+	public static void lch2lab(double[] soa, int count) {
+		for (int i = 0; i < count; i++) {
+			double c = soa[i + count];
+			double h = soa[i + 2 * count] / 180.0 * Math.PI;
+
+			soa[i + count] = c * Math.cos(h);
+			soa[i + 2 * count] = c * Math.sin(h);
+		}
+	}
+
 	@Override
 	public double[] toRGB(double[] v) {
 		return lch2rgb(v);
@@ -71,6 +101,18 @@ public class CIELABLch extends AbstractColorSpace {
 
 	@Override
 	public double[] fromColor(Color c) {
-		return rgb2lch(RGB.color2rgb(c));
+		return lab2lch(CIELAB.xyz2lab(XYZ.color2xyz(c)));
+	}
+
+	@Override
+	public void toRGB(double[] soa, int count) {
+		lch2lab(soa, count);
+		CIELAB.lab2rgb(soa, count);
+	}
+
+	@Override
+	public void fromRGB(double[] soa, int count) {
+		CIELAB.rgb2lab(soa, count);
+		lab2lch(soa, count);
 	}
 }
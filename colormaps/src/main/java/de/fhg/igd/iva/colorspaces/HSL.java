@@ -46,17 +46,31 @@ public class HSL {
 	 *
 	 */
 	public static Color HSLtoRGB(float h, float s, float l) {
+		float[] rgb = HSLtoRGB(h, s, l, new float[3]);
+
+		return new Color(rgb[0], rgb[1], rgb[2]);
+	}
+
+	/**
+	 * Same as {@link #HSLtoRGB(float, float, float)}, but writes the RGB components into the given array
+	 * @param h the hue
+	 * @param s the saturation
+	 * @param l the lightness
+	 * @param rgb the target array
+	 * @return the <code>rgb</code> array
+	 */
+	public static float[] HSLtoRGB(float h, float s, float l, float[] rgb) {
 		float m2;
 		if (l <= 0.5)
 			m2 = l * (s+1f);
 		else
 			m2 = l+s-l*s;
 		float m1 = l*2f-m2;
-		float r = hueToRGB(m1, m2, h+1f/3f);
-		float g = hueToRGB(m1, m2, h);
-		float b = hueToRGB(m1, m2, h-1f/3f);
+		rgb[0] = hueToRGB(m1, m2, h+1f/3f);
+		rgb[1] = hueToRGB(m1, m2, h);
+		rgb[2] = hueToRGB(m1, m2, h-1f/3f);
 
-		return new Color(r, g, b);
+		return rgb;
 	}
 
 }
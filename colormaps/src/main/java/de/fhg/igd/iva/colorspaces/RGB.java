@@ -46,17 +46,39 @@ public class RGB extends AbstractColorSpace {
 	public static Color rgb2color(double[] rgb,
 			boolean returnBlackForUndefinedRGB) {
 
+		float[] comps = rgb2color(rgb, returnBlackForUndefinedRGB, new float[3]);
+
+		return new Color(comps[0], comps[1], comps[2]);
+	}
+
+	/**
+	 * Same as {@link #rgb2color(double[], boolean)}, but writes the
+	 * (8-bit quantized) color components into the given array.
+	 * @param rgb the rgb values (will be clamped in-place)
+	 * @param returnBlackForUndefinedRGB true to return black for values that are far out of range
+	 * @param comps the target array
+	 * @return the <code>comps</code> array
+	 */
+	public static float[] rgb2color(double[] rgb,
+			boolean returnBlackForUndefinedRGB, float[] comps) {
+
 		for (int i = 0; i < rgb.length; i++) {
 			if (rgb[i] < 0.0) {
 				if (returnBlackForUndefinedRGB && rgb[i] < -0.03) {
-					return Color.BLACK;
+					comps[0] = 0f;
+					comps[1] = 0f;
+					comps[2] = 0f;
+					return comps;
 				} else {
 					rgb[i] = 0.0;
 				}
 
 			} else if (rgb[i] > 1.0) {
 				if (returnBlackForUndefinedRGB && rgb[i] > 1.03) {
-					return Color.BLACK;
+					comps[0] = 0f;
+					comps[1] = 0f;
+					comps[2] = 0f;
+					return comps;
 				} else {
 					rgb[i] = 1.0;
 				}
@@ -67,7 +89,10 @@ public class RGB extends AbstractColorSpace {
 		int g = (int) (rgb[1] * 255.0 + 0.5);
 		int b = (int) (rgb[2] * 255.0 + 0.5);
 
-		return new Color(r, g, b);
+		comps[0] = r / 255f;
+		comps[1] = g / 255f;
+		comps[2] = b / 255f;
+		return comps;
 	}
 
 	@Override
@@ -89,6 +114,16 @@ public class RGB extends AbstractColorSpace {
 	public double[] fromColor(Color c) {
 		return color2rgb(c);
 	}
+
+	@Override
+	public void toRGB(double[] soa, int count) {
+		// identity
+	}
+
+	@Override
+	public void fromRGB(double[] soa, int count) {
+		// identity
+	}
 	
 	// derive luma follwing the same whitepoint etc as in XYZ calculation
 	public static double getLuma(Color c) {
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fhg.igd.iva.colorspaces;
+
+/**
+ * The sRGB transfer function. The exact versions are used by the per-color
+ * conversions, the tabulated versions (lookup table + linear interpolation)
+ * by the batch conversions. 8-bit values are decoded with an exact table.
+ * @author Martin Steiger
+ */
+public final class SRGBGamma {
+
+	private static final int DECODE_STEPS = 4096;
+	private static final int ENCODE_STEPS = 65535;
+
+	private static final double[] DECODE_TABLE = createTable(DECODE_STEPS, true);
+	private static final double[] ENCODE_TABLE = createTable(ENCODE_STEPS, false);
+
+	/**
+	 * The upper end of the table interval that contains the linear segment - interpolating
+	 * across the kink of the transfer function would be too inaccurate.
+	 */
+	private static final double ENCODE_EXACT_LIMIT = (Math.floor(0.0031308 * ENCODE_STEPS) + 1) / ENCODE_STEPS;
+
+	/**
+	 * Identical to {@link #decode(double)} for i / 255.0
+	 */
+	private static final double[] DECODE_8BIT_TABLE = createTable(255, true);
+
+	private SRGBGamma() {
+		// private
+	}
+
+	/**
+	 * @param v the gamma-encoded sRGB value
+	 * @return the linear value
+	 */
+	public static double decode(double v) {
+		if (v > 0.04045) {
+			return Math.pow(((v + 0.055) / 1.055), 2.4);
+		} else {
+			return v / 12.92;
+		}
+	}
+
+	/**
+	 * @param v the linear value
+	 * @return the gamma-encoded sRGB value
+	 */
+	public static double encode(double v) {
+		if (v > 0.0031308) {
+			return 1.055 * (Math.pow(v, (1.0 / 2.4))) - 0.055;
+		} else {
+			return 12.92 * v;
+		}
+	}
+
+	/**
+	 * Returns the same value as {@link #decode(double)} for <code>v / 255.0</code>.
+	 * @param v the gamma-encoded 8-bit sRGB value in [0..255]
+	 * @return the linear value
+	 */
+	public static double decode8Bit(int v) {
+		return DECODE_8BIT_TABLE[v];
+	}
+
+	/**
+	 * Tabulated version of {@link #decode(double)}. The absolute error is below 1E-7 in [0..1],
+	 * values outside that range are computed exactly.
+	 * @param v the gamma-encoded sRGB value
+	 * @return the linear value
+	 */
+	public static double decodeFast(double v) {
+		if (v < 0 || v > 1) {
+			return decode(v);
+		}
+
+		return lookup(DECODE_TABLE, DECODE_STEPS, v);
+	}
+
+	/**
+	 * Tabulated version of {@link #encode(double)} with 16-bit resolution. The absolute error is below 1E-7 in [0..1],
+	 * values outside that range and close to the linear segment are computed exactly.
+	 * @param v the linear value
+	 * @return the gamma-encoded sRGB value
+	 */
+	public static double encodeFast(double v) {
+		if (v < ENCODE_EXACT_LIMIT || v > 1) {
+			return encode(v);
+		}
+
+		return lookup(ENCODE_TABLE, ENCODE_STEPS, v);
+	}
+
+	private static double lookup(double[] table, int steps, double v) {
+		double pos = v * steps;
+		int idx = (int) pos;
+		if (idx == steps) {
+			return table[steps];
+		}
+
+		double frac = pos - idx;
+		return table[idx] + (table[idx + 1] - table[idx]) * frac;
+	}
+
+	private static double[] createTable(int steps, boolean decode) {
+		double[] table = new double[steps + 1];
+		for (int i = 0; i <= steps; i++) {
+			double v = i / (double) steps;
+			table[i] = decode ? decode(v) : encode(v);
+		}
+		return table;
+	}
+}
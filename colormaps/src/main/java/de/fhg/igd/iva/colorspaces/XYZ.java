@@ -26,28 +26,39 @@ public class XYZ extends AbstractColorSpace{
 
 	public static double[] rgb2xyz(double[] rgb) {
 
-		double varR = rgb[0];
-		double varG = rgb[1];
-		double varB = rgb[2];
-
-		if (varR > 0.04045) {
-			varR = Math.pow(((varR + 0.055) / 1.055), 2.4);
-		} else {
-			varR = varR / 12.92;
-		}
+		double varR = SRGBGamma.decode(rgb[0]);
+		double varG = SRGBGamma.decode(rgb[1]);
+		double varB = SRGBGamma.decode(rgb[2]);
 
-		if (varG > 0.04045) {
-			varG = Math.pow(((varG + 0.055) / 1.055), 2.4);
-		} else {
-			varG = varG / 12.92;
-		}
+		return linear2xyz(varR, varG, varB);
+	}
 
-		if (varB > 0.04045) {
-			varB = Math.pow(((varB + 0.055) / 1.055), 2.4);
-		} else {
-			varB = varB / 12.92;
+	/**
+	 * Same as <code>rgb2xyz(RGB.color2rgb(c))</code>, but uses a precomputed table
+	 * for the sRGB linearization of the 8-bit color channels.
+	 * @param c the color
+	 * @return the XYZ values
+	 */
+	public static double[] color2xyz(Color c) {
+		int r = c.getRed();
+		int g = c.getGreen();
+		int b = c.getBlue();
+
+		// black is mapped to 1/255 - see RGB.color2rgb()
+		if (r == 0 && g == 0 && b == 0) {
+			r = 1;
+			g = 1;
+			b = 1;
 		}
 
+		double varR = SRGBGamma.decode8Bit(r);
+		double varG = SRGBGamma.decode8Bit(g);
+		double varB = SRGBGamma.decode8Bit(b);
+
+		return linear2xyz(varR, varG, varB);
+	}
+
+	private static double[] linear2xyz(double varR, double varG, double varB) {
 		varR = varR * 100.0;
 		varG = varG * 100.0;
 		varB = varB * 100.0;
@@ -77,21 +88,9 @@ public class XYZ extends AbstractColorSpace{
 		double varB = (varX * 0.0556434) + (varY * -0.2040259)
 				+ (varZ * 1.0572252);
 
-		if (varR > 0.0031308) {
-			varR = 1.055 * (Math.pow(varR, (1.0 / 2.4))) - 0.055;
-		} else {
-			varR = 12.92 * varR;
-		}
-		if (varG > 0.0031308) {
-			varG = 1.055 * (Math.pow(varG, (1.0 / 2.4))) - 0.055;
-		} else {
-			varG = 12.92 * varG;
-		}
-		if (varB > 0.0031308) {
-			varB = 1.055 * (Math.pow(varB, (1.0 / 2.4))) - 0.055;
-		} else {
-			varB = 12.92 * varB;
-		}
+		varR = SRGBGamma.encode(varR);
+		varG = SRGBGamma.encode(varG);
+		varB = SRGBGamma.encode(varB);
 
 		double[] rgb = new double[] { varR, varG, varB };
 
@@ -101,6 +100,44 @@ public class XYZ extends AbstractColorSpace{
 
 	}
 
+	/**
+	 * Batch version of {@link #rgb2xyz(double[])} that uses a tabulated gamma function.
+	 * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+	 * @param count the number of colors
+	 */
+	public static void rgb2xyz(double[] soa, int count) {
+		for (int i = 0; i < count; i++) {
+			double varR = SRGBGamma.decodeFast(soa[i]) * 100.0;
+			double varG = SRGBGamma.decodeFast(soa[i + count]) * 100.0;
+			double varB = SRGBGamma.decodeFast(soa[i + 2 * count]) * 100.0;
+
+			soa[i] = (varR * 0.4124564) + (varG * 0.3575761) + (varB * 0.1804375);
+			soa[i + count] = (varR * 0.2126729) + (varG * 0.7151522) + (varB * 0.0721750);
+			soa[i + 2 * count] = (varR * 0.0193339) + (varG * 0.1191920) + (varB * 0.9503041);
+		}
+	}
+
+	/**
+	 * Batch version of {@link #xyz2rgb(double[])} that uses a tabulated gamma function.
+	 * @param soa the planar buffer, see {@link AbstractColorSpace#toRGB(double[], int)}
+	 * @param count the number of colors
+	 */
+	public static void xyz2rgb(double[] soa, int count) {
+		for (int i = 0; i < count; i++) {
+			double varX = soa[i] / 100.0;
+			double varY = soa[i + count] / 100.0;
+			double varZ = soa[i + 2 * count] / 100.0;
+
+			double varR = (varX * 3.2404542) + (varY * -1.5371385) + (varZ * -0.4985314);
+			double varG = (varX * -0.9692660) + (varY * 1.8760108) + (varZ * 0.0415560);
+			double varB = (varX * 0.0556434) + (varY * -0.2040259) + (varZ * 1.0572252);
+
+			soa[i] = fixRoundingError(SRGBGamma.encodeFast(varR));
+			soa[i + count] = fixRoundingError(SRGBGamma.encodeFast(varG));
+			soa[i + 2 * count] = fixRoundingError(SRGBGamma.encodeFast(varB));
+		}
+	}
+
 	@Override
 	public double[] toRGB(double[] v) {
 		return xyz2rgb(v);
@@ -118,6 +155,16 @@ public class XYZ extends AbstractColorSpace{
 
 	@Override
 	public double[] fromColor(Color c) {
-		return rgb2xyz(RGB.color2rgb(c));
+		return color2xyz(c);
+	}
+
+	@Override
+	public void toRGB(double[] soa, int count) {
+		xyz2rgb(soa, count);
+	}
+
+	@Override
+	public void fromRGB(double[] soa, int count) {
+		rgb2xyz(soa, count);
 	}
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package colormaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.awt.Color;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.CachedColormapCache;
+import de.fhg.igd.iva.colormaps.impl.ConstantColormap;
+
+/**
+ * Tests {@link CachedColormapCache}
+ * @author Martin Steiger
+ */
+public class CachedColormapCacheTest
+{
+	private static final int SIZE = 32;
+
+	/**
+	 * The size of a single cache image in bytes - the image and the lookup share one array
+	 */
+	private static final long ENTRY_BYTES = 12 * SIZE * SIZE;
+
+	@Test
+	public void testShared() throws InterruptedException, ExecutionException
+	{
+		CachedColormapCache cache = new CachedColormapCache(10 * ENTRY_BYTES, null);
+		ConstantColormap cm = new ConstantColormap(Color.RED);
+
+		CachedColormap first = cache.get(cm, SIZE, SIZE);
+		assertSame(first, cache.get(cm, SIZE, SIZE));
+		assertSame(first, cache.getAsync(cm, SIZE, SIZE).get());
+		assertNotSame(first, cache.get(cm, SIZE, 2 * SIZE));
+		assertEquals(Color.RED, first.getColor(0.5, 0.5));
+		assertEquals(ENTRY_BYTES, first.getRetainedBytes());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted()
+	{
+		CachedColormapCache cache = new CachedColormapCache(2 * ENTRY_BYTES, null);
+		ConstantColormap red = new ConstantColormap(Color.RED);
+		ConstantColormap green = new ConstantColormap(Color.GREEN);
+		ConstantColormap blue = new ConstantColormap(Color.BLUE);
+
+		cache.get(red, SIZE, SIZE);
+		cache.get(green, SIZE, SIZE);
+		cache.get(red, SIZE, SIZE);
+		cache.get(blue, SIZE, SIZE);
+
+		assertEquals(2, cache.size());
+		assertNotNull(cache.getIfPresent(red, SIZE, SIZE));
+		assertNull(cache.getIfPresent(green, SIZE, SIZE));
+		assertNotNull(cache.getIfPresent(blue, SIZE, SIZE));
+	}
+}
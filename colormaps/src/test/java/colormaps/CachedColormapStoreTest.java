@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package colormaps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.awt.image.DataBufferFloat;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.CachedColormapStore;
+import de.fhg.igd.iva.colormaps.impl.ConstantColormap;
+import de.fhg.igd.iva.colormaps.impl.Steiger2014Generic;
+
+/**
+ * Tests {@link CachedColormapStore}
+ * @author Martin Steiger
+ */
+public class CachedColormapStoreTest
+{
+	private static final int SIZE = 64;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRoundTrip()
+	{
+		CachedColormapStore store = new CachedColormapStore(folder.getRoot());
+		Steiger2014Generic cm = new Steiger2014Generic();
+
+		CachedColormap created = store.get(cm, SIZE, SIZE);
+		assertEquals(1, folder.getRoot().listFiles().length);
+
+		CachedColormap loaded = store.get(cm, SIZE, SIZE);
+		assertArrayEquals(getData(created), getData(loaded), 0f);
+		assertEquals(created.getColor(0.3, 0.6), loaded.getColor(0.3, 0.6));
+	}
+
+	@Test
+	public void testLoadedFromFile() throws IOException
+	{
+		CachedColormapStore store = new CachedColormapStore(folder.getRoot());
+		Steiger2014Generic cm = new Steiger2014Generic();
+
+		store.get(cm, SIZE, SIZE);
+
+		// overwrite the first red value in the file
+		File file = folder.getRoot().listFiles()[0];
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			raf.seek(24);
+			raf.writeInt(Integer.reverseBytes(Float.floatToIntBits(0.25f)));
+		}
+
+		assertEquals(0.25f, getData(store.get(cm, SIZE, SIZE))[0], 0f);
+	}
+
+	@Test
+	public void testDifferentContent()
+	{
+		CachedColormapStore store = new CachedColormapStore(folder.getRoot());
+
+		CachedColormap red = store.get(new ConstantColormap(Color.RED), SIZE, SIZE);
+		CachedColormap blue = store.get(new ConstantColormap(Color.BLUE), SIZE, SIZE);
+
+		assertEquals(2, folder.getRoot().listFiles().length);
+		assertEquals(Color.RED, red.getColor(0.5, 0.5));
+		assertEquals(Color.BLUE, blue.getColor(0.5, 0.5));
+	}
+
+	private static float[] getData(CachedColormap cached)
+	{
+		return ((DataBufferFloat) cached.getImage().getRaster().getDataBuffer()).getData();
+	}
+}
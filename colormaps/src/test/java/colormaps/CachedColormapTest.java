@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package colormaps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.awt.Color;
+import java.awt.image.DataBufferFloat;
+import java.util.ServiceLoader;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.KnownColormap;
+import de.fhg.igd.iva.colormaps.PerceptualConversion;
+import de.fhg.igd.iva.colormaps.impl.ConstantColormap;
+import de.fhg.igd.iva.colorspaces.CIELAB;
+
+/**
+ * Tests that the parallel construction of {@link CachedColormap} matches the serial grid evaluation
+ * @author Martin Steiger
+ */
+public class CachedColormapTest
+{
+	private static final int WIDTH = 128;
+	private static final int HEIGHT = 128;
+
+	@Test
+	public void testParallel()
+	{
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try
+		{
+			for (KnownColormap cm : ServiceLoader.load(KnownColormap.class))
+			{
+				float[] expected = cm.getColorGrid(WIDTH, HEIGHT, (float[]) null);
+
+				assertArrayEquals(cm.toString(), expected, getData(new CachedColormap(cm, WIDTH, HEIGHT, pool)), 0f);
+				assertArrayEquals(cm.toString(), expected, getData(CachedColormap.createAsync(cm, WIDTH, HEIGHT).join()), 0f);
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSharedGrid()
+	{
+		CachedColormap cached = new CachedColormap(new ConstantColormap(Color.RED), 4, 4);
+
+		// the colormap samples the array that backs the image - there is no second copy
+		getData(cached)[0] = 0.25f;
+		assertEquals(0.25f, cached.getColorComponents(0, 0, new float[3])[0], 0f);
+	}
+
+	@Test
+	public void testPerceptualGrid()
+	{
+		CIELAB lab = new CIELAB();
+		PerceptualConversion conversion = (rgb, target) ->
+		{
+			double[] comps = lab.fromRGB(new double[] { rgb[0], rgb[1], rgb[2] });
+			for (int i = 0; i < 3; i++)
+			{
+				target[i] = (float) comps[i];
+			}
+		};
+
+		for (KnownColormap cm : ServiceLoader.load(KnownColormap.class))
+		{
+			CachedColormap plain = new CachedColormap(cm, WIDTH, HEIGHT);
+			CachedColormap cached = plain.withPerceptualGrid(conversion);
+			float[] comps = new float[3];
+
+			// the cache image is shared
+			assertSame(getData(plain), getData(cached));
+
+			// at the grid points, the companion grid contains the converted cache colors
+			for (int y = 0; y < HEIGHT; y += 7)
+			{
+				for (int x = 0; x < WIDTH; x += 5)
+				{
+					double mx = x / (WIDTH - 1.0);
+					double my = y / (HEIGHT - 1.0);
+
+					float[] expected = new float[3];
+					conversion.toPerceptual(cached.getColorComponents(mx, my, new float[3]), expected);
+					assertArrayEquals(cm.toString(), expected, cached.getPerceptualComponents(mx, my, comps), 0.001f);
+				}
+			}
+
+			// in between, the interpolation is close to the converted color
+			float[] converted = new float[3];
+			conversion.toPerceptual(cached.getColorComponents(0.123, 0.456, new float[3]), converted);
+			assertArrayEquals(cm.toString(), converted, cached.getPerceptualComponents(0.123, 0.456, comps), 1f);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testNoPerceptualGrid()
+	{
+		new CachedColormap(new ConstantColormap(Color.RED), 4, 4).getPerceptualComponents(0.5, 0.5, new float[3]);
+	}
+
+	private static float[] getData(CachedColormap cached)
+	{
+		return ((DataBufferFloat) cached.getImage().getRaster().getDataBuffer()).getData();
+	}
+}
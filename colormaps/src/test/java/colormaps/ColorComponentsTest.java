@@ -0,0 +1,163 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package colormaps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.util.ServiceLoader;
+
+import org.junit.Test;
+
+import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.Colormap;
+import de.fhg.igd.iva.colormaps.KnownColormap;
+import de.fhg.igd.iva.colormaps.TransformedColormap;
+
+/**
+ * Tests that the primitive color sampling methods are consistent with {@link Colormap#getColor(double, double)}
+ * @author Martin Steiger
+ */
+public class ColorComponentsTest
+{
+	private static final int STEPS = 20;
+
+	@Test
+	public void testKnownColormaps()
+	{
+		for (KnownColormap cm : ServiceLoader.load(KnownColormap.class))
+		{
+			verify(cm);
+		}
+	}
+
+	@Test
+	public void testTransformed()
+	{
+		for (KnownColormap cm : ServiceLoader.load(KnownColormap.class))
+		{
+			verify(TransformedColormap.rotated90(cm));
+		}
+	}
+
+	@Test
+	public void testCached()
+	{
+		for (KnownColormap cm : ServiceLoader.load(KnownColormap.class))
+		{
+			verify(new CachedColormap(cm, 32, 32));
+		}
+	}
+
+	@Test
+	public void testGrid()
+	{
+		int width = 17;
+		int height = 9;
+		int size = width * height;
+
+		for (KnownColormap cm : ServiceLoader.load(KnownColormap.class))
+		{
+			int[] argb = cm.getColorGrid(width, height, (int[]) null);
+			float[] planar = cm.getColorGrid(width, height, (float[]) null);
+
+			for (int y = 0; y < height; y++)
+			{
+				for (int x = 0; x < width; x++)
+				{
+					float mx = x / (width - 1f);
+					float my = y / (height - 1f);
+					Color color = cm.getColor(mx, my);
+					float[] expected = color.getColorComponents(null);
+
+					int idx = y * width + x;
+					assertEquals(cm.toString(), color.getRGB(), argb[idx]);
+					assertEquals(cm.toString(), expected[0], planar[idx], 0f);
+					assertEquals(cm.toString(), expected[1], planar[idx + size], 0f);
+					assertEquals(cm.toString(), expected[2], planar[idx + 2 * size], 0f);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPointList()
+	{
+		double[] coords = { 0, 0, 1, 1, 0.25, 0.75, 0.9, 0.1 };
+
+		for (KnownColormap cm : ServiceLoader.load(KnownColormap.class))
+		{
+			int[] argb = cm.getColors(coords, null);
+			for (int i = 0; i < argb.length; i++)
+			{
+				assertEquals(cm.toString(), cm.getColor(coords[2 * i], coords[2 * i + 1]).getRGB(), argb[i]);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGridOutOfRange()
+	{
+		Colormap cm = new Colormap()
+		{
+			@Override
+			public Color getColor(double x, double y)
+			{
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public float[] getColorComponents(double x, double y, float[] rgb)
+			{
+				rgb[0] = 0.5f;
+				rgb[1] = 1.01f;
+				rgb[2] = 0.5f;
+				return rgb;
+			}
+		};
+
+		cm.getColorGrid(2, 2, (int[]) null);
+	}
+
+	private void verify(Colormap cm)
+	{
+		float[] rgb = new float[3];
+		double[] drgb = new double[3];
+
+		for (int y = 0; y <= STEPS; y++)
+		{
+			for (int x = 0; x <= STEPS; x++)
+			{
+				double mx = x / (double) STEPS;
+				double my = y / (double) STEPS;
+
+				Color color = cm.getColor(mx, my);
+				float[] expected = color.getColorComponents(null);
+
+				assertArrayEquals(cm.toString(), expected, cm.getColorComponents(mx, my, rgb), 0f);
+
+				cm.getColorComponents(mx, my, drgb);
+				for (int i = 0; i < 3; i++)
+				{
+					rgb[i] = (float) drgb[i];
+				}
+				assertArrayEquals(cm.toString(), expected, rgb, 0f);
+			}
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package colormaps;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.fhg.igd.iva.colorspaces.AbstractColorSpace;
+import de.fhg.igd.iva.colorspaces.CAT02;
+import de.fhg.igd.iva.colorspaces.CIELAB;
+import de.fhg.igd.iva.colorspaces.CIELABLch;
+import de.fhg.igd.iva.colorspaces.HSI;
+import de.fhg.igd.iva.colorspaces.RGB;
+import de.fhg.igd.iva.colorspaces.XYZ;
+
+/**
+ * Pins the accuracy of the batch color space conversions against the per-color conversions
+ * @author Martin Steiger
+ */
+public class ColorSpaceBatchTest
+{
+	private static final int COUNT = 20000;
+
+	@Test
+	public void testXYZ()
+	{
+		verify(new XYZ(), 1E-5, 1E-6);
+	}
+
+	@Test
+	public void testCIELAB()
+	{
+		verify(new CIELAB(), 1E-4, 1E-6);
+	}
+
+	@Test
+	public void testCIELABLch()
+	{
+		// the hue angle is ill-defined for (almost) achromatic colors
+		verify(new CIELABLch(), 1E-3, 1E-6);
+	}
+
+	@Test
+	public void testCAT02()
+	{
+		verify(new CAT02(), 1E-5, 1E-6);
+	}
+
+	@Test
+	public void testHSI()
+	{
+		verify(new HSI(), 0, 0);
+	}
+
+	@Test
+	public void testRGB()
+	{
+		verify(new RGB(), 0, 0);
+	}
+
+	private static void verify(AbstractColorSpace space, double fromTolerance, double toTolerance)
+	{
+		double[][] colors = createColors();
+
+		double[] soa = toSoA(colors);
+		space.fromRGB(soa, COUNT);
+
+		double[][] expected = new double[COUNT][];
+		for (int i = 0; i < COUNT; i++)
+		{
+			expected[i] = space.fromRGB(colors[i].clone());
+			assertEquals(space + " " + i, expected[i][0], soa[i], fromTolerance);
+			assertEquals(space + " " + i, expected[i][1], soa[i + COUNT], fromTolerance);
+			assertEquals(space + " " + i, expected[i][2], soa[i + 2 * COUNT], fromTolerance);
+		}
+
+		soa = toSoA(expected);
+		space.toRGB(soa, COUNT);
+
+		for (int i = 0; i < COUNT; i++)
+		{
+			double[] rgb = space.toRGB(expected[i].clone());
+			assertEquals(space + " " + i, rgb[0], soa[i], toTolerance);
+			assertEquals(space + " " + i, rgb[1], soa[i + COUNT], toTolerance);
+			assertEquals(space + " " + i, rgb[2], soa[i + 2 * COUNT], toTolerance);
+		}
+	}
+
+	private static double[][] createColors()
+	{
+		Random r = new Random(12345);
+		double[][] colors = new double[COUNT][];
+
+		// corners of the RGB cube
+		for (int i = 0; i < 8; i++)
+		{
+			colors[i] = new double[] { i & 1, (i >> 1) & 1, (i >> 2) & 1 };
+		}
+
+		for (int i = 8; i < COUNT; i++)
+		{
+			colors[i] = new double[] { r.nextDouble(), r.nextDouble(), r.nextDouble() };
+		}
+
+		return colors;
+	}
+
+	private static double[] toSoA(double[][] colors)
+	{
+		double[] soa = new double[3 * colors.length];
+		for (int i = 0; i < colors.length; i++)
+		{
+			soa[i] = colors[i][0];
+			soa[i + colors.length] = colors[i][1];
+			soa[i + 2 * colors.length] = colors[i][2];
+		}
+		return soa;
+	}
+}
@@ -9,10 +9,8 @@
 
 package colormaps;
 
-import java.awt.Color;
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.WritableRaster;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
@@ -58,28 +56,9 @@ public class DumpToFolder
     private static void renderToImage(Colormap cm, File file, String format, int width, int height) throws IOException
     {
         BufferedImage bi = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D gi = bi.createGraphics();
 
-        float maxY = height - 1;
-        float maxX = width - 1;
-
-        WritableRaster raster = bi.getRaster();
-
-        for (int y = 0; y < height; y++)
-        {
-            float my = y / maxY;
-            for (int x = 0; x < width; x++)
-            {
-                float mx = x / maxX;
-                Color color = cm.getColor(mx, my);
-
-                raster.setSample(x, y, 0, color.getRed());
-                raster.setSample(x, y, 1, color.getGreen());
-                raster.setSample(x, y, 2, color.getBlue());
-            }
-        }
-
-        gi.dispose();
+        int[] data = ((DataBufferInt) bi.getRaster().getDataBuffer()).getData();
+        cm.getColorGrid(width, height, data);
 
         ImageIO.write(bi, format, file);
     }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package colormaps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+
+import org.junit.Test;
+
+import de.fhg.igd.iva.colorspaces.CAT02;
+import de.fhg.igd.iva.colorspaces.CIELAB;
+import de.fhg.igd.iva.colorspaces.CIELABLch;
+import de.fhg.igd.iva.colorspaces.RGB;
+import de.fhg.igd.iva.colorspaces.SRGBGamma;
+import de.fhg.igd.iva.colorspaces.XYZ;
+
+/**
+ * Tests the tabulated sRGB transfer functions
+ * @author Martin Steiger
+ */
+public class SRGBGammaTest
+{
+	@Test
+	public void testDecode8Bit()
+	{
+		for (int i = 0; i < 256; i++)
+		{
+			assertEquals(SRGBGamma.decode(i / 255.0), SRGBGamma.decode8Bit(i), 0.0);
+		}
+	}
+
+	@Test
+	public void testTabulated()
+	{
+		int steps = 100000;
+		for (int i = 0; i <= steps; i++)
+		{
+			double v = i / (double) steps;
+			assertEquals(SRGBGamma.decode(v), SRGBGamma.decodeFast(v), 1E-7);
+			assertEquals(SRGBGamma.encode(v), SRGBGamma.encodeFast(v), 1E-7);
+		}
+	}
+
+	@Test
+	public void testFromColor()
+	{
+		XYZ xyz = new XYZ();
+		CIELAB lab = new CIELAB();
+		CIELABLch lch = new CIELABLch();
+		CAT02 cat02 = new CAT02();
+
+		// the table-based conversion must be identical with the explicit computation
+		for (int r = 0; r < 256; r += 5)
+		{
+			for (int g = 0; g < 256; g += 3)
+			{
+				for (int b = 0; b < 256; b += 3)
+				{
+					Color color = new Color(r, g, b);
+					double[] rgb = RGB.color2rgb(color);
+
+					assertArrayEquals(XYZ.rgb2xyz(rgb), xyz.fromColor(color), 0.0);
+					assertArrayEquals(CIELAB.rgb2lab(rgb), lab.fromColor(color), 0.0);
+					assertArrayEquals(CIELABLch.rgb2lch(rgb), lch.fromColor(color), 0.0);
+					assertArrayEquals(cat02.fromRGB(rgb), cat02.fromColor(color), 0.0);
+				}
+			}
+		}
+	}
+}
@@ -34,6 +34,7 @@ import de.fhg.igd.iva.colormaps.Colormap;
 import de.fhg.igd.iva.colormaps.impl.ConstantColormap;
 import de.fhg.igd.iva.explorer.events.ColormapSelectionEvent;
 import de.fhg.igd.iva.explorer.events.MyEventBus;
+import de.fhg.igd.iva.explorer.tasks.ViewTask;
 
 /**
  * A grid of Analysis panels
@@ -49,6 +50,8 @@ public class AnalysisPanel extends JPanel
 	
 	private Colormap oldColormap;
 	
+	private final ViewTask<MedianDivergenceComputer> task = new ViewTask<>();
+	
 	/**
 	 * Default constructor
 	 */
@@ -94,12 +97,17 @@ public class AnalysisPanel extends JPanel
 			return;
 
 		Colormap colormap = event.getSelection();
-		List<Point2D> points = Lists.newArrayList(new EvenDistributedDistancePoints(new Random(123), lines).getPoints());
-		MedianDivergenceComputer median = MedianDivergenceComputer.fromPoints(colormap, points);
-		for (MismatchScatterplotPanel panel : panels)
+		EvenDistributedDistancePoints sampling = new EvenDistributedDistancePoints(new Random(123), lines);
+
+		// the points are generated together with the divergence ratios in the background
+		task.submit(cancelled -> MedianDivergenceComputer.fromSamplingStrategy(colormap, sampling), median ->
 		{
-			panel.setPointSource(points, points.size()/2, median);
-			panel.setColormap(colormap);
-		}
+			List<Point2D> points = sampling.getPoints();
+			for (MismatchScatterplotPanel panel : panels)
+			{
+				panel.setPointSource(points, points.size()/2, median);
+				panel.setColormap(colormap);
+			}
+		});
 	}
 }
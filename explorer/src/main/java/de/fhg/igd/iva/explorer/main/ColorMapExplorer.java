@@ -27,6 +27,7 @@ import java.util.ServiceLoader;
 import javax.swing.JFrame;
 import javax.swing.JSplitPane;
 import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 import org.jbibtex.BibTeXDatabase;
@@ -134,13 +135,18 @@ public class ColorMapExplorer extends JFrame
 
 		logger.info("Found {} color maps in total", colorMaps.size());
 		
-		ColorMapExplorer frame = new ColorMapExplorer(colorMaps, database);
+		// the views start their background computations on the EDT
+		final BibTeXDatabase finalDatabase = database;
+		SwingUtilities.invokeLater(() ->
+		{
+			ColorMapExplorer frame = new ColorMapExplorer(colorMaps, finalDatabase);
 
-		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		frame.setSize(1280, 855);
-		frame.setLocationRelativeTo(null);
+			frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+			frame.setSize(1280, 855);
+			frame.setLocationRelativeTo(null);
 
-		frame.setVisible(true);
+			frame.setVisible(true);
+		});
 	}
 
 	private static List<KnownColormap> discoverColormaps()
@@ -22,10 +22,13 @@ import java.awt.Graphics2D;
 import javax.swing.JPanel;
 
 import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.CachedColormapCache;
 import de.fhg.igd.iva.colormaps.Colormap;
+import de.fhg.igd.iva.explorer.tasks.ViewTask;
 
 /**
- * A panel that draw a square-shaped colormap
+ * A panel that draw a square-shaped colormap. The cache image is computed
+ * in the background, the panel background is shown until it is ready.
  * @author Martin Steiger
  */
 public class ColormapPanel extends JPanel
@@ -34,11 +37,13 @@ public class ColormapPanel extends JPanel
 
 	private CachedColormap colormap;
 
+	private final ViewTask<CachedColormap> task = new ViewTask<>();
+
 	private final int size;
 
 	/**
 	 * Uses a 512x512 image for caching
-	 * @param constantColormap
+	 * @param colormap the colormap to draw
 	 */
 	public ColormapPanel(Colormap colormap)
 	{
@@ -52,27 +57,47 @@ public class ColormapPanel extends JPanel
 	public ColormapPanel(Colormap colormap, int size)
 	{
 		this.size = size;
-		this.colormap = new CachedColormap(colormap, size, size);
+		setColormap(colormap);
 	}
 
 	@Override
 	protected void paintComponent(Graphics g1)
 	{
+		if (colormap == null)
+		{
+			super.paintComponent(g1);
+			return;
+		}
+
 		int screenSize = Math.min(getWidth(), getHeight());
 
 		Graphics2D g = (Graphics2D) g1;
 		g.drawImage(colormap.getImage(), 0, 0, screenSize, screenSize, null);
 	}
 
+	/**
+	 * @return the cached colormap or <code>null</code> if it is still being computed.
+	 * A "colormap" property change event is fired once it becomes available.
+	 */
 	public CachedColormap getColormap()
 	{
 		return colormap;
 	}
 
+	/**
+	 * Starts computing the cache image for the given colormap in the background.
+	 * Must be called on the event dispatch thread.
+	 * @param colormap the new colormap
+	 */
 	public void setColormap(Colormap colormap)
 	{
-		this.colormap = new CachedColormap(colormap, size, size);
-		repaint();
+		task.submit(cancelled -> CachedColormapCache.getDefault().get(colormap, size, size), cached ->
+		{
+			CachedColormap old = this.colormap;
+			this.colormap = cached;
+			firePropertyChange("colormap", old, cached);
+			repaint();
+		});
 	}
 
 }
@@ -22,9 +22,18 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import progress.LoggingProgressListener;
+import progress.ProgressListener;
 import algorithms.quality.AttentionQuality;
 import algorithms.quality.ColorAppearanceDivergence;
 import algorithms.quality.ColorDivergenceVariance;
@@ -32,6 +41,8 @@ import algorithms.quality.ColorDynamicDistBlack;
 import algorithms.quality.ColorDynamicDistWhite;
 import algorithms.quality.ColorExploitation;
 import algorithms.quality.ColormapQuality;
+import algorithms.quality.QualityEvaluator;
+import algorithms.quality.QualityResultStore;
 import algorithms.sampling.CircularSampling;
 import algorithms.sampling.EvenDistributedDistancePoints;
 import algorithms.sampling.GridSampling;
@@ -40,7 +51,6 @@ import algorithms.sampling.SamplingStrategy;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
@@ -49,6 +59,7 @@ import com.google.common.collect.Tables;
 
 import de.fhg.igd.iva.colormaps.Colormap;
 import de.fhg.igd.iva.colormaps.KnownColormap;
+import de.fhg.igd.iva.explorer.tasks.ViewTask;
 
 /**
  * TODO Type description
@@ -58,27 +69,74 @@ public class CompareView extends JPanel
 {
 	private static final long serialVersionUID = -2382155905934204715L;
 
+	private static final Logger logger = LoggerFactory.getLogger(CompareView.class);
+
+	private final JLabel statusLabel = new JLabel("", SwingConstants.CENTER);
+
+	private final ViewTask<Table<KnownColormap, ColormapQuality, Double>> task = new ViewTask<>();
+
 	public CompareView(List<KnownColormap> colorMaps)
 	{
 		setLayout(new GridLayout(1, 0));
 
-		List<ColormapQuality> metrics = getMetrics();
+		add(statusLabel);
+
+		final List<ColormapQuality> metrics = getMetrics();
+		final int total = colorMaps.size() * metrics.size();
+		final AtomicInteger count = new AtomicInteger();
 
-		ImmutableTable.Builder<KnownColormap, ColormapQuality, Double> builder = ImmutableTable.builder();
+		updateStatus(0, total);
 
-		for (KnownColormap cm : colorMaps)
+		// evaluate all metrics in the background instead of blocking the EDT while the frame is built
+		task.submit(cancelled ->
 		{
-			for (ColormapQuality metric : metrics)
+			QualityEvaluator evaluator = new QualityEvaluator();
+			evaluator.setResultStore(QualityResultStore.getDefault());
+			ProgressListener progress = new LoggingProgressListener(logger, "Computing metrics")
 			{
-				builder.put(cm, metric, metric.getQuality(cm));
-			}
-		}
+				@Override
+				public boolean isCancelled()
+				{
+					return cancelled.getAsBoolean();
+				}
+			};
+
+			return evaluator.evaluate(colorMaps, metrics, progress, (cm, metric, quality) ->
+			{
+				int done = count.incrementAndGet();
+				SwingUtilities.invokeLater(() -> updateStatus(done, total));
+			});
+		}, this::showResults, e ->
+		{
+			logger.error("Could not compute metrics", e);
+			statusLabel.setText("Could not compute metrics");
+		});
+	}
 
-		Table<KnownColormap, ColormapQuality, Double> infoTable = builder.build();
+	@Override
+	public void removeNotify()
+	{
+		super.removeNotify();
+
+		// stop evaluating if the view is disposed
+		task.cancel();
+	}
+
+	private void updateStatus(int done, int total)
+	{
+		statusLabel.setText(String.format("Computing metrics (%d / %d)", done, total));
+	}
+
+	private void showResults(Table<KnownColormap, ColormapQuality, Double> infoTable)
+	{
+		removeAll();
 
 		add(new CompareViewPanel(infoTable));
 		add(new CompareViewPanel(infoTable));
 		add(new CompareViewPanel(infoTable));
+
+		revalidate();
+		repaint();
 	}
 
 	private List<ColormapQuality> getMetrics()
@@ -21,12 +21,11 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Polygon;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
-import java.awt.color.ColorSpace;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionListener;
-import java.awt.geom.AffineTransform;
 import java.math.RoundingMode;
 import java.util.Collection;
 import java.util.Collections;
@@ -47,12 +46,10 @@ import com.google.common.math.IntMath;
 import de.fhg.igd.iva.explorer.events.ColormapSelectionEvent;
 import de.fhg.igd.iva.explorer.events.MyEventBus;
 import de.fhg.igd.iva.explorer.events.TileSelectionEvent;
+import de.fhg.igd.iva.explorer.tasks.ViewTask;
 import de.fhg.igd.iva.explorer.tiling.Direction;
 import de.fhg.igd.iva.explorer.tiling.HexTileModel;
 import de.fhg.igd.iva.explorer.tiling.Tile;
-import de.fhg.igd.pcolor.PColor;
-import de.fhg.igd.pcolor.colorspace.ViewingConditions;
-import de.fhg.igd.pcolor.util.ColorTools;
 
 /**
  * Displays the colormap based on rectangles
@@ -64,11 +61,17 @@ public class DecomposedPanel extends JPanel
 	
 	private static final long serialVersionUID = 6582370458976011408L;
 
-	private static final ViewingConditions VIEW_ENV = ViewingConditions.sRGB_typical_envirnonment;
-	private static final ColorSpace COLOR_SPACE = ColorSpace.getInstance(ColorSpace.CS_sRGB);
-
+	/**
+	 * The stroke width of the distance arrow that represents the total color distance
+	 */
+	private static final int MAX_STROKE_WIDTH = 10;
 	
 	private ColormapView colormap;
+	private TileFieldCache fieldCache;
+	private final ViewTask<TileFieldCache> fieldTask = new ViewTask<>();
+	private ColormapView requestedView;
+	private int requestedWidth;
+	private int requestedHeight;
 	private HexTileModel tileModel;
 	private Optional<Tile> selection = Optional.absent();
 	private final Polygon hexagon;
@@ -150,6 +153,8 @@ public class DecomposedPanel extends JPanel
 		if (selection.equals(newSel))
 			return;
 		
+		Rectangle dirty = getSelectionBounds(selection).union(getSelectionBounds(newSel));
+		
 		selection = newSel;
 		
 		Set<Tile> tiles;
@@ -162,7 +167,8 @@ public class DecomposedPanel extends JPanel
 		
 		logger.debug("Selected tiles: " + tiles);
 		
-		repaint();
+		// only the tiles around the old and the new selection change
+		repaint(dirty);
 	}
 
 	/**
@@ -181,199 +187,188 @@ public class DecomposedPanel extends JPanel
 		super.paintComponent(g1);
 		Graphics2D g = (Graphics2D)g1;
 		
-		int cellsX = IntMath.divide(getWidth(), tileModel.getAvgTileWidth(), RoundingMode.UP);
-		int cellsY = IntMath.divide(getHeight(), tileModel.getTileHeight(), RoundingMode.UP);
-		tileModel.setMapWidth(cellsX);
-		tileModel.setMapHeight(cellsY);
+		updateTileModel();
+		TileFieldCache field = getFieldCache();
+
+		// nothing to show until the first field is available
+		if (field == null)
+			return;
 		
 		// cut of partly draw hexagons
 		g.clipRect(0, 0, tileModel.getWorldWidth(), tileModel.getWorldHeight());
 
-		drawTiles(g);
+		g.drawImage(field.getTileLayer(), 0, 0, null);
 
 		Object oldAAhint = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
 		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-		drawVectorField(g);
-		drawSelection(g);
+		drawVectorField(g, field);
+
+		// an outdated field does not match the selected tile
+		if (field.isValidFor(colormap, tileModel.getMapWidth(), tileModel.getMapHeight()))
+		{
+			drawSelection(g, field);
+		}
 
 		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, oldAAhint);
 
 		g1.setClip(null);
 	}
 
-	private void drawVectorField(Graphics2D g)
+	private void updateTileModel()
+	{
+		int cellsX = IntMath.divide(getWidth(), tileModel.getAvgTileWidth(), RoundingMode.UP);
+		int cellsY = IntMath.divide(getHeight(), tileModel.getTileHeight(), RoundingMode.UP);
+		tileModel.setMapWidth(cellsX);
+		tileModel.setMapHeight(cellsY);
+	}
+
+	/**
+	 * Requests a new field in the background if the colormap or the map size has changed
+	 * @return the latest available field (possibly outdated) or <code>null</code> if there is none yet
+	 */
+	private TileFieldCache getFieldCache()
 	{
 		int mapWidth = tileModel.getMapWidth();
 		int mapHeight = tileModel.getMapHeight();
 
-		double maxDist = tileModel.getTileHeight() * 0.5;	// distance to tile border
-		
+		boolean upToDate = fieldCache != null && fieldCache.isValidFor(colormap, mapWidth, mapHeight);
+		boolean requested = fieldTask.isPending()
+				&& requestedView == colormap && requestedWidth == mapWidth && requestedHeight == mapHeight;
+
+		if (!upToDate && !requested)
+		{
+			requestedView = colormap;
+			requestedWidth = mapWidth;
+			requestedHeight = mapHeight;
+
+			// the tile model is modified on the EDT - use a copy
+			ColormapView view = colormap;
+			HexTileModel model = new HexTileModel(tileModel.getTileWidth(), tileModel.getTileHeight(),
+					tileModel.getTopLength(), mapWidth, mapHeight);
+
+			fieldTask.submit(cancelled -> new TileFieldCache(view, model, hexagon), field ->
+			{
+				fieldCache = field;
+				repaint();
+			});
+		}
+
+		return fieldCache;
+	}
+
+	private void drawVectorField(Graphics2D g, TileFieldCache field)
+	{
+		int mapWidth = field.getMapWidth();
+		int mapHeight = field.getMapHeight();
+
+		Rectangle clip = g.getClipBounds();
+		int halfWidth = tileModel.getTileWidth() / 2 + 1;
+		int halfHeight = tileModel.getTileHeight() / 2 + 1;
+
+		g.setColor(Color.BLACK);
+
 		for (int y = 0; y < mapHeight; y++) {
 			for (int x = 0; x < mapWidth; x++) {
 
-				if (!shouldDraw(x, y))
+				if (isHidden(x, y))
 					continue;
-				
-				double forceX = 0; 
-				double forceY = 0;
 
+				// the arrows don't leave their tile
 				int worldX = tileModel.getWorldX(x, y);
 				int worldY = tileModel.getWorldY(x, y);
-				Color color = getTileColor(worldX, worldY);
-				PColor color2 = PColor.create(COLOR_SPACE, color.getColorComponents(new float[3]));
-				Collection<Direction> neighs = tileModel.validDirections(x, y);
-				
-				for (Direction dir : neighs)
-				{
-					// compute only if opposing forces can be computed as well
-					if (neighs.contains(dir.getOpposite()))
-					{
-						Tile n = tileModel.getNeighborFor(x, y, dir);
-						int nworldX = tileModel.getWorldX(n.getMapX(), n.getMapY());
-						int nworldY = tileModel.getWorldY(n.getMapX(), n.getMapY());
-						Color ncolor = getTileColor(nworldX, nworldY);
-						PColor ncolor2 = PColor.create(COLOR_SPACE, ncolor.getColorComponents(new float[3]));
-						
-						double weight = ColorTools.distance(color2, ncolor2, VIEW_ENV);
-						double dx = nworldX - worldX;
-						double dy = nworldY - worldY;
-						double len = Math.sqrt(dx * dx + dy * dy);
-						forceX += weight * dx / len;
-						forceY += weight * dy / len;
-					}
-				}
-				
-				double force = Math.sqrt(forceX * forceX + forceY * forceY);
-				if (force > maxDist) {
-					forceX = forceX * maxDist / force;
-					forceY = forceY * maxDist / force;
-				}
-				
-				Color arrColor = Color.BLACK;
-				int tx = (int)(worldX + forceX + 0.5);
-				int ty = (int)(worldY + forceY + 0.5);
-				drawArrow(g, worldX, worldY, tx, ty, arrColor);
-			}
-		}
-	}
+				if (clip != null && !clip.intersects(worldX - halfWidth, worldY - halfHeight, 2 * halfWidth, 2 * halfHeight))
+					continue;
 
-	private boolean shouldDraw(int x, int y)
-	{
-		if (selection.isPresent())
-		{
-			Tile tile = selection.get();
-			
-			// don't draw selected tile
-			if (tile.getMapX() == x && tile.getMapY() == y)
-				return false;
-			
-			// don't draw neighbors of the selected tile
-			Collection<Direction> dirs = tileModel.validDirections(tile.getMapX(), tile.getMapY());
-			for (Direction dir : dirs)
-			{
-				Tile neighbor = tileModel.getNeighborFor(tile.getMapX(), tile.getMapY(), dir);
-				if (neighbor.getMapX() == x && neighbor.getMapY() == y)
-					return false;
+				field.drawArrow(g, x, y);
 			}
-			
-			return true;
 		}
-
-		return true;
 	}
 
-	private void drawArrow(Graphics2D g, int sx, int sy, int tx, int ty, Color color)
+	/**
+	 * @return true if the arrow of the tile is hidden by the selection (the selected tile and its neighbors)
+	 */
+	private boolean isHidden(int x, int y)
 	{
-		double dAng = Math.toRadians(30);
-
-		double dx = sx - tx;
-		double dy = sy - ty;
-		double len = Math.sqrt(dx * dx + dy * dy);
-		double wlen = len / 3;	// one third of the total arrow length is for the wings
+		if (!selection.isPresent())
+			return false;
 
-		double ang = Math.atan2(dy, dx);
-		
-		int w1x = (int) (tx + wlen * Math.cos(ang + dAng) + 0.5);
-		int w1y = (int) (ty + wlen * Math.sin(ang + dAng) + 0.5);
+		Tile tile = selection.get();
+		int dx = Math.abs(tile.getMapX() - x);
+		int dy = Math.abs(tile.getMapY() - y);
 
-		int w2x = (int) (tx + wlen * Math.cos(ang - dAng) + 0.5);
-		int w2y = (int) (ty + wlen * Math.sin(ang - dAng) + 0.5);
+		// only tiles in the 3x3 block can be neighbors
+		if (dx > 1 || dy > 1)
+			return false;
 
-		g.setColor(color);
+		// don't draw selected tile
+		if (dx == 0 && dy == 0)
+			return true;
 
-		g.drawLine(sx, sy, tx, ty);
-		g.drawLine(tx, ty, w1x, w1y);
-		g.drawLine(tx, ty, w2x, w2y);
-	}
+		// don't draw neighbors of the selected tile
+		Collection<Direction> dirs = tileModel.validDirections(tile.getMapX(), tile.getMapY());
+		for (Direction dir : dirs)
+		{
+			Tile neighbor = tileModel.getNeighborFor(tile.getMapX(), tile.getMapY(), dir);
+			if (neighbor.getMapX() == x && neighbor.getMapY() == y)
+				return true;
+		}
 
-	private Color getTileColor(int worldX, int worldY)
-	{
-		double mapX = (double)worldX / tileModel.getWorldWidth();
-		double mapY = (double)worldY / tileModel.getWorldHeight();
-		
-		Color color = colormap.getColor(mapX, mapY);
-		return color;
+		return false;
 	}
 
-	private double getTileReliability(int worldX, int worldY)
+	/**
+	 * @param tile the selected tile or absent
+	 * @return the area that is affected by the selection of the tile (the tile, its neighbors and
+	 * the distance arrows) or a rectangle with negative size if absent
+	 */
+	private Rectangle getSelectionBounds(Optional<Tile> tile)
 	{
-		double mapX = (double)worldX / tileModel.getWorldWidth();
-		double mapY = (double)worldY / tileModel.getWorldHeight();
-		
-		return colormap.getReliability(mapX, mapY);
-	}
+		Rectangle rc = new Rectangle(0, 0, -1, -1);
+		if (!tile.isPresent())
+			return rc;
 
-	private void drawTiles(Graphics2D g)
-	{
-		int mapWidth = tileModel.getMapWidth();
-		int mapHeight = tileModel.getMapHeight();
+		int x = tile.get().getMapX();
+		int y = tile.get().getMapY();
+		int worldX = tileModel.getWorldX(x, y);
+		int worldY = tileModel.getWorldY(x, y);
+		rc.setBounds(worldX, worldY, 0, 0);
 
-		AffineTransform at = g.getTransform();
-		
-		for (int y = 0; y < mapHeight; y++) {
-			for (int x = 0; x < mapWidth; x++) {
-				int worldX = tileModel.getWorldX(x, y);
-				int worldY = tileModel.getWorldY(x, y);
-				Color color = getTileColor(worldX, worldY);
-				float scale = (float) getTileReliability(worldX, worldY);
-
-				g.setColor(color);
-				g.translate(worldX, worldY);
-				g.scale(scale, scale);
-				g.fill(hexagon);
-				g.draw(hexagon);
-				g.setTransform(at);
-			}
+		for (Direction dir : tileModel.validDirections(x, y))
+		{
+			Tile n = tileModel.getNeighborFor(x, y, dir);
+			rc.add(tileModel.getWorldX(n.getMapX(), n.getMapY()), tileModel.getWorldY(n.getMapX(), n.getMapY()));
 		}
+
+		// the extent of the neighboring hexagons and the maximum stroke width of the distance arrows
+		int margin = Math.max(tileModel.getTileWidth(), tileModel.getTileHeight()) / 2 + MAX_STROKE_WIDTH;
+		rc.grow(margin, margin);
+		return rc;
 	}
 
-	private void drawSelection(Graphics2D g)
+	private void drawSelection(Graphics2D g, TileFieldCache field)
 	{
 		if (selection.isPresent())
 		{
 			Tile tile = selection.get();
 			drawHexagonFrame(g, tile, Color.BLACK);
 
-			double totalDist = computeTotalColorDistance(tile);
+			double totalDist = computeTotalColorDistance(tile, field);
 			
 			if (totalDist > 0)
 			{
-				drawDistanceGrid(g, tile, totalDist);
+				drawDistanceGrid(g, tile, totalDist, field);
 			}
 		}
 	}
 
-	private void drawDistanceGrid(Graphics2D g, Tile tile, double totalDist)
+	private void drawDistanceGrid(Graphics2D g, Tile tile, double totalDist, TileFieldCache field)
 	{
 		int x = tile.getMapX();
 		int y = tile.getMapY();
 		int worldX = tileModel.getWorldX(x, y);
 		int worldY = tileModel.getWorldY(x, y);
 		
-		Color color = getTileColor(worldX, worldY);
-		PColor pcolor = PColor.create(COLOR_SPACE, color.getColorComponents(new float[3]));
-		
 		// draw arrows to all neighbors weighted by their color distance
 		Collection<Direction> dirs = tileModel.validDirections(x, y);
 		for (Direction dir : dirs)
@@ -382,12 +377,9 @@ public class DecomposedPanel extends JPanel
 			int neighX = tileModel.getWorldX(n.getMapX(), n.getMapY());
 			int neighY = tileModel.getWorldY(n.getMapX(), n.getMapY());
 
-			Color ncolor = getTileColor(neighX, neighY);
-			PColor pncolor = PColor.create(COLOR_SPACE, ncolor.getColorComponents(new float[3]));
+			double dist = field.getWeight(x, y, dir);
 			
-			double dist = ColorTools.distance(pcolor, pncolor, VIEW_ENV);
-			
-			double weight = 10 * dist / totalDist;
+			double weight = MAX_STROKE_WIDTH * dist / totalDist;
 			
 //			int dx = neighX - worldX;
 //			int dy = neighY - worldY;
@@ -402,6 +394,30 @@ public class DecomposedPanel extends JPanel
 		g.setStroke(new BasicStroke());
 	}
 
+	private void drawArrow(Graphics2D g, int sx, int sy, int tx, int ty, Color color)
+	{
+		double dAng = Math.toRadians(30);
+
+		double dx = sx - tx;
+		double dy = sy - ty;
+		double len = Math.sqrt(dx * dx + dy * dy);
+		double wlen = len / 3;	// one third of the total arrow length is for the wings
+
+		double ang = Math.atan2(dy, dx);
+		
+		int w1x = (int) (tx + wlen * Math.cos(ang + dAng) + 0.5);
+		int w1y = (int) (ty + wlen * Math.sin(ang + dAng) + 0.5);
+
+		int w2x = (int) (tx + wlen * Math.cos(ang - dAng) + 0.5);
+		int w2y = (int) (ty + wlen * Math.sin(ang - dAng) + 0.5);
+
+		g.setColor(color);
+
+		g.drawLine(sx, sy, tx, ty);
+		g.drawLine(tx, ty, w1x, w1y);
+		g.drawLine(tx, ty, w2x, w2y);
+	}
+
 	private void drawHexagonFrame(Graphics2D g, Tile tile, Color color)
 	{
 		int x = tile.getMapX();
@@ -415,29 +431,16 @@ public class DecomposedPanel extends JPanel
 		g.translate(-worldX, -worldY);
 	}
 
-	private double computeTotalColorDistance(Tile tile)
+	private double computeTotalColorDistance(Tile tile, TileFieldCache field)
 	{
 		int x = tile.getMapX();
 		int y = tile.getMapY();
 
-		int worldX = tileModel.getWorldX(x, y);
-		int worldY = tileModel.getWorldY(x, y);
-
-		Color color = getTileColor(worldX, worldY);
-		PColor pcolor = PColor.create(COLOR_SPACE, color.getColorComponents(new float[3]));
-
 		double sum = 0;
 		
 		for (Direction dir : tileModel.validDirections(x, y))
 		{
-			Tile n = tileModel.getNeighborFor(x, y, dir);
-			int neighX = tileModel.getWorldX(n.getMapX(), n.getMapY());
-			int neighY = tileModel.getWorldY(n.getMapX(), n.getMapY());
-
-			Color ncolor = getTileColor(neighX, neighY);
-			PColor pncolor = PColor.create(COLOR_SPACE, ncolor.getColorComponents(new float[3]));
-			
-			double dist = ColorTools.distance(pcolor, pncolor, VIEW_ENV);
+			double dist = field.getWeight(x, y, dir);
 			
 			sum += Math.abs(dist);
 		}
@@ -17,18 +17,16 @@
 package de.fhg.igd.iva.explorer.main;
 
 import java.awt.BorderLayout;
-import java.awt.Color;
 import java.awt.Component;
 import java.awt.Cursor;
 import java.awt.Desktop;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
-import java.awt.image.WritableRaster;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 
@@ -55,6 +53,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.eventbus.Subscribe;
 
 import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.CachedColormapCache;
 import de.fhg.igd.iva.explorer.events.ColormapSelectionEvent;
 import de.fhg.igd.iva.explorer.events.MyEventBus;
 
@@ -162,7 +161,7 @@ public class ExportView extends JPanel
 		if (!this.isVisible())
 			return;
 
-		colormap = new CachedColormap(event.getSelection(), 512, 512);
+		colormap = CachedColormapCache.getDefault().get(event.getSelection(), 512, 512);
 	}
 	
 	private void saveImageToFile()
@@ -208,28 +207,10 @@ public class ExportView extends JPanel
 	private void renderToImage(File file, String format, int width, int height) throws IOException
 	{
 		BufferedImage bi = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-		Graphics2D gi = bi.createGraphics();
 
-		float maxY = height - 1;
-		float maxX = width - 1;
-
-		WritableRaster raster = bi.getRaster();
-
-		for (int y = 0; y < height; y++)
-		{
-			float my = y / maxY;
-			for (int x = 0; x < width; x++)
-			{
-				float mx = x / maxX;
-				Color color = colormap.getUncachedColor(mx, my);
-
-				raster.setSample(x, y, 0, color.getRed());
-				raster.setSample(x, y, 1, color.getGreen());
-				raster.setSample(x, y, 2, color.getBlue());
-			}
-		}
-
-		gi.dispose();
+		// TYPE_INT_RGB stores one packed int per pixel, row by row - the alpha byte is ignored
+		int[] data = ((DataBufferInt) bi.getRaster().getDataBuffer()).getData();
+		colormap.getOriginal().getColorGrid(width, height, data);
 
 		ImageIO.write(bi, format, file);
 	}
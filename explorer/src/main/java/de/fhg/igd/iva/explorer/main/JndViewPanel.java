@@ -32,7 +32,8 @@ import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
 
 import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
@@ -44,7 +45,6 @@ import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.ProgressMonitor;
-import javax.swing.SwingWorker;
 import javax.swing.border.BevelBorder;
 
 import org.slf4j.Logger;
@@ -53,14 +53,18 @@ import org.slf4j.LoggerFactory;
 import progress.LoggingProgressListener;
 import progress.SwingProgressListener;
 import algorithms.JndRegionComputer;
+import algorithms.SampleContext;
 import algorithms.sampling.CircularSampling;
 
 import com.google.common.eventbus.Subscribe;
 
 import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.CachedColormapCache;
 import de.fhg.igd.iva.colormaps.Colormap;
+import de.fhg.igd.iva.colormaps.KnownColormap;
 import de.fhg.igd.iva.explorer.events.ColormapSelectionEvent;
 import de.fhg.igd.iva.explorer.events.MyEventBus;
+import de.fhg.igd.iva.explorer.tasks.ViewTask;
 
 /**
  * Display points with a certain jnd distance
@@ -80,8 +84,18 @@ public class JndViewPanel extends JPanel
 	private final JComboBox<Double> jndDistanceCombo;
 	private final JComboBox<RegionSampling> jndRegionCombo;
 
+	private SampleContext sampleContext;
+	private CircularSampling sampling;
+
+	/**
+	 * The computer of the latest request - a new instance is created for every request,
+	 * so that a superseded computation cannot modify the displayed points and regions
+	 */
 	private JndRegionComputer regionComputer;
 
+	private final ViewTask<CachedColormap> colormapTask = new ViewTask<>();
+	private final ViewTask<Void> regionTask = new ViewTask<>();
+
 	private final JFileChooser fileChooser = FileDialogs.createSaveImageDialog();
 
 	private static class RegionSampling
@@ -112,6 +126,44 @@ public class JndViewPanel extends JPanel
 		}
 	}
 
+	/**
+	 * Repaints the view whenever the number of computed elements changes.
+	 * Cancelled by the user or when the computation is superseded.
+	 */
+	private class RepaintingProgressListener extends SwingProgressListener
+	{
+		private final IntSupplier counter;
+		private final BooleanSupplier cancelled;
+		private int oldCount = 0;
+
+		public RepaintingProgressListener(String message, IntSupplier counter, BooleanSupplier cancelled)
+		{
+			super(JndViewPanel.this, message);
+			this.counter = counter;
+			this.cancelled = cancelled;
+		}
+
+		@Override
+		public void step()
+		{
+			super.step();
+
+			int count = counter.getAsInt();
+
+			if (count != oldCount)
+			{
+				oldCount = count;
+				JndViewPanel.this.repaint();
+			}
+		}
+
+		@Override
+		public boolean isCancelled()
+		{
+			return cancelled.getAsBoolean() || super.isCancelled();
+		}
+	}
+
 	public JndViewPanel()
 	{
 		MyEventBus.getInstance().register(this);
@@ -196,6 +248,9 @@ public class JndViewPanel extends JPanel
 
 	private void saveImageToFile()
 	{
+		if (regionComputer == null)
+			return;
+
 		if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION)
 		{
 			try
@@ -229,73 +284,48 @@ public class JndViewPanel extends JPanel
 		if (!this.isVisible())
 			return;
 
-		colormap = new CachedColormap(event.getSelection(), 512, 512);
+		KnownColormap selection = event.getSelection();
+
+		// the cache and its CAM02-UCS grid are loaded in the background, the regions are computed once they are available
+		colormapTask.submit(cancelled -> CachedColormapCache.getDefault().get(selection, 512, 512)
+				.withPerceptualGrid(SampleContext.CAM02_UCS), cached ->
+		{
+			colormap = cached;
+
+			int sampleRate = 200;
+//			sampling = new GridSampling(sampleRate);
+			sampling = new CircularSampling(sampleRate);
 
-		int sampleRate = 200;
-//		GridSampling sampling = new GridSampling(sampleRate);
-		CircularSampling sampling = new CircularSampling(sampleRate);
-		regionComputer = new JndRegionComputer(colormap, sampling);
+			// all requests for this colormap share the converted samples
+			sampleContext = new SampleContext(colormap);
 
-		updateSampling();
+			updateSampling();
+		});
 	}
 
 	private void updateSampling()
 	{
+		if (sampleContext == null)
+			return;
+
 		Double distanceThreshold = jndDistanceCombo.getItemAt(jndDistanceCombo.getSelectedIndex());
 		RegionSampling regionSampling = jndRegionCombo.getItemAt(jndRegionCombo.getSelectedIndex());
-		regionComputer.setJndThreshold(distanceThreshold.doubleValue());
-		regionComputer.setRegionSampling(regionSampling.getAngles(), regionSampling.getStepSize());
-
-		final SwingProgressListener progress1 = new SwingProgressListener(this, "Computing JND points")
-		{
-			private int oldPoints = 0;
-
-			@Override
-			public void step()
-			{
-				super.step();
 
-				int points = regionComputer.getPoints().size();
+		final JndRegionComputer computer = new JndRegionComputer(sampleContext, sampling);
+		computer.setJndThreshold(distanceThreshold.doubleValue());
+		computer.setRegionSampling(regionSampling.getAngles(), regionSampling.getStepSize());
+		regionComputer = computer;
 
-				if (points != oldPoints)
-				{
-					oldPoints = points;
-					JndViewPanel.this.repaint();
-				}
-			}
-		};
-
-		final SwingProgressListener progress2 = new SwingProgressListener(this, "Updating Regions")
+		// supersedes the computation for the previous colormap or sampling
+		regionTask.submit(cancelled ->
 		{
-			private int oldRegions = 0;
-
-			@Override
-			public void step()
-			{
-				super.step();
+			computer.computePoints(new RepaintingProgressListener("Computing JND points",
+					() -> computer.getPoints().size(), cancelled));
+			computer.computeJndRegions(new RepaintingProgressListener("Updating Regions",
+					() -> computer.getRegionCount(), cancelled));
 
-				int regions = regionComputer.getRegionCount();
-
-				if (regions != oldRegions)
-				{
-					oldRegions = regions;
-					JndViewPanel.this.repaint();
-				}
-			}
-		};
-
-		SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>()
-		{
-			@Override
-			protected Void doInBackground() throws Exception
-			{
-				regionComputer.computePoints(progress1);
-				regionComputer.computeJndRegions(progress2);
-
-				return null;
-			}
-		};
-		worker.execute();
+			return null;
+		}, none -> repaint());
 
 		repaint();
 	}
@@ -322,6 +352,10 @@ public class JndViewPanel extends JPanel
 		super.paintComponent(g1);
 		Graphics2D g = (Graphics2D)g1;
 
+		// the colormap is loaded in the background
+		if (regionComputer == null)
+			return;
+
 		if (drawColormap.isSelected())
 		{
 			drawColormap(g);
@@ -397,7 +431,7 @@ public class JndViewPanel extends JPanel
 	{
 		for (Point2D jndPt : regionComputer.getPoints())
 		{
-			List<Point2D> pts = regionComputer.getRegion(jndPt);
+			double[] pts = regionComputer.getRegionCoords(jndPt);
 			if (pts != null)	// the computation could have been cancelled and the region undefined
 			{
 				Polygon poly = createPolygon(pts);
@@ -415,7 +449,7 @@ public class JndViewPanel extends JPanel
 
 		for (Point2D jndPt : regionComputer.getPoints())
 		{
-			List<Point2D> pts = regionComputer.getRegion(jndPt);
+			double[] pts = regionComputer.getRegionCoords(jndPt);
 			if (pts != null)
 			{
 				Polygon poly = createPolygon(pts);
@@ -426,20 +460,21 @@ public class JndViewPanel extends JPanel
 		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_DEFAULT);
 	}
 
-	private Polygon createPolygon(List<Point2D> pts)
+	private Polygon createPolygon(double[] pts)
 	{
-        int[] x = new int[pts.size()];
-        int[] y = new int[pts.size()];
+        int count = pts.length / 2;
+        int[] x = new int[count];
+        int[] y = new int[count];
 
-        for (int i = 0; i < pts.size(); i++)
+        for (int i = 0; i < count; i++)
         {
-			int wx = (int) mapXtoScreenX(pts.get(i).getX());
-			int wy = (int) mapYtoScreenY(pts.get(i).getY());
+			int wx = (int) mapXtoScreenX(pts[2 * i]);
+			int wy = (int) mapYtoScreenY(pts[2 * i + 1]);
             x[i] = wx;
             y[i] = wy;
         }
 
-        return new Polygon(x, y, pts.size());
+        return new Polygon(x, y, count);
     }
 
 
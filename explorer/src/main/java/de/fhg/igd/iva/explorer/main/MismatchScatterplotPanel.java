@@ -92,6 +92,10 @@ public class MismatchScatterplotPanel extends JPanel
 		super.paintComponent(g1);
 		Graphics2D g = (Graphics2D)g1;
 
+		// the point source is computed in the background
+		if (points == null)
+			return;
+
 		int dia = 3;
 
 		double maxX = getWidth() - dia;
@@ -102,7 +106,8 @@ public class MismatchScatterplotPanel extends JPanel
 
 		Iterator<Point2D> pstr = points.iterator();
 
-		double medianRatio = ratioStats.getQuantile(0.5);
+		double[] quantiles = ratioStats.getQuantiles(0.5, 0.95, 0.05);
+		double medianRatio = quantiles[0];
 
 		for (int i = 0; i < lines; i++)
 		{
@@ -131,8 +136,8 @@ public class MismatchScatterplotPanel extends JPanel
 			g.fillOval(xCoord, yCoord, dia, dia);
 		}
 
-		double upperQuantile = ratioStats.getQuantile(0.95);
-		double lowerQuantile = ratioStats.getQuantile(0.05);
+		double upperQuantile = quantiles[1];
+		double lowerQuantile = quantiles[2];
 
 
 		if (useLog) {
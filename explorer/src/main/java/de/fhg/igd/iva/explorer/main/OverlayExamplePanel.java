@@ -27,6 +27,7 @@ import java.awt.font.LineBreakMeasurer;
 import java.awt.font.TextAttribute;
 import java.awt.font.TextLayout;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.math.RoundingMode;
 import java.text.AttributedCharacterIterator;
 import java.text.AttributedString;
@@ -94,19 +95,15 @@ public class OverlayExamplePanel extends JPanel
 
 		BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 
-		for (int y = 0; y < height; y++)
+		double[] coords = new double[2 * width * height];
+		for (int i = 0; i < coords.length; i++)
 		{
-			for (int x = 0; x < width; x++)
-			{
-				double cx = r.nextDouble();
-				double cy = r.nextDouble();
-
-				Color color = colormap.getColor(cx, cy);
-
-				img.setRGB(x, y, color.getRGB());
-			}
+			coords[i] = r.nextDouble();
 		}
 
+		int[] data = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+		colormap.getColors(coords, data);
+
 		// width * gridX is not identical with getWidt() due to rounding
 
 		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
@@ -20,9 +20,11 @@ package de.fhg.igd.iva.explorer.main;
 import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListModel;
@@ -34,12 +36,18 @@ import javax.swing.JScrollPane;
 import javax.swing.ListCellRenderer;
 import javax.swing.ListModel;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 
-import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Sets;
 import com.google.common.eventbus.Subscribe;
 
+import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.CachedColormapCache;
 import de.fhg.igd.iva.colormaps.KnownColormap;
 import de.fhg.igd.iva.explorer.events.ColormapAddedEvent;
 import de.fhg.igd.iva.explorer.events.ColormapSelectionEvent;
@@ -53,6 +61,10 @@ public class OverviewPanel extends JPanel
 {
 	private static final long serialVersionUID = -6103669094099315619L;
 
+	private static final Logger logger = LoggerFactory.getLogger(OverviewPanel.class);
+
+	private static final int PREVIEW_SIZE = 160;
+
 	private final JList<KnownColormap> list;
 	private final DefaultListModel<KnownColormap> model;
 
@@ -65,32 +77,7 @@ public class OverviewPanel extends JPanel
 		
 		list = new JList<KnownColormap>(model);
 
-		list.setCellRenderer(new ListCellRenderer<KnownColormap>()
-		{
-			private Map<KnownColormap, JComponent> renderers = Maps.newHashMap();
-
-			@Override
-			public Component getListCellRendererComponent(JList<? extends KnownColormap> list, KnownColormap cm, int index, boolean isSelected, boolean cellHasFocus)
-			{
-				JComponent parent = renderers.get(cm);
-
-				if (parent == null)
-				{
-					parent = new JPanel(new BorderLayout(5, 5));
-					JLabel label = new JLabel(cm.getName());
-					ColormapPanel cmPanel = new ColormapPanel(cm, 160);
-					cmPanel.setPreferredSize(new Dimension(160, 160));
-					parent.add(label, BorderLayout.NORTH);
-					parent.add(cmPanel, BorderLayout.CENTER);
-					parent.setBorder(BorderFactory.createEtchedBorder());
-					renderers.put(cm, parent);
-				}
-
-				parent.setBackground(isSelected ? list.getSelectionBackground() : list.getBackground());
-
-				return parent;
-			}
-		});
+		list.setCellRenderer(new ColormapCellRenderer());
 		list.setLayoutOrientation(JList.HORIZONTAL_WRAP);
 		list.setVisibleRowCount(0);
 		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -148,5 +135,80 @@ public class OverviewPanel extends JPanel
 			}
 		}
 	}
+
+	/**
+	 * Renders all list cells with the same component. The preview images are taken from the
+	 * {@link CachedColormapCache}, so previews of colormaps that have not been shown for a while
+	 * can be evicted. Missing previews are computed in the background.
+	 */
+	private static class ColormapCellRenderer implements ListCellRenderer<KnownColormap>
+	{
+		private final JPanel parent = new JPanel(new BorderLayout(5, 5));
+		private final JLabel label = new JLabel();
+		private final PreviewPanel preview = new PreviewPanel();
+
+		/**
+		 * Colormaps whose preview is being computed (or could not be computed)
+		 */
+		private final Set<KnownColormap> pending = Sets.newHashSet();
+
+		ColormapCellRenderer()
+		{
+			preview.setPreferredSize(new Dimension(PREVIEW_SIZE, PREVIEW_SIZE));
+			parent.add(label, BorderLayout.NORTH);
+			parent.add(preview, BorderLayout.CENTER);
+			parent.setBorder(BorderFactory.createEtchedBorder());
+		}
+
+		@Override
+		public Component getListCellRendererComponent(JList<? extends KnownColormap> list, KnownColormap cm, int index, boolean isSelected, boolean cellHasFocus)
+		{
+			CachedColormapCache cache = CachedColormapCache.getDefault();
+			CachedColormap cached = cache.getIfPresent(cm, PREVIEW_SIZE, PREVIEW_SIZE);
+
+			if (cached == null && pending.add(cm))
+			{
+				cache.getAsync(cm, PREVIEW_SIZE, PREVIEW_SIZE).whenComplete((result, e) -> SwingUtilities.invokeLater(() ->
+				{
+					if (e != null)
+					{
+						// keep it in the pending set so that it is not tried again
+						logger.error("Could not create preview for " + cm.getName(), e);
+						return;
+					}
+
+					pending.remove(cm);
+					// the renderer is not part of the component hierarchy -> repaint the list instead
+					list.repaint();
+				}));
+			}
+
+			label.setText(cm.getName());
+			preview.image = (cached != null) ? cached.getImage() : null;
+			parent.setBackground(isSelected ? list.getSelectionBackground() : list.getBackground());
+
+			return parent;
+		}
+	}
+
+	/**
+	 * Draws an image that fills the square area of the component
+	 */
+	private static class PreviewPanel extends JComponent
+	{
+		private static final long serialVersionUID = 1917645128437711598L;
+
+		private BufferedImage image;
+
+		@Override
+		protected void paintComponent(Graphics g)
+		{
+			if (image == null)
+				return;
+
+			int screenSize = Math.min(getWidth(), getHeight());
+			g.drawImage(image, 0, 0, screenSize, screenSize, null);
+		}
+	}
 }
 
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fhg.igd.iva.explorer.main;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Polygon;
+import java.awt.color.ColorSpace;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collection;
+
+import views.ColormapView;
+import de.fhg.igd.iva.explorer.tiling.Direction;
+import de.fhg.igd.iva.explorer.tiling.HexTileModel;
+import de.fhg.igd.iva.explorer.tiling.Tile;
+import de.fhg.igd.pcolor.PColor;
+import de.fhg.igd.pcolor.colorspace.ViewingConditions;
+import de.fhg.igd.pcolor.util.ColorTools;
+
+/**
+ * Precomputed data of a {@link DecomposedPanel} for one colormap view and one map size:
+ * the tile colors, the color distances between neighboring tiles, the arrows of the vector field
+ * and an image of the tiles. All arrays are indexed by <code>x + y * mapWidth</code>.
+ * Instances are immutable, so they can be computed in the background.
+ * @author Martin Steiger
+ */
+class TileFieldCache
+{
+	private static final ViewingConditions VIEW_ENV = ViewingConditions.sRGB_typical_envirnonment;
+	private static final ColorSpace COLOR_SPACE = ColorSpace.getInstance(ColorSpace.CS_sRGB);
+
+	private static final int DIRS = Direction.values().length;
+
+	/**
+	 * Start, tip and both wing ends of an arrow
+	 */
+	private static final int ARROW_INTS = 8;
+
+	private final ColormapView view;
+	private final int mapWidth;
+	private final int mapHeight;
+
+	private final Color[] colors;
+
+	/**
+	 * The color distance to the neighbor in every direction or NaN if there is none
+	 */
+	private final double[] weights;
+
+	private final int[] arrows;
+
+	private final BufferedImage tileLayer;
+
+	/**
+	 * @param view the colormap view
+	 * @param tileModel the tile model with the current map size (not modified and not retained)
+	 * @param hexagon the tile shape, centered at the origin
+	 */
+	public TileFieldCache(ColormapView view, HexTileModel tileModel, Polygon hexagon)
+	{
+		this.view = view;
+		this.mapWidth = tileModel.getMapWidth();
+		this.mapHeight = tileModel.getMapHeight();
+
+		int count = mapWidth * mapHeight;
+		double[] coords = new double[2 * count];
+		float[] scales = new float[count];
+
+		for (int y = 0; y < mapHeight; y++)
+		{
+			for (int x = 0; x < mapWidth; x++)
+			{
+				int worldX = tileModel.getWorldX(x, y);
+				int worldY = tileModel.getWorldY(x, y);
+				double mapX = (double)worldX / tileModel.getWorldWidth();
+				double mapY = (double)worldY / tileModel.getWorldHeight();
+
+				int idx = index(x, y);
+				coords[2 * idx] = mapX;
+				coords[2 * idx + 1] = mapY;
+			}
+		}
+
+		// evaluate all tiles at once - views can filter them in bulk and derive the reliability
+		// from the same colors. The components are not quantized, so the distances are exact.
+		float[] rgb = view.getColorComponents(coords, null, scales);
+		colors = new Color[count];
+		PColor[] pcolors = new PColor[count];
+
+		for (int idx = 0; idx < count; idx++)
+		{
+			float[] comps = Arrays.copyOfRange(rgb, 3 * idx, 3 * idx + 3);
+			colors[idx] = new Color(comps[0], comps[1], comps[2]);
+			pcolors[idx] = PColor.create(COLOR_SPACE, comps);
+		}
+
+		weights = computeWeights(tileModel, pcolors);
+		arrows = computeArrows(tileModel);
+		tileLayer = drawTiles(tileModel, hexagon, scales);
+	}
+
+	/**
+	 * @param otherView the colormap view
+	 * @param otherWidth the map width in tiles
+	 * @param otherHeight the map height in tiles
+	 * @return true if the cache was computed for these parameters
+	 */
+	public boolean isValidFor(ColormapView otherView, int otherWidth, int otherHeight)
+	{
+		return view == otherView && mapWidth == otherWidth && mapHeight == otherHeight;
+	}
+
+	/**
+	 * @return the map width in tiles
+	 */
+	public int getMapWidth()
+	{
+		return mapWidth;
+	}
+
+	/**
+	 * @return the map height in tiles
+	 */
+	public int getMapHeight()
+	{
+		return mapHeight;
+	}
+
+	/**
+	 * @param x the map x coordinate
+	 * @param y the map y coordinate
+	 * @return the color of the tile
+	 */
+	public Color getColor(int x, int y)
+	{
+		return colors[index(x, y)];
+	}
+
+	/**
+	 * @param x the map x coordinate
+	 * @param y the map y coordinate
+	 * @param dir a valid direction
+	 * @return the color distance between the tile and its neighbor in the given direction
+	 */
+	public double getWeight(int x, int y, Direction dir)
+	{
+		return weights[index(x, y) * DIRS + dir.ordinal()];
+	}
+
+	/**
+	 * @return the image of all tiles in world coordinates (transparent background)
+	 */
+	public BufferedImage getTileLayer()
+	{
+		return tileLayer;
+	}
+
+	/**
+	 * Draws the arrow of the vector field for a single tile
+	 * @param g the graphics context
+	 * @param x the map x coordinate
+	 * @param y the map y coordinate
+	 */
+	public void drawArrow(Graphics2D g, int x, int y)
+	{
+		int i = index(x, y) * ARROW_INTS;
+
+		g.drawLine(arrows[i + 0], arrows[i + 1], arrows[i + 2], arrows[i + 3]);
+		g.drawLine(arrows[i + 2], arrows[i + 3], arrows[i + 4], arrows[i + 5]);
+		g.drawLine(arrows[i + 2], arrows[i + 3], arrows[i + 6], arrows[i + 7]);
+	}
+
+	private int index(int x, int y)
+	{
+		return x + y * mapWidth;
+	}
+
+	private double[] computeWeights(HexTileModel tileModel, PColor[] pcolors)
+	{
+		double[] result = new double[mapWidth * mapHeight * DIRS];
+		Arrays.fill(result, Double.NaN);
+
+		for (int y = 0; y < mapHeight; y++)
+		{
+			for (int x = 0; x < mapWidth; x++)
+			{
+				int idx = index(x, y);
+				for (Direction dir : tileModel.validDirections(x, y))
+				{
+					if (!Double.isNaN(result[idx * DIRS + dir.ordinal()]))
+						continue;
+
+					// the distance is symmetric - store it for both tiles
+					Tile n = tileModel.getNeighborFor(x, y, dir);
+					int nidx = index(n.getMapX(), n.getMapY());
+					double dist = ColorTools.distance(pcolors[idx], pcolors[nidx], VIEW_ENV);
+					result[idx * DIRS + dir.ordinal()] = dist;
+					result[nidx * DIRS + dir.getOpposite().ordinal()] = dist;
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private int[] computeArrows(HexTileModel tileModel)
+	{
+		int[] result = new int[mapWidth * mapHeight * ARROW_INTS];
+		double maxDist = tileModel.getTileHeight() * 0.5;	// distance to tile border
+
+		for (int y = 0; y < mapHeight; y++)
+		{
+			for (int x = 0; x < mapWidth; x++)
+			{
+				double forceX = 0;
+				double forceY = 0;
+
+				int worldX = tileModel.getWorldX(x, y);
+				int worldY = tileModel.getWorldY(x, y);
+				Collection<Direction> neighs = tileModel.validDirections(x, y);
+
+				for (Direction dir : neighs)
+				{
+					// compute only if opposing forces can be computed as well
+					if (neighs.contains(dir.getOpposite()))
+					{
+						Tile n = tileModel.getNeighborFor(x, y, dir);
+						int nworldX = tileModel.getWorldX(n.getMapX(), n.getMapY());
+						int nworldY = tileModel.getWorldY(n.getMapX(), n.getMapY());
+
+						double weight = getWeight(x, y, dir);
+						double dx = nworldX - worldX;
+						double dy = nworldY - worldY;
+						double len = Math.sqrt(dx * dx + dy * dy);
+						forceX += weight * dx / len;
+						forceY += weight * dy / len;
+					}
+				}
+
+				double force = Math.sqrt(forceX * forceX + forceY * forceY);
+				if (force > maxDist) {
+					forceX = forceX * maxDist / force;
+					forceY = forceY * maxDist / force;
+				}
+
+				int tx = (int)(worldX + forceX + 0.5);
+				int ty = (int)(worldY + forceY + 0.5);
+				computeArrow(result, index(x, y) * ARROW_INTS, worldX, worldY, tx, ty);
+			}
+		}
+
+		return result;
+	}
+
+	private static void computeArrow(int[] arrow, int offset, int sx, int sy, int tx, int ty)
+	{
+		double dAng = Math.toRadians(30);
+
+		double dx = sx - tx;
+		double dy = sy - ty;
+		double len = Math.sqrt(dx * dx + dy * dy);
+		double wlen = len / 3;	// one third of the total arrow length is for the wings
+
+		double ang = Math.atan2(dy, dx);
+
+		arrow[offset + 0] = sx;
+		arrow[offset + 1] = sy;
+		arrow[offset + 2] = tx;
+		arrow[offset + 3] = ty;
+		arrow[offset + 4] = (int) (tx + wlen * Math.cos(ang + dAng) + 0.5);
+		arrow[offset + 5] = (int) (ty + wlen * Math.sin(ang + dAng) + 0.5);
+		arrow[offset + 6] = (int) (tx + wlen * Math.cos(ang - dAng) + 0.5);
+		arrow[offset + 7] = (int) (ty + wlen * Math.sin(ang - dAng) + 0.5);
+	}
+
+	private BufferedImage drawTiles(HexTileModel tileModel, Polygon hexagon, float[] scales)
+	{
+		int width = Math.max(1, tileModel.getWorldWidth());
+		int height = Math.max(1, tileModel.getWorldHeight());
+		BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = img.createGraphics();
+
+		AffineTransform at = g.getTransform();
+
+		for (int y = 0; y < mapHeight; y++) {
+			for (int x = 0; x < mapWidth; x++) {
+				int worldX = tileModel.getWorldX(x, y);
+				int worldY = tileModel.getWorldY(x, y);
+				float scale = scales[index(x, y)];
+
+				g.setColor(colors[index(x, y)]);
+				g.translate(worldX, worldY);
+				g.scale(scale, scale);
+				g.fill(hexagon);
+				g.draw(hexagon);
+				g.setTransform(at);
+			}
+		}
+
+		g.dispose();
+		return img;
+	}
+}
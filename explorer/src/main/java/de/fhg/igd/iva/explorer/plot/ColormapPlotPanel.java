@@ -15,10 +15,10 @@
  */
 package de.fhg.igd.iva.explorer.plot;
 
-import java.awt.Color;
 import java.awt.Component;
 import java.awt.GridLayout;
 
+import javax.media.opengl.GLAutoDrawable;
 import javax.swing.JPanel;
 
 import org.jzy3d.chart.Chart;
@@ -29,10 +29,9 @@ import org.jzy3d.plot3d.primitives.axes.layout.renderers.FixedDecimalTickRendere
 import org.jzy3d.plot3d.rendering.canvas.Quality;
 import org.jzy3d.plot3d.rendering.scene.Graph;
 
-import com.google.common.base.Function;
-
 import de.fhg.igd.iva.colormaps.Colormap;
 import de.fhg.igd.iva.colormaps.KnownColormap;
+import de.fhg.igd.iva.explorer.tasks.ViewTask;
 
 /**
  * A panel that contains a jzy3d chart and can plot a {@link KnownColormap}.
@@ -51,8 +50,33 @@ public class ColormapPlotPanel extends JPanel
 
     private Colormap colormap;
     private ColormapShape colormapShape;
-    private Function<float[], float[]> cubeCoordinatesToRgbColorComponents;
-    private Function<Color, float[]> colorToCubeCoordinates;
+    private CoordinateConverter coordinateConverter;
+    private final ViewTask<MeshUpdate> shapeTask = new ViewTask<>();
+
+    /**
+     * The colors of the grid points of the shape, sampled from {@link #sampledColormap}
+     */
+    private double[] sampledColors;
+    private Colormap sampledColormap;
+
+    /**
+     * The result of a background update of the shape. All buffers are planar.
+     */
+    private static class MeshUpdate
+    {
+        private final Colormap colormap;
+        private final double[] sampledColors;
+        private final double[] positions;
+        private final double[] vertexColors;
+
+        MeshUpdate(Colormap colormap, double[] sampledColors, double[] positions, double[] vertexColors)
+        {
+            this.colormap = colormap;
+            this.sampledColors = sampledColors;
+            this.positions = positions;
+            this.vertexColors = vertexColors;
+        }
+    }
 
     public ColormapPlotPanel()
     {
@@ -102,43 +126,15 @@ public class ColormapPlotPanel extends JPanel
     }
 
     /**
-     * Set the function that converts a color (that was looked up in
-     * the {@link Colormap}) to a 3D position in the cube.
-     *
-     * @param colorToCubeCoordinates The function
-     */
-    void setColorToCubeCoordinates(Function<Color, float[]> colorToCubeCoordinates)
-    {
-        this.colorToCubeCoordinates = colorToCubeCoordinates;
-        updateShape();
-    }
-
-    /**
-     * Set the function that maps 3D positions in the cube to RGB color
-     * components. This function will solely be used to assign the
-     * colors to the jzy3d shape based on the coordinates of the
-     * map surface.
-     *
-     * @param cubeCoordinatesToRgbColorComponents The function
-     */
-    void setCubeCoordinatesToRgbColorComponents(Function<float[], float[]> cubeCoordinatesToRgbColorComponents)
-    {
-        this.cubeCoordinatesToRgbColorComponents = cubeCoordinatesToRgbColorComponents;
-        updateShape();
-    }
-
-    /**
-     * Set the {@link CoordinateConverter}, summarizing the conversion functions.
-     *
-     * @see #setCubeCoordinatesToRgbColorComponentsFunction(Function)
-     * @see #setColorToCubeCoordinatesFunction(Function)
+     * Set the {@link CoordinateConverter} that converts colors (that were looked up in
+     * the {@link Colormap}) to 3D positions in the cube and the positions back to
+     * the colors of the plot surface.
      *
      * @param coordinateConverter The {@link CoordinateConverter}
      */
     void setCoordinateConverter(CoordinateConverter coordinateConverter)
     {
-        this.cubeCoordinatesToRgbColorComponents = coordinateConverter.getCubeCoordinatesToRgbColorComponents();
-        this.colorToCubeCoordinates = coordinateConverter.getColorToCubeCoordinates();
+        this.coordinateConverter = coordinateConverter;
         updateShape();
     }
 
@@ -151,17 +147,78 @@ public class ColormapPlotPanel extends JPanel
 
     private void updateShape()
     {
-        if (colormapShape != null)
+        if (colormap == null || coordinateConverter == null)
+        {
+            shapeTask.cancel();
+            return;
+        }
+
+        // the colormap is sampled only if it has changed, a different conversion re-uses the colors
+        final Colormap cm = colormap;
+        final double[] known = (cm == sampledColormap) ? sampledColors : null;
+        final CoordinateConverter converter = coordinateConverter;
+
+        shapeTask.submit(cancelled ->
+        {
+            double[] colors = (known != null) ? known : ColormapShape.sampleColors(cm);
+            int count = colors.length / 3;
+
+            double[] positions = colors.clone();
+            converter.rgbToCubeCoordinates(positions, count);
+
+            double[] vertexColors = positions.clone();
+            converter.cubeCoordinatesToRgb(vertexColors, count);
+
+            return new MeshUpdate(cm, colors, positions, vertexColors);
+        }, update ->
+        {
+            sampledColormap = update.colormap;
+            sampledColors = update.sampledColors;
+
+            // the vertices are moved in place, the shape is added only once
+            if (colormapShape == null)
+            {
+                colormapShape = new ColormapShape();
+                graph.add(colormapShape.getShape());
+            }
+
+            final ColormapShape shape = colormapShape;
+            invokeOnRenderer(() ->
+            {
+                shape.setVertices(update.positions, update.vertexColors);
+                chart.getView().setBoundManual(boundingBox);
+            });
+            chart.render();
+        });
+    }
+
+    /**
+     * Runs a modification of the scene on the rendering thread, between two frames.
+     * The modification is applied directly if the canvas is not realized (yet).
+     * @param modification the modification of the scene
+     */
+    private void invokeOnRenderer(Runnable modification)
+    {
+        Object canvas = chart.getCanvas();
+        boolean queued = false;
+
+        if (canvas instanceof GLAutoDrawable)
         {
-            graph.remove(colormapShape.getShape());
+            GLAutoDrawable drawable = (GLAutoDrawable) canvas;
+            if (drawable.isRealized())
+            {
+                queued = drawable.invoke(false, gl ->
+                {
+                    modification.run();
+                    return true;
+                });
+            }
         }
-        if (colormap != null && cubeCoordinatesToRgbColorComponents != null && colorToCubeCoordinates != null)
+
+        if (!queued)
         {
-            colormapShape = new ColormapShape(colormap, cubeCoordinatesToRgbColorComponents, colorToCubeCoordinates);
-            graph.add(colormapShape.getShape());
-            colormapShape.setColormap(colormap);
+            modification.run();
         }
-        chart.getView().setBoundManual(boundingBox);
     }
 
 }
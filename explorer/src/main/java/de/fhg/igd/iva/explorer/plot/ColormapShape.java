@@ -17,61 +17,113 @@ package de.fhg.igd.iva.explorer.plot;
 
 import java.awt.Color;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
-import org.jzy3d.colors.ColorMapper;
 import org.jzy3d.maths.Coord3d;
-import org.jzy3d.plot3d.primitives.AbstractDrawable;
 import org.jzy3d.plot3d.primitives.Point;
 import org.jzy3d.plot3d.primitives.Polygon;
 import org.jzy3d.plot3d.primitives.Shape;
 
-import com.google.common.base.Function;
-
 import de.fhg.igd.iva.colormaps.Colormap;
 
 /**
  * A class handling a jzy3d Shape and a {@link Colormap}. <br />
  * <br />
- * The shape of the shape will be determined by the {@link Colormap}
- * and a function that maps a color to a 3D position: For each
- * surface point given as u/v coordinates, the corresponding color
- * will be looked up in the color map. This color will then be
- * converted to a 3D position.
+ * The shape is a mesh of grid cells over the u/v coordinates of the {@link Colormap}.
+ * For each grid point, the corresponding color will be looked up in the color map
+ * and then converted to a 3D position. Neighboring cells share their vertices, so
+ * every grid point is sampled and converted only once. The vertex positions
+ * are updated in place when the colormap or the conversion changes.
  * <br />
- * The color of the shape will be determined by a function that maps
- * a 3D position to a color.
+ * The color of every vertex is precomputed from its 3D position, see
+ * {@link CoordinateConverter#cubeCoordinatesToRgb(double[], int)}.
  */
 class ColormapShape
 {
-    private final int stepsX = 10;
-    private final int stepsY = 10;
+    private static final int STEPS_X = 10;
+    private static final int STEPS_Y = 10;
 
-    private Colormap colormap;
-    private final Map<Point, java.awt.Point> pointToGridCoordinates;
-    private final Shape shape;
+    private static final int COLUMNS = STEPS_X + 1;
+    private static final int VERTEX_COUNT = (STEPS_X + 1) * (STEPS_Y + 1);
 
-    private final Function<Color, float[]> colorToCubeCoordinates;
+    /**
+     * The four vertex indices of every grid cell
+     */
+    private static final int[] FACES = createFaces();
 
-    final Function<float[], float[]> cubeCoordinatesToRgbColorComponents;
+    private final Point[] vertices = new Point[VERTEX_COUNT];
+    private final List<Polygon> polygons = new ArrayList<Polygon>();
+    private final Shape shape;
 
-    ColormapShape(Colormap colormap,
-        Function<float[], float[]> cubeCoordinatesToRgbColorComponents,
-        Function<Color, float[]> colorToCubeCoordinates)
+    /**
+     * Creates the mesh with all vertices at the origin
+     */
+    ColormapShape()
     {
-        this.colormap = colormap;
-        this.cubeCoordinatesToRgbColorComponents = cubeCoordinatesToRgbColorComponents;
-        this.colorToCubeCoordinates = colorToCubeCoordinates;
-        this.pointToGridCoordinates = new HashMap<Point, java.awt.Point>();
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            // every vertex owns its color instance, so it can be updated in place
+            vertices[i] = new Point(new Coord3d(), new org.jzy3d.colors.Color(0f, 0f, 0f));
+        }
+
         this.shape = createShape();
     }
 
-    void setColormap(Colormap colormap)
+    /**
+     * Looks up the color of every grid point. Can be called from any thread.
+     * @param colormap the colormap
+     * @return the RGB color components in planar layout, see {@link CoordinateConverter#rgbToCubeCoordinates(double[], int)}.
+     * The vertices are indexed by <code>gx + gy * (STEPS_X + 1)</code>.
+     */
+    static double[] sampleColors(Colormap colormap)
+    {
+        double[] soa = new double[3 * VERTEX_COUNT];
+        float[] rgb = new float[3];
+        for (int gy = 0; gy <= STEPS_Y; gy++)
+        {
+            for (int gx = 0; gx <= STEPS_X; gx++)
+            {
+                double x = (double) gx / STEPS_X;
+                double y = (double) gy / STEPS_Y;
+                Color color = colormap.getColor(x, y);
+                color.getRGBColorComponents(rgb);
+
+                int idx = gx + gy * COLUMNS;
+                soa[idx] = rgb[0];
+                soa[idx + VERTEX_COUNT] = rgb[1];
+                soa[idx + 2 * VERTEX_COUNT] = rgb[2];
+            }
+        }
+        return soa;
+    }
+
+    /**
+     * Moves and recolors all vertices, the polygons are not re-created. The bounds and barycentres
+     * of the polygons and the shape are updated afterwards. Must not be called while the shape is
+     * rendered, i.e. it should run on the rendering thread.
+     * @param positions the cube coordinates of all vertices in planar layout
+     * @param colors the RGB color components of all vertices in planar layout
+     */
+    void setVertices(double[] positions, double[] colors)
     {
-        this.colormap = colormap;
-        updateShape();
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            Coord3d c = vertices[i].xyz;
+            c.x = (float) positions[i];
+            c.y = (float) positions[i + VERTEX_COUNT];
+            c.z = (float) positions[i + 2 * VERTEX_COUNT];
+
+            org.jzy3d.colors.Color rgb = vertices[i].rgb;
+            rgb.r = (float) colors[i];
+            rgb.g = (float) colors[i + VERTEX_COUNT];
+            rgb.b = (float) colors[i + 2 * VERTEX_COUNT];
+        }
+
+        for (Polygon polygon : polygons)
+        {
+            polygon.updateBounds();
+        }
+        shape.updateBounds();
     }
 
     Shape getShape()
@@ -81,87 +133,39 @@ class ColormapShape
 
     private Shape createShape()
     {
-        List<Polygon> polygons = new ArrayList<Polygon>();
-        for (int sx = 0; sx < stepsX; sx++)
+        for (int f = 0; f < FACES.length; f += 4)
         {
-            for (int sy = 0; sy < stepsY; sy++)
+            Polygon polygon = new Polygon();
+            for (int k = 0; k < 4; k++)
             {
-                polygons.add(createPolygon(sx, sy));
+                polygon.add(vertices[FACES[f + k]]);
             }
+            polygons.add(polygon);
         }
         final Shape shp = new Shape(polygons);
 
-        ColorMapper colorMapper = new ColorMapper()
-        {
-            @Override
-            public org.jzy3d.colors.Color getColor(Coord3d c)
-            {
-                float rgb[] = cubeCoordinatesToRgbColorComponents.apply(new float[] { c.x, c.y, c.z });
-                return new org.jzy3d.colors.Color(rgb[0], rgb[1], rgb[2]);
-            }
-        };
-        shp.setColorMapper(colorMapper);
+        // no color mapper - the polygons use the precomputed vertex colors
         shp.setFaceDisplayed(true);
         shp.setWireframeDisplayed(true);
         shp.setWireframeColor(org.jzy3d.colors.Color.GRAY);
         return shp;
     }
 
-    private Polygon createPolygon(int sx, int sy)
-    {
-
-        Polygon polygon = new Polygon();
-        polygon.add(createVertex(sx, sy));
-        polygon.add(createVertex(sx, sy + 1));
-        polygon.add(createVertex(sx + 1, sy + 1));
-        polygon.add(createVertex(sx + 1, sy));
-        return polygon;
-    }
-
-    private Point createVertex(int gx, int gy)
-    {
-        float coordinates[] = getCubeCoordinatesForGridPoint(gx, gy);
-        Point vertex = new Point(new Coord3d(coordinates));
-        pointToGridCoordinates.put(vertex, new java.awt.Point(gx, gy));
-        return vertex;
-    }
-
-    private void updateShape()
+    private static int[] createFaces()
     {
-        List<AbstractDrawable> polygons = shape.getDrawables();
-        for (AbstractDrawable d : polygons)
+        int[] faces = new int[4 * STEPS_X * STEPS_Y];
+        int f = 0;
+        for (int sx = 0; sx < STEPS_X; sx++)
         {
-            if (d instanceof Polygon)
+            for (int sy = 0; sy < STEPS_Y; sy++)
             {
-                Polygon p = (Polygon) d;
-                for (int i = 0; i < p.size(); i++)
-                {
-                    Point vertex = p.get(i);
-                    Coord3d c = vertex.xyz;
-                    java.awt.Point gridCoordinates = pointToGridCoordinates
-                        .get(vertex);
-                    int gx = gridCoordinates.x;
-                    int gy = gridCoordinates.y;
-                    float coordinates[] = getCubeCoordinatesForGridPoint(gx, gy);
-
-                    // System.out.println("At "+gridCoordinates+" have "+Arrays.toString(coordinates));
-
-                    c.x = coordinates[0];
-                    c.y = coordinates[1];
-                    c.z = coordinates[2];
-                }
+                faces[f++] = sx + sy * COLUMNS;
+                faces[f++] = sx + (sy + 1) * COLUMNS;
+                faces[f++] = (sx + 1) + (sy + 1) * COLUMNS;
+                faces[f++] = (sx + 1) + sy * COLUMNS;
             }
         }
-    }
-
-    private float[] getCubeCoordinatesForGridPoint(int gx, int gy)
-    {
-        double x = (double) gx / stepsX;
-        double y = (double) gy / stepsY;
-        Color color = colormap.getColor(x, y);
-        float coordinates[] = colorToCubeCoordinates.apply(color);
-        return coordinates;
+        return faces;
     }
 
 }
-
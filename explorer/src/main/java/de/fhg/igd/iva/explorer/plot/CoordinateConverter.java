@@ -28,4 +28,50 @@ public interface CoordinateConverter
      */
     Function<float[], float[]> getCubeCoordinatesToRgbColorComponents();
 
+    /**
+     * Converts the RGB color components of a whole vertex buffer to cube coordinates in place.
+     * The buffer uses the planar layout of
+     * {@link de.fhg.igd.iva.colorspaces.AbstractColorSpace#fromRGB(double[], int)}.
+     * The default implementation applies {@link #getColorToCubeCoordinates()} to every vertex.
+     *
+     * @param soa the buffer (at least <code>3 * count</code> elements)
+     * @param count the number of vertices
+     */
+    default void rgbToCubeCoordinates(double[] soa, int count)
+    {
+        Function<Color, float[]> function = getColorToCubeCoordinates();
+        for (int i = 0; i < count; i++)
+        {
+            Color color = new Color((float) soa[i], (float) soa[i + count], (float) soa[i + 2 * count]);
+            float[] coords = function.apply(color);
+            soa[i] = coords[0];
+            soa[i + count] = coords[1];
+            soa[i + 2 * count] = coords[2];
+        }
+    }
+
+    /**
+     * Converts the cube coordinates of a whole vertex buffer to RGB color components in place.
+     * See {@link #rgbToCubeCoordinates(double[], int)} for the buffer layout.
+     * The default implementation applies {@link #getCubeCoordinatesToRgbColorComponents()} to every vertex.
+     *
+     * @param soa the buffer (at least <code>3 * count</code> elements)
+     * @param count the number of vertices
+     */
+    default void cubeCoordinatesToRgb(double[] soa, int count)
+    {
+        Function<float[], float[]> function = getCubeCoordinatesToRgbColorComponents();
+        float[] coords = new float[3];
+        for (int i = 0; i < count; i++)
+        {
+            coords[0] = (float) soa[i];
+            coords[1] = (float) soa[i + count];
+            coords[2] = (float) soa[i + 2 * count];
+            float[] rgb = function.apply(coords);
+            soa[i] = rgb[0];
+            soa[i + count] = rgb[1];
+            soa[i + 2 * count] = rgb[2];
+        }
+    }
+
 }
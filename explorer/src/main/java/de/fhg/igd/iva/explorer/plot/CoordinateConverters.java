@@ -41,7 +41,8 @@ public class CoordinateConverters
                 return s;
             }
         };
-        return create(colorToCubeCoordinates, cubeCoordinatesToRgbColorComponents);
+        BatchConversion identity = (soa, count) -> { /* the cube is the RGB cube */ };
+        return create(colorToCubeCoordinates, cubeCoordinatesToRgbColorComponents, identity, identity);
     }
 
 
@@ -73,7 +74,7 @@ public class CoordinateConverters
                 return new float[] { (float)rgb[0], (float)rgb[1], (float)rgb[2] };
             }
         };
-        return create(colorToCubeCoordinates, cubeCoordinatesToRgbColorComponents);
+        return create(colorToCubeCoordinates, cubeCoordinatesToRgbColorComponents, XYZ::rgb2xyz, XYZ::xyz2rgb);
     }
 
 
@@ -105,7 +106,7 @@ public class CoordinateConverters
                 return new float[] { (float)rgb[0], (float)rgb[1], (float)rgb[2] };
             }
         };
-        return create(colorToCubeCoordinates, cubeCoordinatesToRgbColorComponents);
+        return create(colorToCubeCoordinates, cubeCoordinatesToRgbColorComponents, CIELAB::rgb2lab, CIELAB::lab2rgb);
     }
 
     /**
@@ -158,7 +159,8 @@ public class CoordinateConverters
                 return c.getRGBColorComponents(null);
             }
         };
-        return create(colorToCubeCoordinates, cubeCoordinatesToRgbColorComponents);
+        return create(colorToCubeCoordinates, cubeCoordinatesToRgbColorComponents,
+            CoordinateConverters::rgbToHsbCube, CoordinateConverters::hsbCubeToRgb);
     }
 
 
@@ -202,6 +204,87 @@ public class CoordinateConverters
     }
 
     
+    /**
+     * Batch version of the color-to-cube function of {@link #createHsb()} that does not allocate per vertex
+     */
+    private static void rgbToHsbCube(double[] soa, int count)
+    {
+        float[] hsb = new float[3];
+        for (int i = 0; i < count; i++)
+        {
+            int r = (int)((float) soa[i] * 255);
+            int g = (int)((float) soa[i + count] * 255);
+            int b = (int)((float) soa[i + 2 * count] * 255);
+            Color.RGBtoHSB(r, g, b, hsb);
+
+            double h = hsb[0] * Math.PI * 2.0;
+            soa[i] = (float) (0.5 + hsb[1] * 0.5 * Math.cos(h));
+            soa[i + count] = (float) (0.5 + hsb[1] * 0.5 * Math.sin(h));
+            soa[i + 2 * count] = hsb[2];
+        }
+    }
+
+    /**
+     * The inverse of {@link #rgbToHsbCube(double[], int)}
+     */
+    private static void hsbCubeToRgb(double[] soa, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            double hx = (float) soa[i] - 0.5;
+            double hy = (float) soa[i + count] - 0.5;
+            double h = Math.atan2(hy, hx) / (Math.PI * 2.0);
+            double s = Math.sqrt(hx * hx + hy * hy) * 2;
+
+            int rgb = Color.HSBtoRGB((float)h, (float)s, (float) soa[i + 2 * count]);
+            soa[i] = ((rgb >> 16) & 0xFF) / 255f;
+            soa[i + count] = ((rgb >> 8) & 0xFF) / 255f;
+            soa[i + 2 * count] = (rgb & 0xFF) / 255f;
+        }
+    }
+
+    /**
+     * An in-place conversion of a planar vertex buffer
+     */
+    private interface BatchConversion
+    {
+        void convert(double[] soa, int count);
+    }
+
+    private static CoordinateConverter create(
+        final Function<Color, float[]> colorToCubeCoordinates,
+        final Function<float[], float[]> cubeCoordinatesToRgbColorComponents,
+        final BatchConversion rgbToCube,
+        final BatchConversion cubeToRgb)
+    {
+        return new CoordinateConverter()
+        {
+            @Override
+            public Function<Color, float[]> getColorToCubeCoordinates()
+            {
+                return colorToCubeCoordinates;
+            }
+
+            @Override
+            public Function<float[], float[]> getCubeCoordinatesToRgbColorComponents()
+            {
+                return cubeCoordinatesToRgbColorComponents;
+            }
+
+            @Override
+            public void rgbToCubeCoordinates(double[] soa, int count)
+            {
+                rgbToCube.convert(soa, count);
+            }
+
+            @Override
+            public void cubeCoordinatesToRgb(double[] soa, int count)
+            {
+                cubeToRgb.convert(soa, count);
+            }
+        };
+    }
+
     private static CoordinateConverter create(
         final Function<Color, float[]> colorToCubeCoordinates,
         final Function<float[], float[]> cubeCoordinatesToRgbColorComponents)
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fhg.igd.iva.explorer.tasks;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs the computations of a view in a shared worker pool and delivers the results
+ * on the event dispatch thread. Every view holds one instance and submits a new request
+ * whenever its input changes. Only the result of the latest request is delivered:
+ * submitting a request cancels the previous one, requests that were superseded before
+ * they started are skipped and results of superseded requests are dropped.
+ * <p>
+ * All methods must be called on the event dispatch thread.
+ * @param <T> the result type
+ * @author Martin Steiger
+ */
+public class ViewTask<T>
+{
+	/**
+	 * A computation that can check whether its request was superseded
+	 * @param <T> the result type
+	 */
+	public interface Computation<T>
+	{
+		/**
+		 * @param cancelled returns true once the request is superseded or cancelled - computations
+		 * should check it regularly and stop early. It can be called from any thread.
+		 * @return the result (ignored if cancelled)
+		 * @throws Exception if the result cannot be computed
+		 */
+		T compute(BooleanSupplier cancelled) throws Exception;
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(ViewTask.class);
+
+	private static final ExecutorService SHARED_POOL = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(),
+			new ThreadFactoryBuilder().setNameFormat("view-task-%d").setDaemon(true).build());
+
+	private final Executor executor;
+
+	private Request current;
+
+	/**
+	 * Uses the worker pool that is shared by all views
+	 */
+	public ViewTask()
+	{
+		this(SHARED_POOL);
+	}
+
+	/**
+	 * @param executor the executor that runs the computations
+	 */
+	public ViewTask(Executor executor)
+	{
+		this.executor = executor;
+	}
+
+	/**
+	 * Cancels the current request and starts a new one. Errors are logged.
+	 * @param computation the computation that runs in the background
+	 * @param onResult receives the result on the event dispatch thread, unless the request was superseded
+	 */
+	public void submit(Computation<? extends T> computation, Consumer<? super T> onResult)
+	{
+		submit(computation, onResult, e -> logger.error("Background computation failed", e));
+	}
+
+	/**
+	 * Cancels the current request and starts a new one
+	 * @param computation the computation that runs in the background
+	 * @param onResult receives the result on the event dispatch thread, unless the request was superseded
+	 * @param onError receives the error on the event dispatch thread, unless the request was superseded.
+	 * This includes {@link Error}s such as {@link OutOfMemoryError}, so a failed request never remains pending.
+	 */
+	public void submit(Computation<? extends T> computation, Consumer<? super T> onResult, Consumer<? super Throwable> onError)
+	{
+		cancel();
+
+		Request request = new Request();
+		current = request;
+		executor.execute(() -> run(request, computation, onResult, onError));
+	}
+
+	/**
+	 * Cancels the current request, if any. Its result will not be delivered.
+	 */
+	public void cancel()
+	{
+		if (current != null)
+		{
+			current.cancelled = true;
+			current = null;
+		}
+	}
+
+	/**
+	 * @return true if the latest request has not been delivered yet
+	 */
+	public boolean isPending()
+	{
+		return current != null;
+	}
+
+	private void run(Request request, Computation<? extends T> computation, Consumer<? super T> onResult, Consumer<? super Throwable> onError)
+	{
+		// coalesce rapid changes: skip requests that were superseded while waiting in the queue
+		if (request.cancelled)
+			return;
+
+		T result = null;
+		Throwable error = null;
+
+		try
+		{
+			result = computation.compute(request);
+		}
+		catch (Throwable e)
+		{
+			// errors must be delivered as well - otherwise the request would remain pending forever
+			error = e;
+		}
+
+		if (request.cancelled)
+			return;
+
+		final T finalResult = result;
+		final Throwable finalError = error;
+
+		SwingUtilities.invokeLater(() ->
+		{
+			// the request could have been superseded in the meantime
+			if (current != request)
+				return;
+
+			current = null;
+
+			if (finalError != null)
+			{
+				onError.accept(finalError);
+			}
+			else
+			{
+				onResult.accept(finalResult);
+			}
+		});
+	}
+
+	private static class Request implements BooleanSupplier
+	{
+		private volatile boolean cancelled;
+
+		@Override
+		public boolean getAsBoolean()
+		{
+			return cancelled;
+		}
+	}
+}
@@ -15,21 +15,17 @@
  */
 package latex;
 
-import java.awt.Color;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
-import javax.imageio.ImageIO;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STRawGroupDir;
 import org.stringtemplate.v4.misc.ErrorManager;
 
-import views.SimpleColormapView;
 import views.SimpleColormapView.ViewType;
 
 import com.google.common.collect.Lists;
@@ -55,13 +51,11 @@ public final class LatexTableDecomp
         templateDir.delimiterStartChar = '$';
         templateDir.delimiterStopChar = '$';
 
-        String imgFolderName = "images/gen";
+        ViewImageExporter exporter = new ViewImageExporter(outputFolder, "images/gen");
+        exporter.export(colormaps, Arrays.asList(ViewType.values()));
 
         List<LatexColormap> lcms = Lists.newArrayList();
 
-		File imageFolder = new File(outputFolder, imgFolderName);
-        imageFolder.mkdirs();
-        
         for (KnownColormap cm : colormaps)
         {
         	LatexColormap lcm = new LatexColormap(cm);
@@ -69,19 +63,8 @@ public final class LatexTableDecomp
 			
 			for (ViewType viewType : ViewType.values())
 			{
-	        	String fname = cm.getName() + "_" + viewType.toString();
-				File imgFile = new File(imageFolder, toFilename(fname));
-	        	
-				if (!imgFile.exists())
-				{
-					SimpleColormapView filtered = new SimpleColormapView(cm, viewType);
-					saveToFile(filtered, imgFile);
-				}
-
-	        	String relativePath = imgFolderName + "/" + imgFile.getName();
-				lcm.addImage(relativePath);
+				lcm.addImage(exporter.getRelativePath(cm, viewType));
 			} 
-			
         }
         
         ST st = templateDir.getInstanceOf("Table");
@@ -94,35 +77,4 @@ public final class LatexTableDecomp
         
         return texFile;
     }
-    
-	private static String toFilename(String name)
-	{
-		return name
-			.replaceAll("\\.", "") 
-			.replaceAll(":", "") 
-			.replaceAll("\\W", "_")	// NOT a number, letter or underscore 
-			+ ".png";
-	}
-
-	private static void saveToFile(SimpleColormapView filtered, File file) throws IOException
-    {
-    	int width = 128;
-    	int height = 128;
-		float fw = width - 1;		// width-1 -> 1.0
-		float fh = height - 1;		// height-1 -> 1.0
-		BufferedImage img = new BufferedImage(128, 128, BufferedImage.TYPE_INT_ARGB);
-    		
-		for (int y = 0; y < height; y++)
-		{
-			for (int x = 0; x < width; x++)
-			{
-				Color color = filtered.getColor(x / fw, y / fh);
-				int rgb = color.getRGB();
-				img.setRGB(x, y, rgb);
-			}
-		}
-		
-		ImageIO.write(img, "png", file);
-		logger.debug("Created image " + file);
-    }
 }
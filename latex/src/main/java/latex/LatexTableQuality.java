@@ -21,17 +21,22 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STRawGroupDir;
 import org.stringtemplate.v4.misc.ErrorManager;
 
-import views.SimpleColormapView;
+import progress.LoggingProgressListener;
+import progress.ProgressListener;
+import views.SimpleColormapView.ViewType;
 import algorithms.quality.AttentionQuality;
 import algorithms.quality.ColorAppearanceDivergence;
 import algorithms.quality.ColorDivergenceVariance;
@@ -40,6 +45,8 @@ import algorithms.quality.ColorDynamicDistWhite;
 import algorithms.quality.ColorExploitation;
 import algorithms.quality.ColormapQuality;
 import algorithms.quality.JndRegionSize;
+import algorithms.quality.QualityEvaluator;
+import algorithms.quality.QualityResultStore;
 import algorithms.sampling.CircularSampling;
 import algorithms.sampling.EvenDistributedDistancePoints;
 import algorithms.sampling.GridSampling;
@@ -48,6 +55,7 @@ import algorithms.sampling.SamplingStrategy;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
+import com.google.common.collect.Table;
 
 import de.fhg.igd.iva.colormaps.Colormap;
 import de.fhg.igd.iva.colormaps.KnownColormap;
@@ -58,6 +66,8 @@ import de.fhg.igd.iva.colormaps.KnownColormap;
  */
 public final class LatexTableQuality
 {
+	private static final Logger logger = LoggerFactory.getLogger(LatexTableQuality.class);
+
 	private LatexTableQuality()
 	{
 		// private
@@ -69,12 +79,15 @@ public final class LatexTableQuality
         templateDir.delimiterStartChar = '$';
         templateDir.delimiterStopChar = '$';
         
+        // the images are shared with the decomposition table
+        ViewImageExporter exporter = new ViewImageExporter(outputFolder, "images/gen");
+        exporter.export(colormaps, EnumSet.of(ViewType.REAL));
+
         Map<KnownColormap, MetricColormap> mcms = Maps.newLinkedHashMap();
 
         for (KnownColormap cm : colormaps)
         {
-        	String fname = cm.getName() + "_" + SimpleColormapView.ViewType.REAL.toString();
-            String relativePath = "images/gen/" + toFilename(fname);
+            String relativePath = exporter.getRelativePath(cm, ViewType.REAL);
 
         	MetricColormap mcm = new MetricColormap(cm, relativePath);
 			mcms.put(cm, mcm);
@@ -99,9 +112,14 @@ public final class LatexTableQuality
         measures.add(new ColorAppearanceDivergence(0.05, 0.95));
 //        measures.add(new ColorAppearanceDivergence(0, 1));
 
+        QualityEvaluator evaluator = new QualityEvaluator();
+        evaluator.setResultStore(QualityResultStore.getDefault());
+        ProgressListener progress = new LoggingProgressListener(logger, "Computing metrics");
+        Table<KnownColormap, ColormapQuality, Double> qualities = evaluator.evaluate(colormaps, measures, progress, null);
+
         for (ColormapQuality measure : measures)
         {
-        	Map<KnownColormap, Double> mapQualities = computeQuality(colormaps, measure);
+        	Map<KnownColormap, Double> mapQualities = qualities.column(measure);
         	Map<KnownColormap, Integer> mapPoints = computePoints(mapQualities);
         	Map<KnownColormap, Integer> mapRanks = computeRanks(mapQualities);
         	
@@ -184,18 +202,6 @@ public final class LatexTableQuality
 		return colors;
 	}
 	
-	private static Map<KnownColormap, Double> computeQuality(List<KnownColormap> colormaps, ColormapQuality measure)
-	{
-		Map<KnownColormap, Double> qualityMap = Maps.newHashMap();
-        for (KnownColormap cm : colormaps)
-        {
-        	double quality = measure.getQuality(cm);
-        	qualityMap.put(cm, Double.valueOf(quality));
-        }
-        
-        return qualityMap;
-	}
-	
 	private static Range<Double> getMinMax(Collection<Double> quals)
 	{
 		double min = Double.POSITIVE_INFINITY;
@@ -240,13 +246,4 @@ public final class LatexTableQuality
         
         return result;
 	}
-    
-	private static String toFilename(String name)
-	{
-		return name
-			.replaceAll("\\.", "") 
-			.replaceAll(":", "") 
-			.replaceAll("\\W", "_")	// NOT a number, letter or underscore 
-			+ ".png";
-	}
 }
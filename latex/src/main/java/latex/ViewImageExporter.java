@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package latex;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import views.ChannelDecomposition;
+import views.SimpleColormapView.ViewType;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import de.fhg.igd.iva.colormaps.KnownColormap;
+
+/**
+ * Writes images of colormap views as PNG files. Every colormap is evaluated only once,
+ * all views are derived from that grid by a single {@link ChannelDecomposition}. Colormaps are evaluated in parallel, while the images
+ * are encoded in a separate, bounded pool.
+ * @author Martin Steiger
+ */
+final class ViewImageExporter
+{
+	private static final Logger logger = LoggerFactory.getLogger(ViewImageExporter.class);
+
+	private static final int IMAGE_SIZE = 128;
+
+	/**
+	 * The maximum number of images that wait for encoding. If the queue is full,
+	 * the evaluating thread encodes the image itself.
+	 */
+	private static final int ENCODER_QUEUE_SIZE = 64;
+
+	private final File outputFolder;
+	private final String imageFolderName;
+
+	/**
+	 * @param outputFolder the output folder of the LaTeX file
+	 * @param imageFolderName the image folder, relative to the output folder
+	 */
+	ViewImageExporter(File outputFolder, String imageFolderName)
+	{
+		this.outputFolder = outputFolder;
+		this.imageFolderName = imageFolderName;
+	}
+
+	/**
+	 * @param cm the colormap
+	 * @param viewType the view type
+	 * @return the path of the image file, relative to the output folder
+	 */
+	String getRelativePath(KnownColormap cm, ViewType viewType)
+	{
+		return imageFolderName + "/" + toFilename(cm.getName() + "_" + viewType.toString());
+	}
+
+	/**
+	 * Creates all image files that do not exist yet
+	 * @param colormaps the colormaps
+	 * @param viewTypes the view types
+	 * @throws IOException if an image cannot be written
+	 */
+	void export(List<KnownColormap> colormaps, Collection<ViewType> viewTypes) throws IOException
+	{
+		new File(outputFolder, imageFolderName).mkdirs();
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		ExecutorService evaluators = Executors.newFixedThreadPool(threads,
+				new ThreadFactoryBuilder().setNameFormat("image-eval-%d").setDaemon(true).build());
+		ExecutorService encoders = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(ENCODER_QUEUE_SIZE),
+				new ThreadFactoryBuilder().setNameFormat("image-encode-%d").setDaemon(true).build(),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+
+		List<CompletableFuture<Void>> writes = Collections.synchronizedList(Lists.<CompletableFuture<Void>>newArrayList());
+
+		try
+		{
+			List<CompletableFuture<Void>> evaluations = Lists.newArrayList();
+			for (KnownColormap cm : colormaps)
+			{
+				evaluations.add(CompletableFuture.runAsync(() -> evaluate(cm, viewTypes, encoders, writes), evaluators));
+			}
+
+			// all writes are scheduled once the evaluations are complete
+			join(evaluations);
+			join(Lists.newArrayList(writes));
+		}
+		finally
+		{
+			evaluators.shutdownNow();
+			encoders.shutdownNow();
+		}
+	}
+
+	private void evaluate(KnownColormap cm, Collection<ViewType> viewTypes, ExecutorService encoders, List<CompletableFuture<Void>> writes)
+	{
+		List<ViewType> missing = Lists.newArrayList();
+		for (ViewType viewType : viewTypes)
+		{
+			if (!getFile(cm, viewType).exists())
+			{
+				missing.add(viewType);
+			}
+		}
+
+		if (missing.isEmpty())
+			return;
+
+		int[] argb = cm.getColorGrid(IMAGE_SIZE, IMAGE_SIZE, (int[]) null);
+		Map<ViewType, int[]> channels = new ChannelDecomposition(argb).getChannels(missing);
+
+		for (Map.Entry<ViewType, int[]> entry : channels.entrySet())
+		{
+			File file = getFile(cm, entry.getKey());
+			int[] pixels = entry.getValue();
+			writes.add(CompletableFuture.runAsync(() -> write(pixels, file), encoders));
+		}
+	}
+
+	private File getFile(KnownColormap cm, ViewType viewType)
+	{
+		return new File(outputFolder, getRelativePath(cm, viewType));
+	}
+
+	private static void write(int[] pixels, File file)
+	{
+		BufferedImage img = new BufferedImage(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+		int[] data = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+		System.arraycopy(pixels, 0, data, 0, pixels.length);
+
+		try
+		{
+			ImageIO.write(img, "png", file);
+			logger.debug("Created image " + file);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void join(List<CompletableFuture<Void>> futures) throws IOException
+	{
+		try
+		{
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+		}
+		catch (CompletionException e)
+		{
+			if (e.getCause() instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static String toFilename(String name)
+	{
+		return name
+			.replaceAll("\\.", "")
+			.replaceAll(":", "")
+			.replaceAll("\\W", "_")	// NOT a number, letter or underscore
+			+ ".png";
+	}
+}
@@ -17,16 +17,16 @@
 
 package algorithms;
 
-import java.awt.Color;
 import java.awt.color.ColorSpace;
 import java.awt.geom.Point2D;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
 import progress.ProgressListener;
 import algorithms.sampling.SamplingStrategy;
@@ -34,6 +34,7 @@ import algorithms.sampling.SamplingStrategy;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 
+import de.fhg.igd.iva.colormaps.CachedColormap;
 import de.fhg.igd.iva.colormaps.Colormap;
 import de.fhg.igd.pcolor.PColor;
 import de.fhg.igd.pcolor.colorspace.ViewingConditions;
@@ -49,25 +50,83 @@ public class JndRegionComputer
 	private static final ViewingConditions VIEW_ENV = ViewingConditions.sRGB_typical_envirnonment;
 	private static final ColorSpace COLOR_SPACE = ColorSpace.getInstance(ColorSpace.CS_sRGB);
 
+	/**
+	 * Relative enlargement of the index cells to compensate for rounding errors
+	 */
+	private static final double INDEX_MARGIN = 0.01;
+
+	/**
+	 * The number of samples that are converted in parallel before they are tested
+	 */
+	private static final int SAMPLE_BLOCK_SIZE = 1024;
+
 	private Map<Point2D, PColor> jndPoints = new MapMaker().concurrencyLevel(1).makeMap();
-	private Map<Point2D, List<Point2D>> jndRegions = new MapMaker().concurrencyLevel(1).makeMap();
+	private Map<Point2D, double[]> jndRegions = new MapMaker().concurrencyLevel(1).makeMap();
 
 	private final SamplingStrategy sampling;
+	private final SampleContext context;
 	private final Colormap colormap;
+	private final ForkJoinPool pool;
+
+	/**
+	 * The colormap if it has a companion grid of CAM02-UCS coordinates or <code>null</code>
+	 */
+	private final CachedColormap perceptualGrid;
 
 	private double jndThreshold = 3.0;
 	private int angleSteps = 128;
 	private double stepSize = 0.0005;
 
 	/**
+	 * True if the points/regions were computed completely with the current parameters
+	 */
+	private volatile boolean pointsComplete;
+	private volatile boolean regionsComplete;
+
+	/**
+	 * Parallel computations run in the {@link ForkJoinPool#commonPool() common pool}.
 	 * @param colormap the colormap to use
 	 * @param sampling the sampling strategy for finding the jnd points
-	 * @param jndThreshold the jnd threshold for the set of distinguishable points
 	 */
 	public JndRegionComputer(Colormap colormap, SamplingStrategy sampling)
 	{
-		this.colormap = colormap;
+		this(colormap, sampling, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param colormap the colormap to use
+	 * @param sampling the sampling strategy for finding the jnd points
+	 * @param pool the pool for the parallel computations
+	 */
+	public JndRegionComputer(Colormap colormap, SamplingStrategy sampling, ForkJoinPool pool)
+	{
+		this(new SampleContext(colormap), sampling, pool);
+	}
+
+	/**
+	 * Parallel computations run in the {@link ForkJoinPool#commonPool() common pool}.
+	 * @param context the sample context of the colormap to use
+	 * @param sampling the sampling strategy for finding the jnd points
+	 */
+	public JndRegionComputer(SampleContext context, SamplingStrategy sampling)
+	{
+		this(context, sampling, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param context the sample context of the colormap to use
+	 * @param sampling the sampling strategy for finding the jnd points
+	 * @param pool the pool for the parallel computations
+	 */
+	public JndRegionComputer(SampleContext context, SamplingStrategy sampling, ForkJoinPool pool)
+	{
+		this.context = context;
+		this.colormap = context.getColormap();
 		this.sampling = sampling;
+		this.pool = pool;
+
+		boolean hasGrid = colormap instanceof CachedColormap && ((CachedColormap) colormap).hasPerceptualGrid();
+		this.perceptualGrid = hasGrid ? (CachedColormap) colormap : null;
 	}
 
 	public void setJndThreshold(double jndThreshold)
@@ -77,114 +136,285 @@ public class JndRegionComputer
 
 		jndPoints.clear();
 		jndRegions.clear();
+		pointsComplete = false;
+		regionsComplete = false;
 
 		this.jndThreshold = jndThreshold;
 	}
 
+	/**
+	 * Finds the jnd points, unless they have already been computed completely. A cancelled computation
+	 * leaves the points found so far and starts over when it is called again.
+	 * Must not be called concurrently with any other computation or setter.
+	 * @param progress the progress listener
+	 */
 	public void computePoints(final ProgressListener progress)
 	{
-		if (!jndPoints.isEmpty())
+		if (pointsComplete)
 			return;
 
-		Deque<PColor> list = new LinkedList<PColor>();
+		jndPoints.clear();
+		jndRegions.clear();
+		regionsComplete = false;
+
+		double[] samples = sampling.getCoordinates();
+		int count = samples.length / 2;
+
+		// reuse the conversions of other metrics that share the sample context
+		PColor[] sharedColors = context.getPColorsIfPresent(sampling, COLOR_SPACE);
+		float[] sharedUcs = context.getUcsIfPresent(sampling, COLOR_SPACE);
+		boolean shared = sharedColors != null && sharedUcs != null;
+
+		PColor[] colors = shared ? sharedColors : new PColor[count];
+		float[] ucs = shared ? sharedUcs : new float[3 * count];
 
-		final Collection<Point2D> samples = sampling.getPoints();
+		// ColorTools.distance() is the euclidean distance in CAM02-UCS - the index only needs
+		// to return a superset of the accepted colors within jndThreshold, the exact test is done below
+		PerceptualGridIndex index = new PerceptualGridIndex(jndThreshold * (1 + INDEX_MARGIN));
+		List<PColor> accepted = Lists.newArrayList();
 
-		progress.start(samples.size());
-		for (Point2D pt : samples)
+		progress.start(count);
+		for (int block = 0; block < count; block += SAMPLE_BLOCK_SIZE)
 		{
-			Color color = colormap.getColor(pt.getX(), pt.getY());
-			PColor pcolor = PColor.create(COLOR_SPACE, color.getColorComponents(new float[3]));
+			int blockStart = block;
+			int blockEnd = Math.min(block + SAMPLE_BLOCK_SIZE, count);
 
-			if (testColorDistance(pcolor, list))
+			if (!shared)
 			{
-				jndPoints.put(pt, pcolor);
-				list.addFirst(pcolor);
+				// sample and convert a block of colors in parallel ahead of the (sequential) greedy selection
+				pool.submit(() -> IntStream.range(blockStart, blockEnd).parallel().forEach(i -> convert(samples, i, colors, ucs))).join();
 			}
 
-			progress.step();
-
-			if (progress.isCancelled())
-				break;
+			for (int i = blockStart; i < blockEnd; i++)
+			{
+				PColor pcolor = colors[i];
+				float j = ucs[3 * i + 0];
+				float a = ucs[3 * i + 1];
+				float b = ucs[3 * i + 2];
+
+				if (index.visitNeighbors(j, a, b, id -> testColorDistance(pcolor, accepted.get(id))))
+				{
+					jndPoints.put(new Point2D.Double(samples[2 * i], samples[2 * i + 1]), pcolor);
+					index.add(accepted.size(), j, a, b);
+					accepted.add(pcolor);
+				}
+
+				progress.step();
+
+				if (progress.isCancelled())
+				{
+					progress.finish();
+					return;
+				}
+			}
 		}
 		progress.finish();
-	}
+		pointsComplete = true;
 
-	private boolean testColorDistance(PColor pcolor, Collection<? extends PColor> others)
-	{
-		for (PColor expcolor : others)
+		if (!shared)
 		{
-			double dist = ColorTools.distance(pcolor, expcolor, VIEW_ENV);
-			if (dist < jndThreshold)
-			{
-				return false;
-			}
+			context.putConversions(sampling, COLOR_SPACE, colors, ucs);
 		}
+	}
+
+	private void convert(double[] samples, int idx, PColor[] colors, float[] ucs)
+	{
+		float[] rgb = colormap.getColorComponents(samples[2 * idx], samples[2 * idx + 1], new float[3]);
+		PColor pcolor = PColor.create(COLOR_SPACE, rgb);
 
-		return true;
+		colors[idx] = pcolor;
+		System.arraycopy(SampleContext.toUcs(pcolor), 0, ucs, 3 * idx, 3);
 	}
 
+	private boolean testColorDistance(PColor pcolor, PColor other)
+	{
+		double dist = ColorTools.distance(pcolor, other, VIEW_ENV);
+		return dist >= jndThreshold;
+	}
+
+	/**
+	 * Computes the regions of all jnd points in parallel. Points and rays are distributed
+	 * across the pool. The listener is notified once per completed point and a cancellation
+	 * stops all workers. Like {@link #computePoints(ProgressListener)}, a cancelled computation starts over.
+	 * @param listener the progress listener
+	 */
 	public void computeJndRegions(ProgressListener listener)
 	{
-		if (!jndRegions.isEmpty())
+		if (regionsComplete)
 			return;
 
-		int size = jndPoints.keySet().size();
+		jndRegions.clear();
+
+		final Point2D[] centers = jndPoints.keySet().toArray(new Point2D[0]);
+		final AtomicBoolean cancelled = new AtomicBoolean();
+
+		listener.start(centers.length);
 
-		listener.start(size);
-		for (Point2D pt : jndPoints.keySet())
+		pool.submit(() -> Arrays.stream(centers).parallel().forEach(pt ->
 		{
-			List<Point2D> pts = computeJndRegion(pt.getX(), pt.getY());
-			jndRegions.put(pt, pts);
-			listener.step();
+			if (cancelled.get())
+				return;
+
+			double[] coords = computeJndRegion(pt.getX(), pt.getY(), cancelled);
+			if (coords == null)
+				return;
+
+			jndRegions.put(pt, coords);
+
+			// the progress listeners are not thread-safe
+			synchronized (listener)
+			{
+				listener.step();
+
+				if (listener.isCancelled())
+					cancelled.set(true);
+			}
+		})).join();
 
-			if (listener.isCancelled())
-				break;
-		}
 		listener.finish();
+		regionsComplete = pointsComplete && !cancelled.get();
 	}
 
-	private List<Point2D> computeJndRegion(double mx, double my)
+	/**
+	 * @return the region polygon as interleaved coordinates or <code>null</code> if cancelled
+	 */
+	private double[] computeJndRegion(double mx, double my, AtomicBoolean cancelled)
 	{
-		Color color = colormap.getColor(mx, my);
-		PColor pcolor = PColor.create(COLOR_SPACE, color.getColorComponents(new float[3]));
+		DistanceToCenter center = createDistance(mx, my);
 
-		List<Point2D> pts = Lists.newArrayList();
+		double[] coords = new double[2 * angleSteps];
 
-		for (int i = 0; i < angleSteps; i++)
+		IntStream.range(0, angleSteps).parallel().forEach(i ->
 		{
+			if (cancelled.get())
+				return;
+
 			double dx = Math.cos(i * 2.0 * Math.PI / angleSteps);
 			double dy = Math.sin(i * 2.0 * Math.PI / angleSteps);
 
-			double jndDist = 0;
-			double mapDist = 0;
-			Point2D best = new Point2D.Double(mx, my);
+			double dist = findBoundary(center, mx, my, dx, dy);
+
+			coords[2 * i + 0] = clamp(mx + dx * dist);
+			coords[2 * i + 1] = clamp(my + dy * dist);
+		});
+
+		return cancelled.get() ? null : coords;
+	}
+
+	/**
+	 * Walks along the ray with exponentially increasing steps until the distance threshold
+	 * or the border is exceeded. The boundary is then located by bisection with a
+	 * precision of <code>stepSize</code>.
+	 * @return the largest distance along the ray that was found to be within the threshold
+	 */
+	private double findBoundary(DistanceToCenter center, double mx, double my, double dx, double dy)
+	{
+		double maxDist = Math.min(maxDistance(mx, dx), maxDistance(my, dy));
+		float[] tmp = new float[3];
+
+		double inside = 0;
+		double outside = Double.NaN;
+		double dist = stepSize;
 
-			while (true)
+		while (dist <= maxDist)
+		{
+			if (isWithinThreshold(center, mx + dx * dist, my + dy * dist, tmp))
+			{
+				inside = dist;
+				dist *= 2;
+			}
+			else
 			{
-				mapDist += stepSize;
+				outside = dist;
+				break;
+			}
+		}
 
-				double px = mx + dx * mapDist;
-				double py = my + dy * mapDist;
+		if (Double.isNaN(outside))
+		{
+			// the border was reached - test the border point itself
+			if (isWithinThreshold(center, mx + dx * maxDist, my + dy * maxDist, tmp))
+				return maxDist;
 
-				if (px < 0 || px > 1 || py < 0 || py > 1)
-					break;
+			outside = maxDist;
+		}
 
-				Color tcolor = colormap.getColor(px, py);
-				PColor ptcolor = PColor.create(COLOR_SPACE, tcolor.getColorComponents(new float[3]));
+		while (outside - inside > stepSize)
+		{
+			double mid = (inside + outside) * 0.5;
+			if (isWithinThreshold(center, mx + dx * mid, my + dy * mid, tmp))
+				inside = mid;
+			else
+				outside = mid;
+		}
 
-				jndDist = ColorTools.distance(pcolor, ptcolor, VIEW_ENV);
+		return inside;
+	}
 
-				if (jndDist < jndThreshold * 0.5)
-					best = new Point2D.Double(px, py);
-				else
-					break;
-			}
+	private boolean isWithinThreshold(DistanceToCenter center, double px, double py, float[] tmp)
+	{
+		double jndDist = center.distance(clamp(px), clamp(py), tmp);
+		return jndDist < jndThreshold * 0.5;
+	}
 
-			pts.add(best);
+	/**
+	 * Uses the companion grid of the colormap if available. Its interpolated coordinates approximate
+	 * the conversion of the interpolated colors, but no color has to be converted while tracing the region.
+	 * Otherwise, every color is converted and compared with {@link ColorTools#distance}.
+	 */
+	private DistanceToCenter createDistance(double mx, double my)
+	{
+		if (perceptualGrid != null)
+		{
+			float[] jab = perceptualGrid.getPerceptualComponents(mx, my, new float[3]);
+
+			// ColorTools.distance() is the euclidean distance in CAM02-UCS
+			return (px, py, tmp) ->
+			{
+				perceptualGrid.getPerceptualComponents(px, py, tmp);
+				double dj = tmp[0] - jab[0];
+				double da = tmp[1] - jab[1];
+				double db = tmp[2] - jab[2];
+				return Math.sqrt(dj * dj + da * da + db * db);
+			};
 		}
 
-		return pts;
+		PColor pcolor = PColor.create(COLOR_SPACE, colormap.getColorComponents(mx, my, new float[3]));
+		return (px, py, tmp) ->
+		{
+			colormap.getColorComponents(px, py, tmp);
+			return ColorTools.distance(pcolor, PColor.create(COLOR_SPACE, tmp), VIEW_ENV);
+		};
+	}
+
+	/**
+	 * The perceptual distance between a region center and other points
+	 */
+	private interface DistanceToCenter
+	{
+		/**
+		 * @param px the x coordinate in the range [0..1]
+		 * @param py the y coordinate in the range [0..1]
+		 * @param tmp a temporary array of 3 elements
+		 * @return the distance to the color at the center
+		 */
+		double distance(double px, double py, float[] tmp);
+	}
+
+	private static double maxDistance(double pos, double dir)
+	{
+		if (dir > 0)
+			return (1 - pos) / dir;
+
+		if (dir < 0)
+			return -pos / dir;
+
+		return Double.POSITIVE_INFINITY;
+	}
+
+	private static double clamp(double v)
+	{
+		return Math.max(0, Math.min(1, v));
 	}
 
 	/**
@@ -200,6 +430,25 @@ public class JndRegionComputer
 	 * @return a list of polygon corner points of the region or <code>null</code>
 	 */
 	public List<Point2D> getRegion(Point2D jndPt)
+	{
+		double[] coords = jndRegions.get(jndPt);
+		if (coords == null)
+			return null;
+
+		List<Point2D> pts = Lists.newArrayListWithCapacity(coords.length / 2);
+		for (int i = 0; i < coords.length; i += 2)
+		{
+			pts.add(new Point2D.Double(coords[i], coords[i + 1]));
+		}
+		return pts;
+	}
+
+	/**
+	 * @param jndPt the point of interest
+	 * @return the polygon corner points of the region as <code>[x0, y0, x1, y1, ..]</code> or <code>null</code>.
+	 * The array must not be modified.
+	 */
+	public double[] getRegionCoords(Point2D jndPt)
 	{
 		return jndRegions.get(jndPt);
 	}
@@ -223,7 +472,7 @@ public class JndRegionComputer
 
 	/**
 	 * @param angles the number of angles to test
-	 * @param stepSize the step size to find the threshold
+	 * @param stepSize the initial step size and the precision of the threshold search
 	 */
 	public void setRegionSampling(int angles, double stepSize)
 	{
@@ -231,6 +480,7 @@ public class JndRegionComputer
 			return;
 
 		jndRegions.clear();
+		regionsComplete = false;
 
 		this.angleSteps = angles;
 		this.stepSize = stepSize;
@@ -18,15 +18,10 @@ package algorithms;
 
 import java.awt.Color;
 import java.awt.geom.Point2D;
-import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
+import java.util.stream.IntStream;
 
-import org.apache.commons.math3.stat.descriptive.rank.Percentile;
-
-import algorithms.sampling.SamplingStrategy;
-
-import com.google.common.collect.Lists;
+import algorithms.sampling.PairSamplingStrategy;
 
 import de.fhg.igd.iva.colormaps.Colormap;
 import de.fhg.igd.pcolor.PColor;
@@ -36,6 +31,8 @@ import de.fhg.igd.pcolor.util.ColorTools;
 
 /**
  * Computes the median divergence of a color map and related quantiles.
+ * The ratios are computed in parallel, the quantiles are found by (exact) selection
+ * instead of sorting all ratios.
  *
  * @author Simon Thum
  */
@@ -43,33 +40,67 @@ public final class MedianDivergenceComputer {
 
 	private static final ViewingConditions comparisonVc = ViewingConditions.sRGB_typical_envirnonment;
 
-	private Colormap colormap;
+	private final PairSamplingStrategy pairs;
 
-	private List<Point2D> points;
+	private final PColor[] colors;
 
+	/**
+	 * The valid ratios, partially ordered by previous quantile queries
+	 */
 	private double[] ratios;
 
-	private MedianDivergenceComputer(Colormap colormap, List<Point2D> points) {
+	private MedianDivergenceComputer(PairSamplingStrategy pairs, PColor[] colors) {
 		super();
-		this.colormap = colormap;
-		this.points = points;
+		this.pairs = pairs;
+		this.colors = colors;
+	}
+
+	public static MedianDivergenceComputer fromSamplingStrategy(Colormap colormap, PairSamplingStrategy strategy) {
+		return fromSamplingStrategy(new SampleContext(colormap), strategy);
 	}
 
-	public static MedianDivergenceComputer fromSamplingStrategy(Colormap colormap, SamplingStrategy strategy) {
-		List<Point2D> points = Lists.newArrayList(strategy.getPoints());
-		MedianDivergenceComputer that = new MedianDivergenceComputer(colormap, points);
+	/**
+	 * @param context the sample context that provides the colors
+	 * @param strategy the sampling strategy that defines the point pairs
+	 * @return a new instance
+	 */
+	public static MedianDivergenceComputer fromSamplingStrategy(SampleContext context, PairSamplingStrategy strategy) {
+		PColor[] colors = context.getPColors(strategy, CS_sRGB.instance);
+		MedianDivergenceComputer that = new MedianDivergenceComputer(strategy, colors);
 		that.deriveMedianColormapToJNDRatio();
 		return that;
 	}
 
+	/**
+	 * @param colormap the colormap
+	 * @param points the point pairs as consecutive elements
+	 * @return a new instance
+	 */
 	public static MedianDivergenceComputer fromPoints(Colormap colormap, List<Point2D> points) {
-		MedianDivergenceComputer that = new MedianDivergenceComputer(colormap, points);
-		that.deriveMedianColormapToJNDRatio();
-		return that;
+		double[] coords = new double[2 * points.size()];
+		for (int i = 0; i < points.size(); i++) {
+			coords[2 * i + 0] = points.get(i).getX();
+			coords[2 * i + 1] = points.get(i).getY();
+		}
+		PairSamplingStrategy strategy = () -> coords;
+		return fromSamplingStrategy(colormap, strategy);
 	}
 
+	/**
+	 * @param p the quantile in [0..1]
+	 * @return the ratio at the quantile or NaN if there are no valid pairs
+	 */
 	public double getQuantile(double p) {
-		return ratios[(int) ((ratios.length-1) * p)];
+		return getQuantiles(p)[0];
+	}
+
+	/**
+	 * Computes several quantiles at once, which is faster than individual calls.
+	 * @param ps the quantiles in [0..1] in arbitrary order
+	 * @return the ratios at the quantiles (in the same order) or NaN if there are no valid pairs
+	 */
+	public synchronized double[] getQuantiles(double... ps) {
+		return QuantileSelection.quantiles(ratios, ps);
 	}
 
 	// TODO: move elsewhere
@@ -82,34 +113,38 @@ public final class MedianDivergenceComputer {
 		return ColorTools.distance(convert(c1), convert(c2), comparisonVc);
 	}
 
-	private void deriveMedianColormapToJNDRatio() {
-		int len = points.size()/2;
-		ratios = new double[len];
-		Iterator<Point2D> ptIt = points.iterator();
-
-		int i = 0;
-		while (i < len && ptIt.hasNext())
-		{
-			Point2D p1 = ptIt.next();
-			Point2D p2 = ptIt.next();
+	/**
+	 * @param rgb1 the sRGB components of the first color
+	 * @param rgb2 the sRGB components of the second color
+	 * @return the perceptual distance between both colors
+	 */
+	public static double colorDiff(float[] rgb1, float[] rgb2) {
+		PColor p1 = PColor.create(CS_sRGB.instance, rgb1);
+		PColor p2 = PColor.create(CS_sRGB.instance, rgb2);
+		return ColorTools.distance(p1, p2, comparisonVc);
+	}
 
-			double dist = p1.distance(p2);
+	private void deriveMedianColormapToJNDRatio() {
+		int len = pairs.getPairCount();
+		double[] all = new double[len];
 
-			Color colorA = colormap.getColor(p1.getX(), p1.getY());
-			Color colorB = colormap.getColor(p2.getX(), p2.getY());
+		IntStream.range(0, len).parallel().forEach(pair -> {
+			double dist = pairs.getDistance(pair);
 
 			// color distance
-			double cdist = colorDiff(colorA, colorB);
+			double cdist = ColorTools.distance(colors[2 * pair], colors[2 * pair + 1], comparisonVc);
 
 			// filter zero divisions, as long as the value distance is small
 			// DON'T protect colormaps that contain duplicate colors
-			if (cdist == 0 && dist < 0.05)
-				continue;
-			double ratio = cdist / dist;
-			ratios[i] = ratio;
-			i++;
-		}
-		Arrays.sort(ratios);
+			if (cdist == 0 && dist < 0.05) {
+				all[pair] = Double.NaN;
+			} else {
+				all[pair] = cdist / dist;
+			}
+		});
+
+		// keep only the valid ratios - the filtered pairs must not be counted
+		ratios = QuantileSelection.removeNaN(all);
 	}
 
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A uniform grid over 3D perceptual coordinates (e.g. CAM02-UCS J'a'b') that stores integer ids.
+ * The cell size equals the query radius, so all entries within that radius of a point
+ * are contained in the 27 cells around it.
+ * @author Martin Steiger
+ */
+class PerceptualGridIndex
+{
+	private static final int KEY_BITS = 21;
+	private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+	private final Map<Long, int[]> cells = new HashMap<>();
+	private final double cellSize;
+
+	/**
+	 * @param cellSize the edge length of a grid cell - must not be smaller than the query radius
+	 */
+	public PerceptualGridIndex(double cellSize)
+	{
+		Preconditions.checkArgument(cellSize > 0, "Cell size must be positive, but is %s", cellSize);
+
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * @param id the id to store
+	 * @param c0 the first coordinate
+	 * @param c1 the second coordinate
+	 * @param c2 the third coordinate
+	 */
+	public void add(int id, double c0, double c1, double c2)
+	{
+		long key = toKey(cell(c0), cell(c1), cell(c2));
+		int[] ids = cells.get(key);
+
+		if (ids == null)
+		{
+			ids = new int[] { 1, id };		// the first element is the count
+		}
+		else
+		{
+			if (ids[0] + 1 == ids.length)
+			{
+				ids = Arrays.copyOf(ids, ids.length * 2);
+			}
+			ids[++ids[0]] = id;
+		}
+
+		cells.put(key, ids);
+	}
+
+	/**
+	 * Calls the visitor for all ids in the cells around the given point until it returns <code>false</code>.
+	 * The visited set is a superset of all ids within <code>cellSize</code> of the point.
+	 * @param c0 the first coordinate
+	 * @param c1 the second coordinate
+	 * @param c2 the third coordinate
+	 * @param visitor the visitor
+	 * @return <code>false</code> if the visitor aborted the search, <code>true</code> otherwise
+	 */
+	public boolean visitNeighbors(double c0, double c1, double c2, IdVisitor visitor)
+	{
+		int x = cell(c0);
+		int y = cell(c1);
+		int z = cell(c2);
+
+		for (int dx = -1; dx <= 1; dx++)
+		{
+			for (int dy = -1; dy <= 1; dy++)
+			{
+				for (int dz = -1; dz <= 1; dz++)
+				{
+					int[] ids = cells.get(toKey(x + dx, y + dy, z + dz));
+					if (ids == null)
+						continue;
+
+					for (int i = 1; i <= ids[0]; i++)
+					{
+						if (!visitor.visit(ids[i]))
+							return false;
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private int cell(double v)
+	{
+		return (int) Math.floor(v / cellSize);
+	}
+
+	private static long toKey(int x, int y, int z)
+	{
+		return ((x & KEY_MASK) << (2 * KEY_BITS)) | ((y & KEY_MASK) << KEY_BITS) | (z & KEY_MASK);
+	}
+
+	/**
+	 * Receives the ids found by {@link PerceptualGridIndex#visitNeighbors}
+	 */
+	interface IdVisitor
+	{
+		/**
+		 * @param id the id of the entry
+		 * @return <code>true</code> to continue, <code>false</code> to stop
+		 */
+		boolean visit(int id);
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Finds several order statistics of an array at once (multi-quickselect). The array is partially
+ * reordered in place. This is exact and runs in O(n log k) expected time for k ranks instead of
+ * the O(n log n) of a full sort. Repeated calls on the same array become cheaper, since the
+ * partitions of earlier calls are preserved.
+ * @author Martin Steiger
+ */
+final class QuantileSelection
+{
+	private static final int INSERTION_SORT_LIMIT = 16;
+
+	private QuantileSelection()
+	{
+		// no instances
+	}
+
+	/**
+	 * Computes several (lower) quantiles at once. The quantile p is the value at rank
+	 * <code>(int) ((n - 1) * p)</code> of the sorted values.
+	 * @param values the values - reordered in place. Must not contain NaN.
+	 * @param ps the quantiles in [0..1] in arbitrary order
+	 * @return the values at the quantiles (in the same order) or NaN if there are no values
+	 */
+	static double[] quantiles(double[] values, double... ps)
+	{
+		double[] result = new double[ps.length];
+		if (values.length == 0)
+		{
+			Arrays.fill(result, Double.NaN);
+			return result;
+		}
+
+		int[] ranks = new int[ps.length];
+		for (int i = 0; i < ps.length; i++)
+		{
+			Preconditions.checkArgument(ps[i] >= 0 && ps[i] <= 1, "Quantile must be in [0..1], but is %s", ps[i]);
+			ranks[i] = (int) ((values.length - 1) * ps[i]);
+		}
+
+		select(values, IntStream.of(ranks).sorted().distinct().toArray());
+
+		for (int i = 0; i < ps.length; i++)
+		{
+			result[i] = values[ranks[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * @param values the values - the valid values are moved to the front, keeping their order
+	 * @return a copy of all values that are not NaN
+	 */
+	static double[] removeNaN(double[] values)
+	{
+		int count = 0;
+		for (int i = 0; i < values.length; i++)
+		{
+			if (!Double.isNaN(values[i]))
+			{
+				values[count++] = values[i];
+			}
+		}
+
+		return Arrays.copyOf(values, count);
+	}
+
+	/**
+	 * @param values the values - reordered in place. Must not contain NaN.
+	 * @param ranks the ranks in [0..values.length) in ascending order
+	 */
+	static void select(double[] values, int[] ranks)
+	{
+		select(values, 0, values.length - 1, ranks, 0, ranks.length - 1);
+	}
+
+	private static void select(double[] a, int lo, int hi, int[] ranks, int rlo, int rhi)
+	{
+		while (rlo <= rhi && lo < hi)
+		{
+			if (hi - lo < INSERTION_SORT_LIMIT)
+			{
+				Arrays.sort(a, lo, hi + 1);
+				return;
+			}
+
+			double pivot = medianOfThree(a[lo], a[(lo + hi) >>> 1], a[hi]);
+
+			// three-way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi] > pivot
+			int lt = lo;
+			int gt = hi;
+			int i = lo;
+			while (i <= gt)
+			{
+				if (a[i] < pivot)
+				{
+					swap(a, lt++, i++);
+				}
+				else if (a[i] > pivot)
+				{
+					swap(a, i, gt--);
+				}
+				else
+				{
+					i++;
+				}
+			}
+
+			// ranks in [lt, gt] are resolved
+			int left = rlo;
+			while (left <= rhi && ranks[left] < lt)
+				left++;
+			int right = left;
+			while (right <= rhi && ranks[right] <= gt)
+				right++;
+
+			// recurse into the part with fewer ranks, iterate over the other one
+			if (left - rlo < rhi - right + 1)
+			{
+				select(a, lo, lt - 1, ranks, rlo, left - 1);
+				lo = gt + 1;
+				rlo = right;
+			}
+			else
+			{
+				select(a, gt + 1, hi, ranks, right, rhi);
+				hi = lt - 1;
+				rhi = left - 1;
+			}
+		}
+	}
+
+	private static double medianOfThree(double a, double b, double c)
+	{
+		return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+	}
+
+	private static void swap(double[] a, int i, int j)
+	{
+		double tmp = a[i];
+		a[i] = a[j];
+		a[j] = tmp;
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms;
+
+import java.awt.Color;
+import java.awt.color.ColorSpace;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
+
+import algorithms.sampling.SamplingStrategy;
+import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.Colormap;
+import de.fhg.igd.iva.colormaps.PerceptualConversion;
+import de.fhg.igd.iva.colorspaces.CIELABLch;
+import de.fhg.igd.pcolor.CAMLch;
+import de.fhg.igd.pcolor.PColor;
+import de.fhg.igd.pcolor.colorspace.CS_CAMLch;
+import de.fhg.igd.pcolor.colorspace.ViewingConditions;
+import de.fhg.igd.pcolor.util.ColorTools;
+
+/**
+ * Evaluates a colormap at the points of {@link SamplingStrategy} instances and memoizes
+ * the colors and their perceptual conversions. Metrics that share a context and a sampling
+ * instance evaluate the colormap only once. Samplings are compared by identity.
+ * <p>
+ * This class is thread-safe. Concurrent requests for the same data wait for a single computation.
+ * @author Martin Steiger
+ */
+public class SampleContext
+{
+	private static final ViewingConditions VIEW_ENV = ViewingConditions.sRGB_typical_envirnonment;
+	private static final CS_CAMLch CAM_SPACE = new CS_CAMLch(VIEW_ENV, CS_CAMLch.JMh);
+	private static final ColorSpace SRGB_SPACE = ColorSpace.getInstance(ColorSpace.CS_sRGB);
+
+	/**
+	 * Converts sRGB to CAM02-UCS J'a'b', the space of {@link ColorTools#distance}, e.g. for
+	 * {@link CachedColormap#withPerceptualGrid(PerceptualConversion)}
+	 */
+	public static final PerceptualConversion CAM02_UCS = (rgb, target) ->
+			System.arraycopy(toUcs(PColor.create(SRGB_SPACE, rgb)), 0, target, 0, 3);
+
+	private final Colormap colormap;
+
+	private final ConcurrentMap<SamplingStrategy, float[]> components = new ConcurrentHashMap<>();
+	private final ConcurrentMap<SamplingStrategy, int[]> argbs = new ConcurrentHashMap<>();
+	private final ConcurrentMap<SamplingStrategy, double[]> lchs = new ConcurrentHashMap<>();
+	private final ConcurrentMap<List<Object>, PColor[]> pcolors = new ConcurrentHashMap<>();
+	private final ConcurrentMap<List<Object>, float[]> ucs = new ConcurrentHashMap<>();
+
+	/**
+	 * @param colormap the colormap to evaluate
+	 */
+	public SampleContext(Colormap colormap)
+	{
+		this.colormap = colormap;
+	}
+
+	/**
+	 * @return the colormap
+	 */
+	public Colormap getColormap()
+	{
+		return colormap;
+	}
+
+	/**
+	 * @param sampling the sampling strategy
+	 * @return the interleaved sRGB components as returned by
+	 * {@link Colormap#getColorComponents(double, double, float[])} (must not be modified)
+	 */
+	public float[] getComponents(SamplingStrategy sampling)
+	{
+		double[] coords = sampling.getCoordinates();
+
+		return components.computeIfAbsent(sampling, s ->
+		{
+			float[] rgb = new float[3 * (coords.length / 2)];
+			IntStream.range(0, coords.length / 2).parallel().forEach(i ->
+			{
+				float[] tmp = colormap.getColorComponents(coords[2 * i], coords[2 * i + 1], new float[3]);
+				System.arraycopy(tmp, 0, rgb, 3 * i, 3);
+			});
+			return rgb;
+		});
+	}
+
+	/**
+	 * @param sampling the sampling strategy
+	 * @return the packed ARGB values, identical to {@link Colormap#getColor(double, double)} (must not be modified)
+	 */
+	public int[] getARGB(SamplingStrategy sampling)
+	{
+		float[] rgb = getComponents(sampling);
+
+		return argbs.computeIfAbsent(sampling, s ->
+		{
+			int[] argb = new int[rgb.length / 3];
+			float[] tmp = new float[3];
+			for (int i = 0; i < argb.length; i++)
+			{
+				System.arraycopy(rgb, 3 * i, tmp, 0, 3);
+				argb[i] = Colormap.toARGB(tmp);
+			}
+			return argb;
+		});
+	}
+
+	/**
+	 * @param sampling the sampling strategy
+	 * @return the interleaved {@link CIELABLch} values of the (8-bit) colors (must not be modified)
+	 */
+	public double[] getLch(SamplingStrategy sampling)
+	{
+		int[] argb = getARGB(sampling);
+
+		return lchs.computeIfAbsent(sampling, s ->
+		{
+			CIELABLch lchSpace = new CIELABLch();
+			double[] lch = new double[3 * argb.length];
+			for (int i = 0; i < argb.length; i++)
+			{
+				double[] tmp = lchSpace.fromColor(new Color(argb[i]));
+				System.arraycopy(tmp, 0, lch, 3 * i, 3);
+			}
+			return lch;
+		});
+	}
+
+	/**
+	 * @param sampling the sampling strategy
+	 * @param space the color space of the components
+	 * @return the colors as {@link PColor} instances in the given color space (must not be modified)
+	 */
+	public PColor[] getPColors(SamplingStrategy sampling, ColorSpace space)
+	{
+		float[] rgb = getComponents(sampling);
+
+		return pcolors.computeIfAbsent(Arrays.asList(sampling, space), key ->
+		{
+			PColor[] colors = new PColor[rgb.length / 3];
+			IntStream.range(0, colors.length).parallel().forEach(i ->
+			{
+				float[] tmp = Arrays.copyOfRange(rgb, 3 * i, 3 * i + 3);
+				colors[i] = PColor.create(space, tmp);
+			});
+			return colors;
+		});
+	}
+
+	/**
+	 * @param sampling the sampling strategy
+	 * @param space the color space of the components
+	 * @return the interleaved CAM02-UCS J'a'b' coordinates of {@link #getPColors(SamplingStrategy, ColorSpace)}
+	 * (must not be modified)
+	 */
+	public float[] getUcs(SamplingStrategy sampling, ColorSpace space)
+	{
+		PColor[] colors = getPColors(sampling, space);
+
+		return ucs.computeIfAbsent(Arrays.asList(sampling, space), key ->
+		{
+			float[] jab = new float[3 * colors.length];
+			IntStream.range(0, colors.length).parallel().forEach(i ->
+			{
+				float[] tmp = toUcs(colors[i]);
+				System.arraycopy(tmp, 0, jab, 3 * i, 3);
+			});
+			return jab;
+		});
+	}
+
+	/**
+	 * @param sampling the sampling strategy
+	 * @param space the color space of the components
+	 * @return the result of {@link #getPColors(SamplingStrategy, ColorSpace)} or <code>null</code> if it was not computed (yet)
+	 */
+	PColor[] getPColorsIfPresent(SamplingStrategy sampling, ColorSpace space)
+	{
+		return pcolors.get(Arrays.asList(sampling, space));
+	}
+
+	/**
+	 * @param sampling the sampling strategy
+	 * @param space the color space of the components
+	 * @return the result of {@link #getUcs(SamplingStrategy, ColorSpace)} or <code>null</code> if it was not computed (yet)
+	 */
+	float[] getUcsIfPresent(SamplingStrategy sampling, ColorSpace space)
+	{
+		return ucs.get(Arrays.asList(sampling, space));
+	}
+
+	/**
+	 * Memoizes conversions that were computed elsewhere, e.g. in cancellable blocks.
+	 * Existing entries are not replaced.
+	 * @param sampling the sampling strategy
+	 * @param space the color space of the components
+	 * @param colors the complete result of {@link #getPColors(SamplingStrategy, ColorSpace)}
+	 * @param jab the complete result of {@link #getUcs(SamplingStrategy, ColorSpace)}
+	 */
+	void putConversions(SamplingStrategy sampling, ColorSpace space, PColor[] colors, float[] jab)
+	{
+		List<Object> key = Arrays.asList(sampling, space);
+		pcolors.putIfAbsent(key, colors);
+		ucs.putIfAbsent(key, jab);
+	}
+
+	/**
+	 * @param color the color
+	 * @return the CAM02-UCS J'a'b' coordinates as used by {@link #getUcs(SamplingStrategy, ColorSpace)}
+	 */
+	static float[] toUcs(PColor color)
+	{
+		return ColorTools.toUCS_Jab((CAMLch) PColor.convert(color, CAM_SPACE));
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms;
+
+/**
+ * Accumulates count, mean and variance of a sequence of values in constant memory (Welford).
+ * Partial results, e.g. of different threads, can be merged (Chan et al.). Can be used
+ * as mutable container in parallel streams:
+ * <pre>
+ * IntStream.range(0, n).parallel().collect(StreamingMoments::new, (m, i) -&gt; m.add(values[i]), StreamingMoments::combine)
+ * </pre>
+ * This class is not thread-safe.
+ * @author Martin Steiger
+ */
+public final class StreamingMoments
+{
+	private long n;
+	private double mean;
+	private double m2;
+
+	/**
+	 * @param value the value to add
+	 */
+	public void add(double value)
+	{
+		n++;
+		double delta = value - mean;
+		mean += delta / n;
+		m2 += delta * (value - mean);
+	}
+
+	/**
+	 * Adds all values of another instance to this one
+	 * @param other the other instance (remains unchanged)
+	 */
+	public void combine(StreamingMoments other)
+	{
+		if (other.n == 0)
+			return;
+
+		if (n == 0)
+		{
+			n = other.n;
+			mean = other.mean;
+			m2 = other.m2;
+			return;
+		}
+
+		long total = n + other.n;
+		double delta = other.mean - mean;
+		mean += delta * other.n / total;
+		m2 += other.m2 + delta * delta * n * other.n / total;
+		n = total;
+	}
+
+	/**
+	 * @return the number of values
+	 */
+	public long getN()
+	{
+		return n;
+	}
+
+	/**
+	 * @return the arithmetic mean or NaN if empty
+	 */
+	public double getMean()
+	{
+		return (n == 0) ? Double.NaN : mean;
+	}
+
+	/**
+	 * @return the (bias-corrected) sample variance, NaN if empty and 0 for a single value
+	 */
+	public double getVariance()
+	{
+		if (n == 0)
+			return Double.NaN;
+
+		if (n == 1)
+			return 0;
+
+		return m2 / (n - 1);
+	}
+
+	/**
+	 * @return the square root of {@link #getVariance()}
+	 */
+	public double getStandardDeviation()
+	{
+		return Math.sqrt(getVariance());
+	}
+}
@@ -17,14 +17,12 @@
 
 package algorithms.quality;
 
-import java.awt.Color;
-import java.awt.geom.Point2D;
-
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import java.util.stream.IntStream;
 
+import algorithms.SampleContext;
+import algorithms.StreamingMoments;
 import algorithms.sampling.SamplingStrategy;
 import de.fhg.igd.iva.colormaps.Colormap;
-import de.fhg.igd.iva.colorspaces.CIELABLch;
 
 /**
  * Computes the variance in attention steering
@@ -44,20 +42,24 @@ public class AttentionQuality implements ColormapQuality
 	
 	@Override
 	public double getQuality(Colormap colormap)
+	{
+		return getQuality(new SampleContext(colormap));
+	}
+
+	@Override
+	public double getQuality(SampleContext context)
 	{
 		// max L + max c (which is the same as a or b)
 		double normFac = Math.sqrt(100*100 + 150*150);
 
-		DescriptiveStatistics stats = new DescriptiveStatistics();
-		
-		for (Point2D pt : sampling.getPoints())
+		double[] lch = context.getLch(sampling);
+		StreamingMoments stats = IntStream.range(0, lch.length / 3).parallel().collect(StreamingMoments::new, (m, idx) ->
 		{
-			Color color = colormap.getColor(pt.getX(), pt.getY());
-			double[] lch = new CIELABLch().fromColor(color);
-			double attention = Math.sqrt(lch[0]*lch[0]+lch[1]*lch[1]) / normFac;
+			int i = 3 * idx;
+			double attention = Math.sqrt(lch[i]*lch[i]+lch[i+1]*lch[i+1]) / normFac;
 			
-			stats.addValue(attention);
-		}
+			m.add(attention);
+		}, StreamingMoments::combine);
 		
 		return stats.getStandardDeviation() * 100d;
 	}
@@ -79,4 +81,10 @@ public class AttentionQuality implements ColormapQuality
 	{
 		return "The standard deviation of the attention steering (Lightness and Chroma) variable";
 	}
+
+	@Override
+	public String getConfiguration()
+	{
+		return getClass().getName() + "[sampling=" + sampling.getFingerprint() + "]";
+	}
 }
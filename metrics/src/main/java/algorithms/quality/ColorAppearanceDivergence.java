@@ -19,8 +19,9 @@ package algorithms.quality;
 import java.util.Random;
 
 import algorithms.MedianDivergenceComputer;
+import algorithms.SampleContext;
 import algorithms.sampling.EvenDistributedDistancePoints;
-import algorithms.sampling.SamplingStrategy;
+import algorithms.sampling.PairSamplingStrategy;
 import de.fhg.igd.iva.colormaps.Colormap;
 
 /**
@@ -32,7 +33,7 @@ public class ColorAppearanceDivergence implements ColormapQuality {
 	
 	private double _lower, _upper;
 	
-	private final SamplingStrategy _samplingStrategy;
+	private final PairSamplingStrategy _samplingStrategy;
 	
 	/**
 	 * @param lower lower quantile
@@ -43,7 +44,7 @@ public class ColorAppearanceDivergence implements ColormapQuality {
 	}
 
 	public ColorAppearanceDivergence(double _lower, double _upper,
-			SamplingStrategy _samplingStrategy) {
+			PairSamplingStrategy _samplingStrategy) {
 		this._lower = _lower;
 		this._upper = _upper;
 		this._samplingStrategy = _samplingStrategy;
@@ -51,8 +52,14 @@ public class ColorAppearanceDivergence implements ColormapQuality {
 
 	@Override
 	public double getQuality(Colormap colormap2d) {
-		MedianDivergenceComputer comp = MedianDivergenceComputer.fromSamplingStrategy(colormap2d, _samplingStrategy);
-		return comp.getQuantile(_upper) / comp.getQuantile(_lower);
+		return getQuality(new SampleContext(colormap2d));
+	}
+
+	@Override
+	public double getQuality(SampleContext context) {
+		MedianDivergenceComputer comp = MedianDivergenceComputer.fromSamplingStrategy(context, _samplingStrategy);
+		double[] quantiles = comp.getQuantiles(_upper, _lower);
+		return quantiles[0] / quantiles[1];
 	}
 	
 	@Override
@@ -72,4 +79,8 @@ public class ColorAppearanceDivergence implements ColormapQuality {
 		return "The color appearance to value divergence between the " + _upper + " and " + _lower + " quantiles";
 	}
 
+	@Override
+	public String getConfiguration() {
+		return getClass().getName() + "[sampling=" + _samplingStrategy.getFingerprint() + ", lower=" + _lower + ", upper=" + _upper + "]";
+	}
 }
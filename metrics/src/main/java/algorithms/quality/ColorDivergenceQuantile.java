@@ -20,7 +20,9 @@ import java.util.Locale;
 import java.util.Random;
 
 import algorithms.MedianDivergenceComputer;
+import algorithms.SampleContext;
 import algorithms.sampling.EvenDistributedDistancePoints;
+import algorithms.sampling.PairSamplingStrategy;
 import de.fhg.igd.iva.colormaps.Colormap;
 
 /**
@@ -36,6 +38,8 @@ public class ColorDivergenceQuantile implements ColormapQuality {
 	
 	double quantile;
 	
+	private final PairSamplingStrategy sampling = new EvenDistributedDistancePoints(new Random(123), 10000);
+
 	public ColorDivergenceQuantile(double quantile) {
 		super();
 		this.quantile = quantile;
@@ -49,7 +53,12 @@ public class ColorDivergenceQuantile implements ColormapQuality {
 
 	@Override
 	public double getQuality(Colormap colormap2d) {
-		MedianDivergenceComputer comp = MedianDivergenceComputer.fromSamplingStrategy(colormap2d, new EvenDistributedDistancePoints(new Random(123), 10000));
+		return getQuality(new SampleContext(colormap2d));
+	}
+
+	@Override
+	public double getQuality(SampleContext context) {
+		MedianDivergenceComputer comp = MedianDivergenceComputer.fromSamplingStrategy(context, sampling);
 		return comp.getQuantile(quantile);
 	}
 	
@@ -69,4 +78,8 @@ public class ColorDivergenceQuantile implements ColormapQuality {
 		return "The " + quantileName() + " divergence ratio between map distance and color distance";
 	}
 
+	@Override
+	public String getConfiguration() {
+		return getClass().getName() + "[quantile=" + quantile + ", sampling=" + sampling.getFingerprint() + "]";
+	}
 }
@@ -16,15 +16,16 @@
 
 package algorithms.quality;
 
-import java.awt.Color;
-import java.awt.geom.Point2D;
-import java.util.Iterator;
+import java.util.stream.IntStream;
 
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
-
-import algorithms.MedianDivergenceComputer;
-import algorithms.sampling.SamplingStrategy;
+import algorithms.SampleContext;
+import algorithms.StreamingMoments;
+import algorithms.sampling.PairSamplingStrategy;
 import de.fhg.igd.iva.colormaps.Colormap;
+import de.fhg.igd.pcolor.PColor;
+import de.fhg.igd.pcolor.colorspace.CS_sRGB;
+import de.fhg.igd.pcolor.colorspace.ViewingConditions;
+import de.fhg.igd.pcolor.util.ColorTools;
 
 /**
  * Computes the variance of the color distance/map distance ratio.
@@ -32,9 +33,11 @@ import de.fhg.igd.iva.colormaps.Colormap;
  */
 public final class ColorDivergenceVariance implements ColormapQuality
 {
-	private final SamplingStrategy strategy;
+	private static final ViewingConditions VIEW_ENV = ViewingConditions.sRGB_typical_envirnonment;
+
+	private final PairSamplingStrategy strategy;
 
-	public ColorDivergenceVariance(SamplingStrategy strategy)
+	public ColorDivergenceVariance(PairSamplingStrategy strategy)
 	{
 		this.strategy = strategy;
 	}
@@ -42,30 +45,25 @@ public final class ColorDivergenceVariance implements ColormapQuality
 	@Override
 	public double getQuality(Colormap colormap)
 	{
-		DescriptiveStatistics stats = new DescriptiveStatistics();
-		Iterator<Point2D> ptIt = strategy.getPoints().iterator();
-
-		while (ptIt.hasNext())
-		{
-			Point2D p1 = ptIt.next();
-
-			if (!ptIt.hasNext())
-				break;
-
-			Point2D p2 = ptIt.next();
+		return getQuality(new SampleContext(colormap));
+	}
 
-			double dist = p1.distance(p2);
+	@Override
+	public double getQuality(SampleContext context)
+	{
+		PColor[] colors = context.getPColors(strategy, CS_sRGB.instance);
 
-			Color colorA = colormap.getColor(p1.getX(), p1.getY());
-			Color colorB = colormap.getColor(p2.getX(), p2.getY());
+		StreamingMoments stats = IntStream.range(0, strategy.getPairCount()).parallel().collect(StreamingMoments::new, (m, pair) ->
+		{
+			double dist = strategy.getDistance(pair);
 
 			// roughly 0-100
-			double cdist = MedianDivergenceComputer.colorDiff(colorA, colorB);
+			double cdist = ColorTools.distance(colors[2 * pair], colors[2 * pair + 1], VIEW_ENV);
 
 			double ratio = cdist / dist;
 
-			stats.addValue(ratio);
-		}
+			m.add(ratio);
+		}, StreamingMoments::combine);
 
 		return stats.getStandardDeviation();
 	}
@@ -87,4 +85,10 @@ public final class ColorDivergenceVariance implements ColormapQuality
 	{
 		return "The standard deviation of the color distance/map distance ratio";
 	}
+
+	@Override
+	public String getConfiguration()
+	{
+		return getClass().getName() + "[sampling=" + strategy.getFingerprint() + "]";
+	}
 }
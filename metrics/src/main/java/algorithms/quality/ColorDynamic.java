@@ -17,15 +17,12 @@
 
 package algorithms.quality;
 
-import java.awt.Color;
 import java.awt.color.ColorSpace;
-import java.awt.geom.Point2D;
+import java.util.Arrays;
 import java.util.List;
 
+import algorithms.SampleContext;
 import algorithms.sampling.SamplingStrategy;
-
-import com.google.common.collect.Lists;
-
 import de.fhg.igd.iva.colormaps.Colormap;
 import de.fhg.igd.pcolor.PColor;
 
@@ -50,16 +47,22 @@ public abstract class ColorDynamic implements ColormapQuality
 	@Override
 	public double getQuality(Colormap colormap)
 	{
-		List<PColor> colors = Lists.newArrayList();
-		for (Point2D pt : sampling.getPoints())
-		{
-			Color color = colormap.getColor(pt.getX(), pt.getY());
-			PColor pcolor = PColor.create(COLOR_SPACE, color.getColorComponents(new float[3]));
-			colors.add(pcolor);
-		}
-		
+		return getQuality(new SampleContext(colormap));
+	}
+
+	@Override
+	public double getQuality(SampleContext context)
+	{
+		List<PColor> colors = Arrays.asList(context.getPColors(sampling, COLOR_SPACE));
+
 		return getResult(colors);
 	}
 
 	protected abstract double getResult(List<PColor> colors);
+
+	@Override
+	public String getConfiguration()
+	{
+		return getClass().getName() + "[sampling=" + sampling.getFingerprint() + "]";
+	}
 }
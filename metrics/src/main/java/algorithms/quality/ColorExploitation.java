@@ -22,6 +22,7 @@ import org.slf4j.LoggerFactory;
 
 import progress.LoggingProgressListener;
 import algorithms.JndRegionComputer;
+import algorithms.SampleContext;
 import algorithms.sampling.SamplingStrategy;
 import de.fhg.igd.iva.colormaps.Colormap;
 
@@ -45,7 +46,13 @@ public class ColorExploitation implements ColormapQuality
 	@Override
 	public double getQuality(Colormap colormap2d)
 	{
-		JndRegionComputer computer = new JndRegionComputer(colormap2d, sampling);
+		return getQuality(new SampleContext(colormap2d));
+	}
+
+	@Override
+	public double getQuality(SampleContext context)
+	{
+		JndRegionComputer computer = new JndRegionComputer(context, sampling);
 		computer.setJndThreshold(jndThreshold);
 
 		computer.computePoints(new LoggingProgressListener(logger, "Sampling"));
@@ -72,4 +79,9 @@ public class ColorExploitation implements ColormapQuality
 		return "The number of colors with a pair-wise distance of at least " + jndThreshold + " jnd distance";
 	}
 
+	@Override
+	public String getConfiguration()
+	{
+		return getClass().getName() + "[sampling=" + sampling.getFingerprint() + ", jndThreshold=" + jndThreshold + "]";
+	}
 }
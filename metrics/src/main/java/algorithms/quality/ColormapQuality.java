@@ -16,6 +16,7 @@
 
 package algorithms.quality;
 
+import algorithms.SampleContext;
 import de.fhg.igd.iva.colormaps.Colormap;
 
 /**
@@ -30,6 +31,17 @@ public interface ColormapQuality
 	 */
 	double getQuality(Colormap colormap2d);
 
+	/**
+	 * Computes the same value as {@link #getQuality(Colormap)}, but draws sampled colors from
+	 * the given context so that metrics can share them. The default implementation ignores the context.
+	 * @param context the sample context of the colormap
+	 * @return the quality
+	 */
+	default double getQuality(SampleContext context)
+	{
+		return getQuality(context.getColormap());
+	}
+
 	/**
 	 * @return true if higher quality score is "better", false if "lower" quality score is better
 	 */
@@ -44,4 +56,14 @@ public interface ColormapQuality
 	 * @return a proper description of what it does
 	 */
 	String getDescription();
+
+	/**
+	 * Identifies the metric and all parameters that affect the result, e.g. for caching.
+	 * The default implementation is only suitable for metrics without parameters.
+	 * @return the configuration string
+	 */
+	default String getConfiguration()
+	{
+		return getClass().getName();
+	}
 }
@@ -17,15 +17,13 @@
 
 package algorithms.quality;
 
-import java.awt.geom.Point2D;
-import java.util.List;
-
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import progress.LoggingProgressListener;
 import algorithms.JndRegionComputer;
+import algorithms.SampleContext;
+import algorithms.StreamingMoments;
 import algorithms.sampling.SamplingStrategy;
 import de.fhg.igd.iva.colormaps.Colormap;
 
@@ -50,21 +48,25 @@ public class JndRegionSize implements ColormapQuality
 	@Override
 	public double getQuality(Colormap colormap)
 	{
-		JndRegionComputer computer = new JndRegionComputer(colormap, sampling);
+		return getQuality(new SampleContext(colormap));
+	}
+
+	@Override
+	public double getQuality(SampleContext context)
+	{
+		JndRegionComputer computer = new JndRegionComputer(context, sampling);
 		computer.setJndThreshold(3.0);
 
 		computer.computePoints(new LoggingProgressListener(logger, "Sampling"));
 		computer.computeJndRegions(new LoggingProgressListener(logger, "Computing jnd regions"));
 
-		DescriptiveStatistics stats = new DescriptiveStatistics();
-
-		for (Point2D center : computer.getPoints())
+		StreamingMoments stats = computer.getPoints().parallelStream().collect(StreamingMoments::new, (m, center) ->
 		{
-			List<Point2D> poly = computer.getRegion(center);
-			double area = computeArea(poly, center);
+			double[] poly = computer.getRegionCoords(center);
+			double area = computeArea(poly);
 
-	        stats.addValue(area);
-		}
+	        m.add(area);
+		}, StreamingMoments::combine);
 
 		// TODO: find a better scaling factor
 		return stats.getStandardDeviation() * 10000.d;
@@ -76,15 +78,15 @@ public class JndRegionSize implements ColormapQuality
 		return false;
 	}
 
-	private double computeArea(List<Point2D> poly, Point2D center)
+	private double computeArea(double[] poly)
 	{
+		int count = poly.length / 2;
 		double sum = 0;
-		for (int i = 0; i < poly.size(); i++)
+		for (int i = 0; i < count; i++)
 		{
-		    Point2D p0 = poly.get(i);
-		    Point2D p1 = poly.get((i + 1) % poly.size());
+			int j = (i + 1) % count;
 
-			sum = sum + p0.getX() * p1.getY() - p0.getY() * p1.getX();
+			sum = sum + poly[2 * i] * poly[2 * j + 1] - poly[2 * i + 1] * poly[2 * j];
 		}
 
 		double area = Math.abs(sum / 2);
@@ -102,4 +104,10 @@ public class JndRegionSize implements ColormapQuality
 	{
 		return "The standard deviation of the JND region size";
 	}
+
+	@Override
+	public String getConfiguration()
+	{
+		return getClass().getName() + "[sampling=" + sampling.getFingerprint() + "]";
+	}
 }
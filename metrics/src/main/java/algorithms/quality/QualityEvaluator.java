@@ -0,0 +1,293 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms.quality;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import progress.ProgressListener;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Table;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import algorithms.SampleContext;
+import de.fhg.igd.iva.colormaps.Colormap;
+
+/**
+ * Evaluates a set of {@link ColormapQuality} metrics for a set of colormaps. All cells of the
+ * (colormap, metric) matrix are computed concurrently on a bounded thread pool.
+ * Cells that fail or exceed the timeout are reported as {@link Double#NaN}, see {@link ResultListener#onFailure}
+ * to tell them apart from undefined results. All metrics
+ * of a colormap share a {@link SampleContext}.
+ * @author Martin Steiger
+ */
+public class QualityEvaluator
+{
+	private static final Logger logger = LoggerFactory.getLogger(QualityEvaluator.class);
+
+	private final int threads;
+	private final long timeout;
+	private final TimeUnit timeUnit;
+
+	private QualityResultStore resultStore;
+
+	/**
+	 * Uses one thread per available processor and no timeout
+	 */
+	public QualityEvaluator()
+	{
+		this(Runtime.getRuntime().availableProcessors(), 0, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * @param threads the maximum number of cells that are computed concurrently
+	 * @param timeout the maximum computation time per cell or 0 for no limit. The computation of a
+	 * timed-out cell is not interrupted, but its result is discarded.
+	 * @param timeUnit the unit of the timeout
+	 */
+	public QualityEvaluator(int threads, long timeout, TimeUnit timeUnit)
+	{
+		Preconditions.checkArgument(threads > 0, "Number of threads must be positive, but is %s", threads);
+		Preconditions.checkArgument(timeout >= 0, "Timeout must not be negative, but is %s", timeout);
+
+		this.threads = threads;
+		this.timeout = timeout;
+		this.timeUnit = timeUnit;
+	}
+
+	/**
+	 * @param resultStore the store that is checked before a cell is computed and that receives
+	 * all computed results or <code>null</code> to always compute
+	 */
+	public void setResultStore(QualityResultStore resultStore)
+	{
+		this.resultStore = resultStore;
+	}
+
+	/**
+	 * Evaluates all metrics for all colormaps and blocks until all cells are complete.
+	 * The progress listener is notified once per cell. If it is cancelled, the remaining cells are skipped
+	 * and missing in the result table.
+	 * @param colormaps the colormaps (the rows)
+	 * @param metrics the metrics (the columns)
+	 * @param progress the progress listener
+	 * @param listener receives each result as soon as it is available (in completion order, may be <code>null</code>)
+	 * @return the result table in the order of the input lists
+	 */
+	public <C extends Colormap> Table<C, ColormapQuality, Double> evaluate(List<C> colormaps,
+			List<? extends ColormapQuality> metrics, ProgressListener progress, ResultListener<? super C> listener)
+	{
+		final double[][] results = new double[colormaps.size()][metrics.size()];
+		final boolean[][] completed = new boolean[colormaps.size()][metrics.size()];
+
+		final ThreadFactory factory = new ThreadFactoryBuilder().setNameFormat("quality-%d").setDaemon(true).build();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, factory);
+		ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(factory);
+
+		final List<CompletableFuture<Double>> cells = Lists.newArrayList();
+		final List<CompletableFuture<?>> recorded = Lists.newArrayList();
+		final AtomicBoolean cancelled = new AtomicBoolean();
+
+		for (int row = 0; row < colormaps.size(); row++)
+		{
+			for (int col = 0; col < metrics.size(); col++)
+			{
+				final int r = row;
+				final int c = col;
+				final C colormap = colormaps.get(r);
+				final ColormapQuality metric = metrics.get(c);
+
+				CompletableFuture<Double> cell = new CompletableFuture<>();
+				cells.add(cell);
+				recorded.add(cell.whenComplete((quality, ex) ->
+				{
+					// the progress listeners are not thread-safe
+					synchronized (progress)
+					{
+						if (!(ex instanceof CancellationException))
+						{
+							double value = (ex == null) ? quality.doubleValue() : Double.NaN;
+							logFailure(colormap, metric, ex);
+
+							results[r][c] = value;
+							completed[r][c] = true;
+
+							if (listener != null)
+							{
+								if (ex != null)
+								{
+									listener.onFailure(colormap, metric, unwrap(ex));
+								}
+								listener.onResult(colormap, metric, value);
+							}
+						}
+
+						progress.step();
+
+						if (progress.isCancelled() && !cancelled.getAndSet(true))
+						{
+							cells.forEach(f -> f.cancel(false));
+						}
+					}
+				}));
+			}
+		}
+
+		progress.start(cells.size());
+
+		try
+		{
+			int idx = 0;
+			for (C colormap : colormaps)
+			{
+				// all metrics of a colormap share the sampled colors
+				SampleContext context = new SampleContext(colormap);
+				for (ColormapQuality metric : metrics)
+				{
+					CompletableFuture<Double> cell = cells.get(idx++);
+					executor.execute(() -> compute(cell, context, metric, watchdog));
+				}
+			}
+
+			for (CompletableFuture<?> f : recorded)
+			{
+				try
+				{
+					f.join();
+				}
+				catch (CompletionException | CancellationException e)
+				{
+					// already handled
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+			watchdog.shutdownNow();
+		}
+
+		progress.finish();
+
+		ImmutableTable.Builder<C, ColormapQuality, Double> builder = ImmutableTable.builder();
+		for (int row = 0; row < colormaps.size(); row++)
+		{
+			for (int col = 0; col < metrics.size(); col++)
+			{
+				if (completed[row][col])
+				{
+					builder.put(colormaps.get(row), metrics.get(col), results[row][col]);
+				}
+			}
+		}
+
+		return builder.build();
+	}
+
+	private void compute(CompletableFuture<Double> cell, SampleContext context, ColormapQuality metric, ScheduledExecutorService watchdog)
+	{
+		if (cell.isDone())		// cancelled
+			return;
+
+		ScheduledFuture<?> timer = null;
+		if (timeout > 0)
+		{
+			timer = watchdog.schedule(() -> cell.completeExceptionally(new TimeoutException()), timeout, timeUnit);
+		}
+
+		try
+		{
+			double quality = (resultStore != null) ? resultStore.getOrCompute(context, metric) : metric.getQuality(context);
+			cell.complete(Double.valueOf(quality));
+		}
+		catch (RuntimeException e)
+		{
+			cell.completeExceptionally(e);
+		}
+		finally
+		{
+			if (timer != null)
+			{
+				timer.cancel(false);
+			}
+		}
+	}
+
+	private static void logFailure(Colormap colormap, ColormapQuality metric, Throwable ex)
+	{
+		if (ex == null)
+			return;
+
+		Throwable cause = unwrap(ex);
+		if (cause instanceof TimeoutException)
+		{
+			logger.warn("Computing {} for {} timed out", metric.getName(), colormap);
+		}
+		else
+		{
+			logger.error("Computing " + metric.getName() + " for " + colormap + " failed", cause);
+		}
+	}
+
+	private static Throwable unwrap(Throwable ex)
+	{
+		return (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+	}
+
+	/**
+	 * Receives the results of single cells while the evaluation is running
+	 * @param <C> the colormap type
+	 */
+	public interface ResultListener<C extends Colormap>
+	{
+		/**
+		 * Called from the worker threads, but never concurrently.
+		 * @param colormap the colormap
+		 * @param metric the metric
+		 * @param quality the quality or {@link Double#NaN} if the computation failed or the quality is undefined
+		 */
+		void onResult(C colormap, ColormapQuality metric, double quality);
+
+		/**
+		 * Called right before {@link #onResult} if the computation failed or timed out. It is not called
+		 * for metrics that return {@link Double#NaN} because the quality is undefined. Does nothing by default.
+		 * @param colormap the colormap
+		 * @param metric the metric
+		 * @param cause the exception or a {@link TimeoutException}
+		 */
+		default void onFailure(C colormap, ColormapQuality metric, Throwable cause)
+		{
+			// ignore
+		}
+	}
+}
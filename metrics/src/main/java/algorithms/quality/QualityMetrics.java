@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms.quality;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import algorithms.sampling.PairSamplingStrategy;
+import algorithms.sampling.SamplingStrategy;
+
+/**
+ * Creates {@link ColormapQuality} metrics by their class name, e.g. for command line tools and benchmarks.
+ * @author Martin Steiger
+ */
+public final class QualityMetrics
+{
+	/**
+	 * The simple class names of all metrics that can be created
+	 */
+	public static final List<String> NAMES = ImmutableList.of(
+			"AttentionQuality", "ColorAppearanceDivergence", "ColorDivergenceQuantile", "ColorDivergenceVariance",
+			"ColorDynamicBrightest", "ColorDynamicCappedWhiteContrast", "ColorDynamicDarkest", "ColorDynamicDistBlack",
+			"ColorDynamicDistWhite", "ColorDynamicWhiteContrast", "ColorExploitation", "JndRegionSize");
+
+	private QualityMetrics()
+	{
+		// private
+	}
+
+	/**
+	 * @param name the simple class name of the metric, see {@link #NAMES}
+	 * @param grid the sampling for metrics that evaluate the colors at regular points
+	 * @param circular the sampling for the JND-based metrics
+	 * @param pairs the sampling for the divergence metrics
+	 * @param jndThreshold the JND threshold for {@link ColorExploitation}
+	 * @return the new metric
+	 * @throws IllegalArgumentException if the name is unknown
+	 */
+	public static ColormapQuality create(String name, SamplingStrategy grid, SamplingStrategy circular,
+			PairSamplingStrategy pairs, double jndThreshold)
+	{
+		switch (name)
+		{
+		case "AttentionQuality":
+			return new AttentionQuality(grid);
+		case "ColorAppearanceDivergence":
+			return new ColorAppearanceDivergence(0.05, 0.95, pairs);
+		case "ColorDivergenceQuantile":
+			return new ColorDivergenceQuantile(0.5);
+		case "ColorDivergenceVariance":
+			return new ColorDivergenceVariance(pairs);
+		case "ColorDynamicBrightest":
+			return new ColorDynamicBrightest(grid);
+		case "ColorDynamicCappedWhiteContrast":
+			return new ColorDynamicCappedWhiteContrast(grid);
+		case "ColorDynamicDarkest":
+			return new ColorDynamicDarkest(grid);
+		case "ColorDynamicDistBlack":
+			return new ColorDynamicDistBlack(grid);
+		case "ColorDynamicDistWhite":
+			return new ColorDynamicDistWhite(grid);
+		case "ColorDynamicWhiteContrast":
+			return new ColorDynamicWhiteContrast(grid);
+		case "ColorExploitation":
+			return new ColorExploitation(circular, jndThreshold);
+		case "JndRegionSize":
+			return new JndRegionSize(circular);
+		default:
+			throw new IllegalArgumentException("Unknown metric " + name);
+		}
+	}
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms.quality;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import algorithms.SampleContext;
+import de.fhg.igd.iva.colormaps.Colormap;
+
+/**
+ * Persists the results of {@link ColormapQuality#getQuality(Colormap)} in an append-only log file.
+ * The first line contains the file version, each following line contains a key and the result.
+ * The key is a hash of the colormap content (a sampled grid) and the
+ * {@link ColormapQuality#getConfiguration() metric configuration}, so entries become unreachable
+ * as soon as either of them changes.
+ * <p>
+ * The log is compacted when it is loaded: replaced entries and invalid lines are dropped,
+ * files of a different version are discarded entirely.
+ * <p>
+ * This class is thread-safe.
+ * @author Martin Steiger
+ */
+public class QualityResultStore
+{
+	private static final Logger logger = LoggerFactory.getLogger(QualityResultStore.class);
+
+	/**
+	 * Increment to invalidate all existing entries, e.g. if a metric implementation changes
+	 */
+	private static final int VERSION = 2;
+
+	private static final int FINGERPRINT_SIZE = 33;
+
+	private static final String FILENAME = "quality-results.log";
+
+	private static final String FOLDER_PROPERTY = "colormaps.cache.dir";
+
+	private static final String HEADER = "# quality results v" + VERSION;
+
+	private final Path file;
+
+	private final Map<String, Double> entries = Maps.newHashMap();
+
+	private final LoadingCache<Colormap, HashCode> fingerprints = CacheBuilder.newBuilder()
+			.weakKeys()
+			.build(new CacheLoader<Colormap, HashCode>()
+			{
+				@Override
+				public HashCode load(Colormap colormap)
+				{
+					return computeFingerprint(colormap);
+				}
+			});
+
+	/**
+	 * Reads all existing entries from the log file in the given folder
+	 * @param folder the folder that contains the log file
+	 */
+	public QualityResultStore(File folder)
+	{
+		this.file = folder.toPath().resolve(FILENAME);
+
+		if (Files.isRegularFile(file))
+		{
+			try
+			{
+				if (!read())
+				{
+					compact();
+				}
+			}
+			catch (IOException e)
+			{
+				logger.warn("Could not read result file " + file, e);
+			}
+		}
+	}
+
+	/**
+	 * @return a store in the folder defined by the system property <code>colormaps.cache.dir</code>
+	 * or in a subfolder of the temp. directory if undefined
+	 */
+	public static QualityResultStore getDefault()
+	{
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * @param colormap the colormap
+	 * @param metric the metric
+	 * @return the stored result or <code>null</code> if there is none
+	 */
+	public Double get(Colormap colormap, ColormapQuality metric)
+	{
+		String key = computeKey(colormap, metric);
+
+		synchronized (entries)
+		{
+			return entries.get(key);
+		}
+	}
+
+	/**
+	 * Stores the result and appends it to the log file. I/O errors are logged.
+	 * @param colormap the colormap
+	 * @param metric the metric
+	 * @param quality the result
+	 */
+	public void put(Colormap colormap, ColormapQuality metric, double quality)
+	{
+		String key = computeKey(colormap, metric);
+		String line = toLine(key, quality);
+
+		synchronized (entries)
+		{
+			entries.put(key, Double.valueOf(quality));
+
+			try
+			{
+				Files.createDirectories(file.getParent());
+				boolean created = !Files.exists(file);
+				try (Writer writer = Files.newBufferedWriter(file, Charsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND))
+				{
+					if (created)
+					{
+						writer.write(HEADER + "\n");
+					}
+					writer.write(line);
+				}
+			}
+			catch (IOException e)
+			{
+				logger.warn("Could not write result file " + file, e);
+			}
+		}
+	}
+
+	/**
+	 * @param colormap the colormap
+	 * @param metric the metric
+	 * @return the stored result or the newly computed (and stored) result
+	 */
+	public double getOrCompute(Colormap colormap, ColormapQuality metric)
+	{
+		return getOrCompute(new SampleContext(colormap), metric);
+	}
+
+	/**
+	 * @param context the sample context of the colormap
+	 * @param metric the metric
+	 * @return the stored result or the newly computed (and stored) result
+	 */
+	public double getOrCompute(SampleContext context, ColormapQuality metric)
+	{
+		Colormap colormap = context.getColormap();
+
+		Double stored = get(colormap, metric);
+		if (stored != null)
+		{
+			return stored.doubleValue();
+		}
+
+		double quality = metric.getQuality(context);
+		if (!Double.isNaN(quality))
+		{
+			put(colormap, metric, quality);
+		}
+		return quality;
+	}
+
+	/**
+	 * @return true if the file is already compact, i.e. it does not contain invalid lines or replaced entries
+	 * @throws IOException if the file cannot be read
+	 */
+	private boolean read() throws IOException
+	{
+		int lines = 0;
+		int invalid = 0;
+
+		try (BufferedReader reader = Files.newBufferedReader(file, Charsets.UTF_8))
+		{
+			String header = reader.readLine();
+			if (!HEADER.equals(header))
+			{
+				logger.info("Discarding outdated result file {}", file);
+				return false;
+			}
+
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				lines++;
+				int tab = line.indexOf('\t');
+				try
+				{
+					// later entries replace earlier ones
+					long bits = Long.parseUnsignedLong(line.substring(tab + 1), 16);
+					entries.put(line.substring(0, tab), Double.valueOf(Double.longBitsToDouble(bits)));
+				}
+				catch (NumberFormatException | IndexOutOfBoundsException e)
+				{
+					// e.g. incomplete lines from an aborted write
+					invalid++;
+				}
+			}
+		}
+
+		if (invalid > 0)
+		{
+			logger.info("Ignored {} invalid lines in {}", invalid, file);
+		}
+
+		logger.debug("Loaded {} results from {}", entries.size(), file);
+
+		return lines == entries.size();
+	}
+
+	/**
+	 * Rewrites the file with one line per entry
+	 * @throws IOException if the file cannot be written
+	 */
+	private void compact() throws IOException
+	{
+		// write to a temp. file first so that the old file remains intact if writing fails
+		Path temp = Files.createTempFile(file.getParent(), FILENAME, ".tmp");
+
+		try
+		{
+			try (Writer writer = Files.newBufferedWriter(temp, Charsets.UTF_8))
+			{
+				writer.write(HEADER + "\n");
+				for (Map.Entry<String, Double> entry : entries.entrySet())
+				{
+					writer.write(toLine(entry.getKey(), entry.getValue().doubleValue()));
+				}
+			}
+
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			logger.debug("Compacted {} to {} results", file, entries.size());
+		}
+		finally
+		{
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static String toLine(String key, double quality)
+	{
+		return key + "\t" + Long.toHexString(Double.doubleToLongBits(quality)) + "\n";
+	}
+
+	private String computeKey(Colormap colormap, ColormapQuality metric)
+	{
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		hasher.putInt(VERSION);
+		hasher.putBytes(fingerprints.getUnchecked(colormap).asBytes());
+		hasher.putString(metric.getConfiguration(), Charsets.UTF_8);
+		return hasher.hash().toString();
+	}
+
+	private static HashCode computeFingerprint(Colormap colormap)
+	{
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		for (float value : colormap.getColorGrid(FINGERPRINT_SIZE, FINGERPRINT_SIZE, (float[]) null))
+		{
+			hasher.putFloat(value);
+		}
+		return hasher.hash();
+	}
+
+	private static class DefaultHolder
+	{
+		static final QualityResultStore INSTANCE = new QualityResultStore(getDefaultFolder());
+
+		private static File getDefaultFolder()
+		{
+			String folder = System.getProperty(FOLDER_PROPERTY);
+			if (folder != null)
+			{
+				return new File(folder);
+			}
+
+			return new File(System.getProperty("java.io.tmpdir"), "colormap-cache");
+		}
+	}
+}
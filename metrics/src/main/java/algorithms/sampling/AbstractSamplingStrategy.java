@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms.sampling;
+
+/**
+ * Generates the sampling points on first access and keeps them.
+ * @author Martin Steiger
+ */
+public abstract class AbstractSamplingStrategy implements SamplingStrategy
+{
+	private volatile double[] coords;
+
+	@Override
+	public final double[] getCoordinates()
+	{
+		double[] result = coords;
+		if (result == null)
+		{
+			synchronized (this)
+			{
+				result = coords;
+				if (result == null)
+				{
+					result = generate();
+					coords = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Called once on first access
+	 * @return the packed sampling point coordinates <code>[x0, y0, x1, y1, ..]</code>
+	 */
+	protected abstract double[] generate();
+}
@@ -17,24 +17,29 @@
 
 package algorithms.sampling;
 
-import java.awt.geom.Point2D;
-import java.util.List;
-
-import com.google.common.collect.Lists;
+import java.util.stream.DoubleStream;
 
 /**
  * Defines a sampling strategy for a square [0..1] x [0..1] based on concentric circles
  * @author Martin Steiger
  */
-public class CircularSampling implements SamplingStrategy
+public class CircularSampling extends AbstractSamplingStrategy
 {
-	private	List<Point2D> pts = Lists.newArrayList();
+	private final int resolution;
 
 	/**
 	 * @param resolution relates to the number of sampling circles
 	 */
 	public CircularSampling(int resolution)
 	{
+		this.resolution = resolution;
+	}
+
+	@Override
+	protected double[] generate()
+	{
+		DoubleStream.Builder coords = DoubleStream.builder();
+
 		double cx = 0.5;
 		double cy = 0.5;
 
@@ -43,7 +48,7 @@ public class CircularSampling implements SamplingStrategy
 		double dist = sampleDist;
 
 		// add center point
-		pts.add(new Point2D.Double(cx, cy));
+		coords.add(cx).add(cy);
 
 		while (dist < maxDist)
 		{
@@ -59,17 +64,12 @@ public class CircularSampling implements SamplingStrategy
 				if (px < 0 || px > 1 || py < 0 || py > 1)
 					continue;
 
-				pts.add(new Point2D.Double(px, py));
+				coords.add(px).add(py);
 			}
 
 			dist += sampleDist;
 		}
-	}
 
-	@Override
-	public List<Point2D> getPoints()
-	{
-		return pts;
+		return coords.build().toArray();
 	}
 }
-
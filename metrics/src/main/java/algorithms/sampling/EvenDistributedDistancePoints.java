@@ -19,39 +19,52 @@ package algorithms.sampling;
 import static java.lang.Math.cos;
 import static java.lang.Math.sin;
 
-import java.awt.geom.Point2D;
-import java.util.Collection;
-import java.util.List;
 import java.util.Random;
 
-import com.google.common.collect.Lists;
-
 /**
  * Randomly outputs points in [0..1, 0..1] whose sequential pairwise distance is evenly distributed
  * in the range given.
  * @author Simon Thum
  */
-public class EvenDistributedDistancePoints implements SamplingStrategy
+public class EvenDistributedDistancePoints extends AbstractSamplingStrategy implements PairSamplingStrategy
 {
-
-	private final List<Point2D> pts = Lists.newArrayList();
+	private final Random random;
+	private final int number;
 
 	private double lower = 0;
 	private double upper = 1;
 
+	/**
+	 * The points are generated on first access. The random generator must not be used elsewhere.
+	 * @param random the random generator
+	 * @param number the number of points
+	 * @param lower the minimum distance between the points of a pair
+	 * @param upper the maximum distance between the points of a pair
+	 */
 	public EvenDistributedDistancePoints(Random random, int number, double lower, double upper) {
+		this.random = random;
+		this.number = number;
 		this.lower = lower;
 		this.upper = upper;
-		populateList(random, number);
 	}
 
+	/**
+	 * The points are generated on first access. The random generator must not be used elsewhere.
+	 * @param random the random generator
+	 * @param number the number of points
+	 */
 	public EvenDistributedDistancePoints(Random random, int number)
 	{
-		populateList(random, number);
+		this.random = random;
+		this.number = number;
 	}
 
-	private void populateList(Random random, int number) {
-		while (pts.size() < number)
+	@Override
+	protected double[] generate() {
+		double[] pts = new double[2 * (number + number % 2)];
+		int count = 0;
+
+		while (count < number)
 		{
 			double ax = random.nextDouble();
 			double ay = random.nextDouble();
@@ -70,18 +83,17 @@ public class EvenDistributedDistancePoints implements SamplingStrategy
 				by = (ay + cos(angle) * dist);
 				if (bx >= 0.0 && bx <= 1.0 && by >= 0.0 && by <= 1.0)
 				{
-					pts.add(new Point2D.Double(ax, ay));
-					pts.add(new Point2D.Double(bx, by));
+					pts[2 * count + 0] = ax;
+					pts[2 * count + 1] = ay;
+					pts[2 * count + 2] = bx;
+					pts[2 * count + 3] = by;
+					count += 2;
 					break;
 				}
 				tries--;
 			}
 		}
-	}
 
-	@Override
-	public Collection<Point2D> getPoints()
-	{
 		return pts;
 	}
 }
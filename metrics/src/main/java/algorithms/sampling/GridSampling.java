@@ -17,19 +17,13 @@
 
 package algorithms.sampling;
 
-import java.awt.geom.Point2D;
-import java.util.List;
-
-import com.google.common.collect.Lists;
-
 /**
  * Defines a sampling strategy for a square [0..1] x [0..1]
  * @author Martin Steiger
  */
-public class GridSampling implements SamplingStrategy
+public class GridSampling extends AbstractSamplingStrategy
 {
-	private int sampleRate;
-	private List<Point2D> pts = Lists.newArrayList();
+	private final int sampleRate;
 
 	/**
 	 * @param resolution the resolution of the grid in rows/cols
@@ -37,22 +31,24 @@ public class GridSampling implements SamplingStrategy
 	public GridSampling(int resolution)
 	{
 		this.sampleRate = resolution;
+	}
+
+	@Override
+	protected double[] generate()
+	{
+		double[] coords = new double[2 * sampleRate * sampleRate];
+		int idx = 0;
 		for (int y = 0; y < sampleRate; y++)
 		{
 			float my = y / (float)(sampleRate - 1);
 			for (int x = 0; x < sampleRate; x++)
 			{
 				float mx = x / (float)(sampleRate - 1);
-				pts.add(new Point2D.Double(mx, my));
+				coords[idx++] = mx;
+				coords[idx++] = my;
 			}
 		}
-	}
-
-	@Override
-	public List<Point2D> getPoints()
-	{
-		return pts;
+		return coords;
 	}
 
 }
-
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms.sampling;
+
+/**
+ * A sampling strategy that consists of point pairs. Pair <code>i</code> consists
+ * of the sampling points <code>2i</code> and <code>2i + 1</code>.
+ * @author Martin Steiger
+ */
+public interface PairSamplingStrategy extends SamplingStrategy
+{
+	/**
+	 * @return the number of point pairs
+	 */
+	default int getPairCount()
+	{
+		return getPointCount() / 2;
+	}
+
+	/**
+	 * @param pair the index of the pair
+	 * @return the euclidean distance between both points of the pair
+	 */
+	default double getDistance(int pair)
+	{
+		double[] coords = getCoordinates();
+		int idx = 4 * pair;
+		double dx = coords[idx + 2] - coords[idx + 0];
+		double dy = coords[idx + 3] - coords[idx + 1];
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+}
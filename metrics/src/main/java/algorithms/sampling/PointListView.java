@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms.sampling;
+
+import java.awt.geom.Point2D;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * An unmodifiable list view of packed point coordinates
+ * @author Martin Steiger
+ */
+class PointListView extends AbstractList<Point2D> implements RandomAccess
+{
+	private final double[] coords;
+
+	/**
+	 * @param coords the packed coordinates <code>[x0, y0, x1, y1, ..]</code>
+	 */
+	public PointListView(double[] coords)
+	{
+		this.coords = coords;
+	}
+
+	@Override
+	public Point2D get(int index)
+	{
+		return new Point2D.Double(coords[2 * index], coords[2 * index + 1]);
+	}
+
+	@Override
+	public int size()
+	{
+		return coords.length / 2;
+	}
+}
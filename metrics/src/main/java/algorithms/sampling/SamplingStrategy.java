@@ -14,11 +14,13 @@
  * limitations under the License.
  */
 
-
 package algorithms.sampling;
 
 import java.awt.geom.Point2D;
-import java.util.Collection;
+import java.util.List;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 /**
  * Defines a sampling strategy for a square [0..1] x [0..1]
@@ -27,8 +29,38 @@ import java.util.Collection;
 public interface SamplingStrategy
 {
 	/**
-	 * @return a order-preserving iterable for the sampling points
+	 * @return the packed sampling point coordinates <code>[x0, y0, x1, y1, ..]</code> in iteration order.
+	 * The array is shared and must not be modified.
+	 */
+	double[] getCoordinates();
+
+	/**
+	 * @return the number of sampling points
 	 */
-	Collection<Point2D> getPoints();
+	default int getPointCount()
+	{
+		return getCoordinates().length / 2;
+	}
 
+	/**
+	 * @return an unmodifiable, order-preserving view of the sampling points.
+	 * The point instances are created on access.
+	 */
+	default List<Point2D> getPoints()
+	{
+		return new PointListView(getCoordinates());
+	}
+
+	/**
+	 * @return a hash of all sampling points that identifies the sampling, e.g. for caching
+	 */
+	default String getFingerprint()
+	{
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		for (double v : getCoordinates())
+		{
+			hasher.putDouble(v);
+		}
+		return hasher.hash().toString();
+	}
 }
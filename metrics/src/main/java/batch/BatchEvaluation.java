@@ -0,0 +1,228 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package batch;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Random;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import progress.LoggingProgressListener;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Table;
+
+import algorithms.quality.ColormapQuality;
+import algorithms.quality.QualityEvaluator;
+import algorithms.quality.QualityMetrics;
+import algorithms.quality.QualityResultStore;
+import algorithms.sampling.CircularSampling;
+import algorithms.sampling.EvenDistributedDistancePoints;
+import algorithms.sampling.GridSampling;
+import de.fhg.igd.iva.colormaps.Colormap;
+import de.fhg.igd.iva.colormaps.FileImageColormap;
+import de.fhg.igd.iva.colormaps.KnownColormap;
+
+/**
+ * Headless command line tool that evaluates quality metrics for a set of colormaps
+ * and streams the results as CSV or JSON lines. Run without arguments to evaluate the standard
+ * metrics for all known colormaps, see {@link BatchOptions#USAGE} for all options.
+ * <p>
+ * The exit code is 0 if all results were computed (even if some are undefined), 1 if some computations
+ * failed or timed out and 2 for invalid arguments.
+ * @author Martin Steiger
+ */
+public final class BatchEvaluation
+{
+	private static final Logger logger = LoggerFactory.getLogger(BatchEvaluation.class);
+
+	private static final List<String> DEFAULT_METRICS = Lists.newArrayList(
+			"ColorExploitation", "AttentionQuality", "ColorDynamicDistBlack", "ColorDynamicDistWhite",
+			"ColorDivergenceVariance", "ColorAppearanceDivergence");
+
+	private BatchEvaluation()
+	{
+		// private
+	}
+
+	/**
+	 * @param args the command line arguments
+	 * @throws IOException if the output cannot be written
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		BatchOptions opts;
+		List<Colormap> colormaps;
+		List<ColormapQuality> metrics;
+		QualityEvaluator evaluator;
+
+		try
+		{
+			opts = BatchOptions.parse(args);
+			if (opts.help)
+			{
+				System.out.println(BatchOptions.USAGE);
+				return;
+			}
+
+			colormaps = loadColormaps(opts);
+			metrics = createMetrics(opts);
+			evaluator = new QualityEvaluator(opts.threads, opts.timeout, TimeUnit.SECONDS);
+		}
+		catch (IllegalArgumentException e)
+		{
+			System.err.println(e.getMessage());
+			System.err.println(BatchOptions.USAGE);
+			System.exit(2);
+			return;
+		}
+
+		if (opts.cache)
+		{
+			evaluator.setResultStore(QualityResultStore.getDefault());
+		}
+
+		logger.info("Evaluating {} metrics for {} colormaps using {} threads", metrics.size(), colormaps.size(), opts.threads);
+
+		Table<Colormap, ColormapQuality, Double> results;
+		ResultWriter resultWriter;
+
+		try (Writer writer = new OutputStreamWriter(openOutput(opts.output), Charsets.UTF_8))
+		{
+			resultWriter = ResultWriter.create(opts.format, writer);
+			resultWriter.writeHeader();
+
+			LoggingProgressListener progress = new LoggingProgressListener(logger, "Evaluation");
+			results = evaluator.evaluate(colormaps, metrics, progress, resultWriter);
+		}
+
+		long undefined = results.values().stream().filter(v -> v.isNaN()).count() - resultWriter.getFailureCount();
+		if (undefined > 0)
+		{
+			logger.info("{} of {} results are undefined", undefined, results.size());
+		}
+
+		int failed = resultWriter.getFailureCount();
+		if (failed > 0)
+		{
+			logger.warn("{} of {} results could not be computed", failed, results.size());
+			System.exit(1);
+		}
+	}
+
+	private static OutputStream openOutput(File output) throws IOException
+	{
+		if (output == null)
+		{
+			// don't close stdout together with the writer
+			return new FileOutputStream(FileDescriptor.out)
+			{
+				@Override
+				public void close() throws IOException
+				{
+					flush();
+				}
+			};
+		}
+
+		return new FileOutputStream(output);
+	}
+
+	private static List<Colormap> loadColormaps(BatchOptions opts)
+	{
+		List<Colormap> colormaps = Lists.newArrayList();
+
+		boolean all = opts.colormaps.contains("all");
+		boolean none = opts.colormaps.contains("none");
+		List<String> missing = Lists.newArrayList(opts.colormaps);
+		missing.remove("all");
+		missing.remove("none");
+
+		if (!none)
+		{
+			for (KnownColormap colormap : ServiceLoader.load(KnownColormap.class))
+			{
+				Class<? extends KnownColormap> clazz = colormap.getClass();
+				if (clazz.isAnnotationPresent(Deprecated.class))
+				{
+					logger.debug("Skipping deprecated implementation {}", clazz);
+					continue;
+				}
+
+				boolean selected = missing.remove(clazz.getSimpleName()) | missing.remove(colormap.getName());
+				if (all || selected)
+				{
+					colormaps.add(colormap);
+				}
+			}
+		}
+
+		if (!missing.isEmpty())
+			throw new IllegalArgumentException("Unknown colormaps " + missing);
+
+		for (File image : opts.images)
+		{
+			try
+			{
+				colormaps.add(new FileImageColormap(image));
+			}
+			catch (IOException e)
+			{
+				throw new IllegalArgumentException("Could not read image " + image + ": " + e.getMessage());
+			}
+		}
+
+		if (colormaps.isEmpty())
+			throw new IllegalArgumentException("No colormaps selected");
+
+		return colormaps;
+	}
+
+	private static List<ColormapQuality> createMetrics(BatchOptions opts)
+	{
+		GridSampling rectSampling = new GridSampling(opts.grid);
+		CircularSampling circSampling = new CircularSampling(opts.circular);
+		EvenDistributedDistancePoints distSampling = new EvenDistributedDistancePoints(new Random(opts.seed), opts.pairs);
+
+		List<String> names = opts.metrics.isEmpty() ? DEFAULT_METRICS : opts.metrics;
+		if (names.contains("all"))
+		{
+			names = QualityMetrics.NAMES;
+		}
+
+		List<ColormapQuality> metrics = Lists.newArrayList();
+		for (String name : names)
+		{
+			metrics.add(QualityMetrics.create(name, rectSampling, circSampling, distSampling, opts.jndThreshold));
+		}
+
+		return metrics;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package batch;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+/**
+ * The command line options of {@link BatchEvaluation}
+ * @author Martin Steiger
+ */
+final class BatchOptions
+{
+	static final String USAGE = String.join(System.lineSeparator(),
+		"Usage: BatchEvaluation [options]",
+		"  --colormaps <names>  comma-separated class or display names of known colormaps or 'all' (default)",
+		"                       or 'none' to use only image files",
+		"  --image <file>       adds an image file as colormap (can be repeated)",
+		"  --metrics <names>    comma-separated metric class names or 'all' (default: the standard set)",
+		"  --grid <n>           rows/cols of the grid sampling (default: 50)",
+		"  --circular <n>       resolution of the circular sampling (default: 30)",
+		"  --pairs <n>          number of random points (two per pair) for the divergence metrics (default: 2000)",
+		"  --seed <n>           seed for the random points (default: 12345)",
+		"  --jnd <value>        the JND threshold for the exploitation metric (default: 3.0)",
+		"  --threads <n>        the number of worker threads (default: number of processors)",
+		"  --timeout <seconds>  the time limit per colormap and metric (default: 0 = no limit)",
+		"  --format <csv|json>  CSV or JSON lines (default: csv)",
+		"  --output <file>      the output file (default: standard output)",
+		"  --cache              reuse and store results in the result cache",
+		"  --help               prints this message");
+
+	List<String> colormaps = Collections.singletonList("all");
+	List<File> images = Lists.newArrayList();
+	List<String> metrics = Collections.emptyList();
+
+	int grid = 50;
+	int circular = 30;
+	int pairs = 2000;
+	long seed = 12345;
+	double jndThreshold = 3.0;
+
+	int threads = Runtime.getRuntime().availableProcessors();
+	long timeout = 0;
+
+	String format = "csv";
+	File output;
+	boolean cache;
+	boolean help;
+
+	private BatchOptions()
+	{
+		// use parse()
+	}
+
+	/**
+	 * @param args the command line arguments
+	 * @return the parsed options
+	 * @throws IllegalArgumentException if the arguments are invalid
+	 */
+	static BatchOptions parse(String[] args)
+	{
+		BatchOptions opts = new BatchOptions();
+		Splitter splitter = Splitter.on(',').trimResults().omitEmptyStrings();
+
+		for (int i = 0; i < args.length; i++)
+		{
+			String name = args[i];
+
+			if (name.equals("--cache"))
+			{
+				opts.cache = true;
+				continue;
+			}
+
+			if (name.equals("--help"))
+			{
+				opts.help = true;
+				continue;
+			}
+
+			if (i + 1 >= args.length)
+				throw new IllegalArgumentException("Missing value for " + name);
+
+			String value = args[++i];
+
+			switch (name)
+			{
+			case "--colormaps":
+				opts.colormaps = splitter.splitToList(value);
+				break;
+			case "--image":
+				opts.images.add(new File(value));
+				break;
+			case "--metrics":
+				opts.metrics = splitter.splitToList(value);
+				break;
+			case "--grid":
+				opts.grid = parsePositive(name, value);
+				if (opts.grid < 2)
+					throw new IllegalArgumentException(name + " must be at least 2, but is " + value);
+				break;
+			case "--circular":
+				opts.circular = parsePositive(name, value);
+				break;
+			case "--pairs":
+				opts.pairs = parsePositive(name, value);
+				break;
+			case "--seed":
+				opts.seed = parseLong(name, value);
+				break;
+			case "--jnd":
+				opts.jndThreshold = parseDouble(name, value);
+				if (!(opts.jndThreshold > 0))
+					throw new IllegalArgumentException(name + " must be positive, but is " + value);
+				break;
+			case "--threads":
+				opts.threads = parsePositive(name, value);
+				break;
+			case "--timeout":
+				opts.timeout = parseLong(name, value);
+				if (opts.timeout < 0)
+					throw new IllegalArgumentException(name + " must not be negative, but is " + value);
+				break;
+			case "--format":
+				if (!Arrays.asList("csv", "json").contains(value))
+					throw new IllegalArgumentException("Unknown format " + value);
+				opts.format = value;
+				break;
+			case "--output":
+				opts.output = new File(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + name);
+			}
+		}
+
+		return opts;
+	}
+
+	private static int parsePositive(String name, String value)
+	{
+		long v = parseLong(name, value);
+		if (v <= 0 || v > Integer.MAX_VALUE)
+			throw new IllegalArgumentException(name + " must be a positive integer, but is " + value);
+		return (int) v;
+	}
+
+	private static long parseLong(String name, String value)
+	{
+		try
+		{
+			return Long.parseLong(value);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException(name + " must be an integer, but is " + value);
+		}
+	}
+
+	private static double parseDouble(String name, String value)
+	{
+		try
+		{
+			return Double.parseDouble(value);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException(name + " must be a number, but is " + value);
+		}
+	}
+}
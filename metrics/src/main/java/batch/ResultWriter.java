@@ -0,0 +1,187 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package batch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import algorithms.quality.ColormapQuality;
+import algorithms.quality.QualityEvaluator.ResultListener;
+import de.fhg.igd.iva.colormaps.Colormap;
+import de.fhg.igd.iva.colormaps.KnownColormap;
+
+/**
+ * Writes one line per result and flushes it immediately, so results can be
+ * consumed while the evaluation is running.
+ * @author Martin Steiger
+ */
+abstract class ResultWriter implements ResultListener<Colormap>
+{
+	private final Writer writer;
+
+	private int failureCount;
+
+	/**
+	 * @param writer the target writer
+	 */
+	protected ResultWriter(Writer writer)
+	{
+		this.writer = writer;
+	}
+
+	/**
+	 * @param format the format name, see {@link BatchOptions}
+	 * @param writer the target writer
+	 * @return a new instance
+	 */
+	static ResultWriter create(String format, Writer writer)
+	{
+		return format.equals("json") ? new JsonLines(writer) : new Csv(writer);
+	}
+
+	/**
+	 * Writes a header line, if the format defines one
+	 */
+	void writeHeader()
+	{
+		// none by default
+	}
+
+	@Override
+	public void onResult(Colormap colormap, ColormapQuality metric, double quality)
+	{
+		writeLine(format(getName(colormap), metric.getName(), quality));
+	}
+
+	@Override
+	public void onFailure(Colormap colormap, ColormapQuality metric, Throwable cause)
+	{
+		failureCount++;
+	}
+
+	/**
+	 * @return the number of results that could not be computed (not counting undefined results)
+	 */
+	int getFailureCount()
+	{
+		return failureCount;
+	}
+
+	protected abstract String format(String colormap, String metric, double quality);
+
+	protected void writeLine(String line)
+	{
+		try
+		{
+			writer.write(line);
+			writer.write(System.lineSeparator());
+			writer.flush();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String getName(Colormap colormap)
+	{
+		if (colormap instanceof KnownColormap)
+		{
+			return ((KnownColormap) colormap).getName();
+		}
+
+		return colormap.toString();
+	}
+
+	/**
+	 * Comma-separated values with a header line. Failed and undefined results are empty.
+	 */
+	static class Csv extends ResultWriter
+	{
+		Csv(Writer writer)
+		{
+			super(writer);
+		}
+
+		@Override
+		void writeHeader()
+		{
+			writeLine("colormap,metric,quality");
+		}
+
+		@Override
+		protected String format(String colormap, String metric, double quality)
+		{
+			String value = Double.isNaN(quality) ? "" : Double.toString(quality);
+			return escape(colormap) + "," + escape(metric) + "," + value;
+		}
+
+		private static String escape(String text)
+		{
+			if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0)
+				return text;
+
+			return "\"" + text.replace("\"", "\"\"") + "\"";
+		}
+	}
+
+	/**
+	 * One JSON object per line. Failed and undefined results are <code>null</code>.
+	 */
+	static class JsonLines extends ResultWriter
+	{
+		JsonLines(Writer writer)
+		{
+			super(writer);
+		}
+
+		@Override
+		protected String format(String colormap, String metric, double quality)
+		{
+			String value = (Double.isNaN(quality) || Double.isInfinite(quality)) ? "null" : Double.toString(quality);
+			return "{\"colormap\":" + quote(colormap) + ",\"metric\":" + quote(metric) + ",\"quality\":" + value + "}";
+		}
+
+		private static String quote(String text)
+		{
+			StringBuilder sb = new StringBuilder("\"");
+			for (char c : text.toCharArray())
+			{
+				switch (c)
+				{
+				case '"':
+					sb.append("\\\"");
+					break;
+				case '\\':
+					sb.append("\\\\");
+					break;
+				default:
+					if (c < 0x20)
+					{
+						sb.append(String.format("\\u%04x", (int) c));
+					}
+					else
+					{
+						sb.append(c);
+					}
+				}
+			}
+			return sb.append('"').toString();
+		}
+	}
+}
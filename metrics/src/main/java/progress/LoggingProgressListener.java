@@ -34,7 +34,7 @@ public class LoggingProgressListener extends AbstractProgressListener
 	public void start(int max)
 	{
 		super.start(max);
-		this.logRate = max / 12;
+		this.logRate = Math.max(1, max / 12);
 	}
 
 	@Override
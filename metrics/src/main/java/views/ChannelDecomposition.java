@@ -0,0 +1,305 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package views;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import views.SimpleColormapView.ViewType;
+import de.fhg.igd.iva.colorspaces.CIELAB;
+import de.fhg.igd.iva.colorspaces.SRGBGamma;
+
+/**
+ * Decomposes a precomputed grid of colors into the channels of the different {@link ViewType}s.
+ * Intermediate values that are needed by several views (HSB and the attention derived from CIE L*C*h)
+ * are computed only once per instance, so all views of the same colors should be taken from the same instance.
+ * <p>
+ * Instances are not thread-safe.
+ * @author Martin Steiger
+ */
+public final class ChannelDecomposition
+{
+	/**
+	 * The maximum of <code>sqrt(L^2 + C^2)</code> that is used to normalize the attention
+	 */
+	private static final double MAX_ATTENTION = Math.sqrt(100 * 100 + 150 * 150);
+
+	private final int[] argb;
+	private final int count;
+
+	/**
+	 * Hue, saturation and brightness in planar layout
+	 */
+	private float[] hsb;
+
+	private float[] attention;
+
+	/**
+	 * @param argb the packed, opaque ARGB colors, e.g. from {@link de.fhg.igd.iva.colormaps.Colormap#getColorGrid(int, int, int[])}.
+	 * The array is not copied and must not be modified while the instance is used.
+	 */
+	public ChannelDecomposition(int[] argb)
+	{
+		this.argb = argb;
+		this.count = argb.length;
+	}
+
+	/**
+	 * @param viewType the view type
+	 * @param target the target array (at least as long as the colors) or <code>null</code>. It can be
+	 * the color array itself if no other channel is requested afterwards.
+	 * @return the <code>target</code> array or a newly allocated array if it was <code>null</code>
+	 */
+	public int[] getChannel(ViewType viewType, int[] target)
+	{
+		int[] result = (target != null) ? target : new int[count];
+
+		switch (viewType)
+		{
+		case REAL:
+			System.arraycopy(argb, 0, result, 0, count);
+			break;
+		case LUM:
+			fillLuma(result);
+			break;
+		case RED:
+			fillMasked(result, 0xFFFF0000);
+			break;
+		case GREEN:
+			fillMasked(result, 0xFF00FF00);
+			break;
+		case BLUE:
+			fillMasked(result, 0xFF0000FF);
+			break;
+		case HUE:
+			fillHue(result);
+			break;
+		case SAT:
+			fillGray(result, getHSB(), count);
+			break;
+		case BRIGHT:
+			fillGray(result, getHSB(), 2 * count);
+			break;
+		case ATT:
+			fillGray(result, getAttention(), 0);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported view type " + viewType);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Same as {@link #getChannel(ViewType, int[])}, but the gray values of {@link ViewType#SAT},
+	 * {@link ViewType#BRIGHT} and {@link ViewType#ATT} are not quantized to 8 bits.
+	 * @param viewType the view type
+	 * @param target the target array for the interleaved RGB components (at least 3 per color) or <code>null</code>
+	 * @return the <code>target</code> array or a newly allocated array if it was <code>null</code>
+	 */
+	public float[] getComponents(ViewType viewType, float[] target)
+	{
+		float[] result = (target != null) ? target : new float[3 * count];
+
+		switch (viewType)
+		{
+		case SAT:
+			fillGray(result, getHSB(), count);
+			break;
+		case BRIGHT:
+			fillGray(result, getHSB(), 2 * count);
+			break;
+		case ATT:
+			fillGray(result, getAttention(), 0);
+			break;
+		default:
+			int[] channel = getChannel(viewType, null);
+			for (int i = 0; i < count; i++)
+			{
+				int c = channel[i];
+				result[3 * i + 0] = ((c >> 16) & 0xFF) / 255f;
+				result[3 * i + 1] = ((c >> 8) & 0xFF) / 255f;
+				result[3 * i + 2] = (c & 0xFF) / 255f;
+			}
+			break;
+		}
+
+		return result;
+	}
+
+	/**
+	 * @param viewType the view type
+	 * @param target the target array (at least as long as the colors) or <code>null</code>
+	 * @return the reliability of every color, see {@link ColormapView#getReliability(double, double)}
+	 */
+	public float[] getReliability(ViewType viewType, float[] target)
+	{
+		float[] result = (target != null) ? target : new float[count];
+
+		if (viewType == ViewType.HUE)
+		{
+			// the hue is meaningless for unsaturated colors
+			System.arraycopy(getHSB(), count, result, 0, count);
+		}
+		else
+		{
+			Arrays.fill(result, 0, count, 1f);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Computes several views in one go, sharing all intermediate values
+	 * @param viewTypes the view types
+	 * @return the colors of every view in the iteration order of the view types
+	 */
+	public Map<ViewType, int[]> getChannels(Collection<ViewType> viewTypes)
+	{
+		Map<ViewType, int[]> result = new EnumMap<>(ViewType.class);
+
+		for (ViewType viewType : viewTypes)
+		{
+			result.put(viewType, getChannel(viewType, null));
+		}
+
+		return result;
+	}
+
+	private void fillLuma(int[] result)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			int c = argb[i];
+
+			// same weights and rounding as RGB.getLumaByte()
+			float r = ((c >> 16) & 0xFF) / 255f;
+			float g = ((c >> 8) & 0xFF) / 255f;
+			float b = (c & 0xFF) / 255f;
+			double luma = (r * 0.2126729) + (g * 0.7151522) + (b * 0.0721750);
+
+			result[i] = gray((int) (luma * 255.0 + 0.5));
+		}
+	}
+
+	private void fillMasked(int[] result, int mask)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			result[i] = argb[i] & mask;
+		}
+	}
+
+	private void fillHue(int[] result)
+	{
+		float[] hues = getHSB();
+
+		for (int i = 0; i < count; i++)
+		{
+			result[i] = Color.HSBtoRGB(hues[i], 1, 1);
+		}
+	}
+
+	private void fillGray(int[] result, float[] values, int offset)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			// same rounding as Color(float, float, float)
+			result[i] = gray((int) (values[offset + i] * 255 + 0.5));
+		}
+	}
+
+	private void fillGray(float[] result, float[] values, int offset)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			float v = values[offset + i];
+			result[3 * i + 0] = v;
+			result[3 * i + 1] = v;
+			result[3 * i + 2] = v;
+		}
+	}
+
+	private float[] getHSB()
+	{
+		if (hsb == null)
+		{
+			hsb = new float[3 * count];
+			float[] tmp = new float[3];
+
+			for (int i = 0; i < count; i++)
+			{
+				int c = argb[i];
+				Color.RGBtoHSB((c >> 16) & 0xFF, (c >> 8) & 0xFF, c & 0xFF, tmp);
+				hsb[i] = tmp[0];
+				hsb[count + i] = tmp[1];
+				hsb[2 * count + i] = tmp[2];
+			}
+		}
+
+		return hsb;
+	}
+
+	private float[] getAttention()
+	{
+		if (attention == null)
+		{
+			double[] soa = new double[3 * count];
+
+			for (int i = 0; i < count; i++)
+			{
+				int c = argb[i] & 0xFFFFFF;
+
+				// black is mapped to 1/255 - see XYZ.color2xyz()
+				if (c == 0)
+				{
+					c = 0x010101;
+				}
+
+				double r = SRGBGamma.decode8Bit((c >> 16) & 0xFF) * 100.0;
+				double g = SRGBGamma.decode8Bit((c >> 8) & 0xFF) * 100.0;
+				double b = SRGBGamma.decode8Bit(c & 0xFF) * 100.0;
+
+				soa[i] = (r * 0.4124564) + (g * 0.3575761) + (b * 0.1804375);
+				soa[count + i] = (r * 0.2126729) + (g * 0.7151522) + (b * 0.0721750);
+				soa[2 * count + i] = (r * 0.0193339) + (g * 0.1191920) + (b * 0.9503041);
+			}
+
+			CIELAB.xyz2lab(soa, count);
+
+			// sqrt(L^2 + C^2) = sqrt(L^2 + a^2 + b^2) - the hue angle is not needed
+			attention = new float[count];
+			for (int i = 0; i < count; i++)
+			{
+				double l = soa[i];
+				double a = soa[count + i];
+				double b = soa[2 * count + i];
+				attention[i] = (float) ((float) Math.sqrt(l * l + a * a + b * b) / MAX_ATTENTION);
+			}
+		}
+
+		return attention;
+	}
+
+	private static int gray(int v)
+	{
+		return 0xFF000000 | (v << 16) | (v << 8) | v;
+	}
+}
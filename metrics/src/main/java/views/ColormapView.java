@@ -18,17 +18,20 @@ package views;
 
 import java.awt.Color;
 
+import de.fhg.igd.iva.colormaps.Colormap;
+
 /**
  * A view on a colormap
  * @author Martin Steiger
  */
-public interface ColormapView
+public interface ColormapView extends Colormap
 {
 	/**
 	 * @param mx the x coordinate in the range [0..1]
 	 * @param my the x coordinate in the range [0..1]
 	 * @return the color value at [mx, my] 
 	 */
+	@Override
 	Color getColor(double mx, double my);
 
 	/**
@@ -38,6 +41,38 @@ public interface ColormapView
 	 */
 	double getReliability(double mx, double my);
 
+	/**
+	 * Evaluates the view and its reliability at many points at once. In contrast to
+	 * {@link #getColors(double[], int[])}, the color components are not quantized to 8 bits.
+	 * The default implementation is based on {@link #getColor(double, double)} and {@link #getReliability(double, double)}.
+	 * @param coords the coordinates as <code>[x0, y0, x1, y1, ..]</code>, each in the range [0..1]
+	 * @param rgb the target array for the interleaved RGB components (3 per point) or <code>null</code>
+	 * @param reliability the target array for the reliability of every point or <code>null</code> if not needed
+	 * @return the <code>rgb</code> array or a newly allocated array if it was <code>null</code>
+	 */
+	default float[] getColorComponents(double[] coords, float[] rgb, float[] reliability)
+	{
+		int count = coords.length / 2;
+		float[] target = (rgb != null) ? rgb : new float[3 * count];
+		float[] comps = new float[3];
+
+		for (int i = 0; i < count; i++)
+		{
+			double mx = coords[2 * i];
+			double my = coords[2 * i + 1];
+
+			getColor(mx, my).getColorComponents(comps);
+			System.arraycopy(comps, 0, target, 3 * i, 3);
+
+			if (reliability != null)
+			{
+				reliability[i] = (float) getReliability(mx, my);
+			}
+		}
+
+		return target;
+	}
+
 	/**
 	 * @return a human-readable description of the view
 	 */
@@ -17,10 +17,9 @@
 package views;
 
 import java.awt.Color;
+import java.util.Arrays;
 
 import de.fhg.igd.iva.colormaps.Colormap;
-import de.fhg.igd.iva.colorspaces.CIELABLch;
-import de.fhg.igd.iva.colorspaces.RGB;
 
 /**
  * Transforms a given colormap by filtering a channel
@@ -74,46 +73,71 @@ public class SimpleColormapView implements ColormapView
 	public Color getColor(double mx, double my)
 	{
 		Color color = colormap.getColor(mx, my);
-		
-		int red = color.getRed();
-		int green = color.getGreen();
-		int blue = color.getBlue();
-		float[] hsb;
-		
-		switch (viewType)
-		{
-		case REAL:
+
+		if (viewType == ViewType.REAL)
 			return color;
-		case LUM:
-			int y = RGB.getLumaByte(color);
-			return new Color(y, y ,y);
-		case RED:
-			return new Color(red, 0, 0);
-		case GREEN:
-			return new Color(0, green, 0);
-		case BLUE:
-			return new Color(0, 0, blue);
-		case HUE:
-			hsb = Color.RGBtoHSB(red, green, blue, null);
-			Color rgb = new Color(Color.HSBtoRGB(hsb[0], 1, 1));
-			return new Color(rgb.getRed(), rgb.getGreen(), rgb.getBlue());
-		case SAT:
-			hsb = Color.RGBtoHSB(red, green, blue, null);
-			return new Color(hsb[1], hsb[1], hsb[1]);
-		case BRIGHT:
-			hsb = Color.RGBtoHSB(red, green, blue, null);
-			return new Color(hsb[2], hsb[2], hsb[2]);
-		case ATT:
+
+		float[] rgb = new ChannelDecomposition(new int[] { color.getRGB() }).getComponents(viewType, null);
+		return new Color(rgb[0], rgb[1], rgb[2]);
+	}
+
+	@Override
+	public int[] getColorGrid(int width, int height, int[] argb)
+	{
+		return filter(colormap.getColorGrid(width, height, argb), argb);
+	}
+
+	@Override
+	public int[] getColors(double[] coords, int[] argb)
+	{
+		return filter(colormap.getColors(coords, argb), argb);
+	}
+
+	@Override
+	public float[] getColorComponents(double[] coords, float[] rgb, float[] reliability)
+	{
+		int count = coords.length / 2;
+
+		if (viewType == ViewType.REAL)
 		{
-			double[] lch = new CIELABLch().fromColor(color);
+			// the original components are not quantized
+			float[] target = (rgb != null) ? rgb : new float[3 * count];
+			float[] comps = new float[3];
+			for (int i = 0; i < count; i++)
+			{
+				colormap.getColorComponents(coords[2 * i], coords[2 * i + 1], comps);
+				System.arraycopy(comps, 0, target, 3 * i, 3);
+			}
 
-			float attention = (float) ((float) Math.sqrt(lch[0]*lch[0]+lch[1]*lch[1]) / Math.sqrt(100*100 + 150*150));
-			return new Color(attention, attention, attention);
+			if (reliability != null)
+			{
+				Arrays.fill(reliability, 0, count, 1f);
+			}
+
+			return target;
 		}
-		
-		default:
-			return Color.LIGHT_GRAY;
+
+		// the reliability is derived from the same colors
+		ChannelDecomposition decomposition = new ChannelDecomposition(colormap.getColors(coords, null));
+		if (reliability != null)
+		{
+			decomposition.getReliability(viewType, reliability);
 		}
+
+		return decomposition.getComponents(viewType, rgb);
+	}
+
+	/**
+	 * Applies the view to colors that were already sampled from the original colormap,
+	 * e.g. by {@link Colormap#getColorGrid(int, int, int[])}. Use {@link ChannelDecomposition}
+	 * directly to derive several views from the same colors.
+	 * @param argb the packed, opaque ARGB colors of the original colormap
+	 * @param target the target array (at least <code>argb.length</code> elements) or <code>null</code>
+	 * @return the <code>target</code> array or a newly allocated array if it was <code>null</code>
+	 */
+	public int[] filter(int[] argb, int[] target)
+	{
+		return new ChannelDecomposition(argb).getChannel(viewType, target);
 	}
 
 	@Override
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.awt.color.ColorSpace;
+
+import org.junit.Test;
+
+import de.fhg.igd.iva.colormaps.CachedColormap;
+import de.fhg.igd.iva.colormaps.impl.BCP37;
+import de.fhg.igd.pcolor.CAMLch;
+import de.fhg.igd.pcolor.PColor;
+import de.fhg.igd.pcolor.colorspace.CS_CAMLch;
+import de.fhg.igd.pcolor.colorspace.ViewingConditions;
+import de.fhg.igd.pcolor.util.ColorTools;
+
+/**
+ * Tests the CAM02-UCS companion grid of {@link CachedColormap} that is computed with {@link SampleContext#CAM02_UCS}
+ * @author Martin Steiger
+ */
+public class PerceptualGridTest
+{
+	private static final int WIDTH = 64;
+	private static final int HEIGHT = 48;
+
+	private static final ColorSpace SRGB = ColorSpace.getInstance(ColorSpace.CS_sRGB);
+	private static final CS_CAMLch CAM_SPACE = new CS_CAMLch(ViewingConditions.sRGB_typical_envirnonment, CS_CAMLch.JMh);
+
+	@Test
+	public void testGridNodes()
+	{
+		CachedColormap cached = new CachedColormap(new BCP37(), WIDTH, HEIGHT).withPerceptualGrid(SampleContext.CAM02_UCS);
+		float[] comps = new float[3];
+
+		for (int y = 0; y < HEIGHT; y += 3)
+		{
+			for (int x = 0; x < WIDTH; x += 5)
+			{
+				double mx = x / (WIDTH - 1.0);
+				double my = y / (HEIGHT - 1.0);
+
+				PColor color = PColor.create(SRGB, cached.getColorComponents(mx, my, new float[3]));
+				float[] expected = ColorTools.toUCS_Jab((CAMLch) PColor.convert(color, CAM_SPACE));
+
+				assertArrayEquals(expected, cached.getPerceptualComponents(mx, my, comps), 0.001f);
+			}
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link QuantileSelection} against sorting all values and indexing the sorted array
+ * @author Martin Steiger
+ */
+public class QuantileSelectionTest
+{
+	private static final double[] QUANTILES = { 0.5, 0, 1, 0.25, 0.75, 0.5, 0.1, 0.99 };
+
+	@Test
+	public void testRandom()
+	{
+		Random rnd = new Random(1234);
+
+		for (int len : new int[] { 2, 3, 15, 16, 17, 100, 1001, 10000 })
+		{
+			double[] values = new double[len];
+			for (int i = 0; i < len; i++)
+			{
+				values[i] = rnd.nextGaussian();
+			}
+
+			assertQuantiles(values, QUANTILES);
+		}
+	}
+
+	@Test
+	public void testDuplicates()
+	{
+		Random rnd = new Random(4321);
+
+		for (int len : new int[] { 5, 50, 5000 })
+		{
+			double[] values = new double[len];
+			for (int i = 0; i < len; i++)
+			{
+				values[i] = rnd.nextInt(4);
+			}
+
+			assertQuantiles(values, QUANTILES);
+		}
+
+		double[] constant = new double[1000];
+		Arrays.fill(constant, 2.5);
+		assertQuantiles(constant, QUANTILES);
+	}
+
+	@Test
+	public void testSorted()
+	{
+		double[] ascending = new double[1000];
+		double[] descending = new double[1000];
+		for (int i = 0; i < ascending.length; i++)
+		{
+			ascending[i] = i;
+			descending[i] = ascending.length - i;
+		}
+
+		assertQuantiles(ascending, QUANTILES);
+		assertQuantiles(descending, QUANTILES);
+	}
+
+	@Test
+	public void testSingleElement()
+	{
+		double[] result = QuantileSelection.quantiles(new double[] { 3.0 }, QUANTILES);
+
+		for (double value : result)
+		{
+			assertEquals(3.0, value, 0.0);
+		}
+	}
+
+	@Test
+	public void testMinMax()
+	{
+		double[] values = { 5, -1, 7, 3, 7, -1, 0 };
+		double[] result = QuantileSelection.quantiles(values, 0, 1);
+
+		assertArrayEquals(new double[] { -1, 7 }, result, 0.0);
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		double[] result = QuantileSelection.quantiles(new double[0], 0, 0.5, 1);
+
+		for (double value : result)
+		{
+			assertTrue(Double.isNaN(value));
+		}
+	}
+
+	@Test
+	public void testAllNaN()
+	{
+		double[] values = new double[100];
+		Arrays.fill(values, Double.NaN);
+
+		double[] valid = QuantileSelection.removeNaN(values);
+		assertEquals(0, valid.length);
+
+		double[] result = QuantileSelection.quantiles(valid, QUANTILES);
+		for (double value : result)
+		{
+			assertTrue(Double.isNaN(value));
+		}
+	}
+
+	@Test
+	public void testSomeNaN()
+	{
+		double[] values = { Double.NaN, 4, Double.NaN, 1, 3, Double.NaN, 2 };
+
+		double[] valid = QuantileSelection.removeNaN(values);
+		assertArrayEquals(new double[] { 4, 1, 3, 2 }, valid, 0.0);
+
+		assertQuantiles(valid, QUANTILES);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidQuantile()
+	{
+		QuantileSelection.quantiles(new double[] { 1, 2, 3 }, 1.5);
+	}
+
+	private static void assertQuantiles(double[] values, double... ps)
+	{
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+
+		double[] expected = new double[ps.length];
+		for (int i = 0; i < ps.length; i++)
+		{
+			expected[i] = sorted[(int) ((sorted.length - 1) * ps[i])];
+		}
+
+		double[] actual = QuantileSelection.quantiles(values.clone(), ps);
+		assertArrayEquals(expected, actual, 0.0);
+
+		// select() must also place every element on the correct side of each rank
+		double[] selected = values.clone();
+		int[] ranks = { 0, selected.length / 3, selected.length - 1 };
+		QuantileSelection.select(selected, Arrays.stream(ranks).distinct().toArray());
+		for (int rank : ranks)
+		{
+			assertEquals(sorted[rank], selected[rank], 0.0);
+			for (int i = 0; i < rank; i++)
+			{
+				assertTrue(selected[i] <= selected[rank]);
+			}
+			for (int i = rank + 1; i < selected.length; i++)
+			{
+				assertTrue(selected[i] >= selected[rank]);
+			}
+		}
+	}
+}
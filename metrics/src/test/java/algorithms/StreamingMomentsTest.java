@@ -0,0 +1,160 @@
+/*
+ * Copyright 2014 Fraunhofer IGD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link StreamingMoments} against a two-pass computation
+ * @author Martin Steiger
+ */
+public class StreamingMomentsTest
+{
+	private static final double EPS = 1e-9;
+
+	@Test
+	public void testEmpty()
+	{
+		StreamingMoments moments = new StreamingMoments();
+
+		assertEquals(0, moments.getN());
+		assertTrue(Double.isNaN(moments.getMean()));
+		assertTrue(Double.isNaN(moments.getVariance()));
+		assertTrue(Double.isNaN(moments.getStandardDeviation()));
+	}
+
+	@Test
+	public void testSingleValue()
+	{
+		StreamingMoments moments = new StreamingMoments();
+		moments.add(4.5);
+
+		assertEquals(1, moments.getN());
+		assertEquals(4.5, moments.getMean(), 0.0);
+		assertEquals(0.0, moments.getVariance(), 0.0);
+		assertEquals(0.0, moments.getStandardDeviation(), 0.0);
+	}
+
+	@Test
+	public void testSequential()
+	{
+		double[] values = createValues(1000);
+
+		StreamingMoments moments = new StreamingMoments();
+		for (double v : values)
+		{
+			moments.add(v);
+		}
+
+		assertMoments(values, moments);
+	}
+
+	@Test
+	public void testCombine()
+	{
+		double[] values = createValues(1000);
+
+		for (int split : new int[] { 0, 1, 2, 500, 999, 1000 })
+		{
+			StreamingMoments left = new StreamingMoments();
+			StreamingMoments right = new StreamingMoments();
+
+			for (int i = 0; i < split; i++)
+			{
+				left.add(values[i]);
+			}
+			for (int i = split; i < values.length; i++)
+			{
+				right.add(values[i]);
+			}
+
+			left.combine(right);
+			assertMoments(values, left);
+		}
+	}
+
+	@Test
+	public void testCombineEmpty()
+	{
+		StreamingMoments empty = new StreamingMoments();
+		empty.combine(new StreamingMoments());
+
+		assertEquals(0, empty.getN());
+		assertTrue(Double.isNaN(empty.getMean()));
+
+		StreamingMoments single = new StreamingMoments();
+		single.combine(new StreamingMoments());
+		single.add(2.0);
+		single.combine(new StreamingMoments());
+
+		assertEquals(1, single.getN());
+		assertEquals(2.0, single.getMean(), 0.0);
+		assertEquals(0.0, single.getVariance(), 0.0);
+	}
+
+	@Test
+	public void testParallelStream()
+	{
+		double[] values = createValues(100000);
+
+		StreamingMoments moments = IntStream.range(0, values.length).parallel()
+				.collect(StreamingMoments::new, (m, i) -> m.add(values[i]), StreamingMoments::combine);
+
+		assertMoments(values, moments);
+	}
+
+	private static double[] createValues(int count)
+	{
+		Random rnd = new Random(2014);
+		double[] values = new double[count];
+
+		// a large offset makes the naive sum-of-squares approach fail
+		for (int i = 0; i < count; i++)
+		{
+			values[i] = 1e6 + rnd.nextGaussian() * 3.0;
+		}
+
+		return values;
+	}
+
+	private static void assertMoments(double[] values, StreamingMoments moments)
+	{
+		double mean = 0;
+		for (double v : values)
+		{
+			mean += v;
+		}
+		mean /= values.length;
+
+		double sq = 0;
+		for (double v : values)
+		{
+			sq += (v - mean) * (v - mean);
+		}
+		double variance = sq / (values.length - 1);
+
+		assertEquals(values.length, moments.getN());
+		assertEquals(mean, moments.getMean(), mean * EPS);
+		assertEquals(variance, moments.getVariance(), variance * 1e-6);
+	}
+}